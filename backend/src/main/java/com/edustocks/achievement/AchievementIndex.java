@@ -0,0 +1,181 @@
+package com.edustocks.achievement;
+
+import com.edustocks.model.AchievementState;
+import com.edustocks.model.AchievementStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Achievement rules compiled into an index keyed by event type. Applying an event looks up
+ * the rules that depend on its type and nothing else: each counter those rules read is bumped
+ * once, and only rules the user hasn't unlocked yet are checked. A counter whose rules are all
+ * unlocked stops being maintained.
+ */
+public final class AchievementIndex {
+
+    /** What applying one event did to a user's state. */
+    public record Outcome(List<AchievementRule<?>> unlocked, boolean changed) {
+    }
+
+    private record CounterRules<E>(AchievementRule.Counter<E> counter, List<AchievementRule<E>> rules) {
+    }
+
+    private static final class Trigger<E> {
+        final List<CounterRules<E>> counters = new ArrayList<>();
+        final List<AchievementRule<E>> valueRules = new ArrayList<>();
+    }
+
+    private final List<AchievementRule<?>> rules;
+    private final Map<Class<?>, Trigger<?>> triggers;
+
+    private AchievementIndex(List<AchievementRule<?>> rules, Map<Class<?>, Trigger<?>> triggers) {
+        this.rules = rules;
+        this.triggers = triggers;
+    }
+
+    /** Compiles the rules; ids must be unique and counter names must not be reused. */
+    public static AchievementIndex of(Collection<? extends AchievementRule<?>> rules) {
+        Map<String, AchievementRule<?>> byId = new HashMap<>();
+        Map<String, AchievementRule.Counter<?>> counters = new HashMap<>();
+        Map<Class<?>, Trigger<?>> triggers = new HashMap<>();
+        for (AchievementRule<?> rule : rules) {
+            if (byId.putIfAbsent(rule.id(), rule) != null) {
+                throw new IllegalArgumentException("Duplicate achievement id: " + rule.id());
+            }
+            AchievementRule.Counter<?> counter = rule.counter();
+            if (counter != null) {
+                AchievementRule.Counter<?> existing = counters.putIfAbsent(counter.name(), counter);
+                if (existing != null && existing != counter) {
+                    throw new IllegalArgumentException("Counter " + counter.name() + " is declared twice");
+                }
+            }
+            add(triggers, rule);
+        }
+        return new AchievementIndex(List.copyOf(rules), Map.copyOf(triggers));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> void add(Map<Class<?>, Trigger<?>> triggers, AchievementRule<E> rule) {
+        Trigger<E> trigger = (Trigger<E>) triggers.computeIfAbsent(rule.eventType(), type -> new Trigger<>());
+        if (rule.counter() == null) {
+            trigger.valueRules.add(rule);
+            return;
+        }
+        for (CounterRules<E> entry : trigger.counters) {
+            if (entry.counter() == rule.counter()) {
+                entry.rules().add(rule);
+                return;
+            }
+        }
+        List<AchievementRule<E>> dependents = new ArrayList<>();
+        dependents.add(rule);
+        trigger.counters.add(new CounterRules<>(rule.counter(), dependents));
+    }
+
+    /** True if some rule depends on events of this type. */
+    public boolean handles(Class<?> eventType) {
+        return triggers.containsKey(eventType);
+    }
+
+    /**
+     * True if applying the event would change the state, without changing it. Unlocks are never
+     * taken back, so a false answer for an older copy of the state also holds for a newer one.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> boolean affects(AchievementState state, E event) {
+        Trigger<E> trigger = (Trigger<E>) triggers.get(event.getClass());
+        if (trigger == null) {
+            return false;
+        }
+        for (CounterRules<E> entry : trigger.counters) {
+            if (!allUnlocked(state, entry.rules()) && entry.counter().matches(event)) {
+                return true;
+            }
+        }
+        for (AchievementRule<E> rule : trigger.valueRules) {
+            if (!state.getUnlocked().containsKey(rule.id()) && rule.reachedBy(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Applies one event to a user's state in place, unlocking achievements stamped with {@code now}. */
+    @SuppressWarnings("unchecked")
+    public <E> Outcome apply(AchievementState state, E event, long now) {
+        Trigger<E> trigger = (Trigger<E>) triggers.get(event.getClass());
+        if (trigger == null) {
+            return new Outcome(List.of(), false);
+        }
+        List<AchievementRule<?>> unlocked = new ArrayList<>();
+        boolean changed = false;
+        for (CounterRules<E> entry : trigger.counters) {
+            AchievementRule.Counter<E> counter = entry.counter();
+            if (allUnlocked(state, entry.rules()) || !counter.matches(event)) {
+                continue;
+            }
+            long count = bump(state, counter, event);
+            changed = true;
+            for (AchievementRule<E> rule : entry.rules()) {
+                if (!state.getUnlocked().containsKey(rule.id()) && count >= rule.target()) {
+                    state.getUnlocked().put(rule.id(), now);
+                    unlocked.add(rule);
+                }
+            }
+        }
+        for (AchievementRule<E> rule : trigger.valueRules) {
+            if (!state.getUnlocked().containsKey(rule.id()) && rule.reachedBy(event)) {
+                state.getUnlocked().put(rule.id(), now);
+                unlocked.add(rule);
+                changed = true;
+            }
+        }
+        return new Outcome(unlocked, changed);
+    }
+
+    /** Every achievement in declaration order, with the user's progress towards it. */
+    public List<AchievementStatus> statusOf(AchievementState state) {
+        List<AchievementStatus> statuses = new ArrayList<>(rules.size());
+        for (AchievementRule<?> rule : rules) {
+            Long unlockedAt = state.getUnlocked().get(rule.id());
+            double progress;
+            if (unlockedAt != null) {
+                progress = rule.target();
+            } else if (rule.counter() != null) {
+                progress = Math.min(rule.target(), state.getCounters().getOrDefault(rule.counter().name(), 0L));
+            } else {
+                progress = 0;
+            }
+            statuses.add(new AchievementStatus(rule.id(), rule.title(), rule.description(),
+                unlockedAt != null, unlockedAt, progress, rule.target()));
+        }
+        return statuses;
+    }
+
+    private static <E> boolean allUnlocked(AchievementState state, List<AchievementRule<E>> rules) {
+        for (AchievementRule<E> rule : rules) {
+            if (!state.getUnlocked().containsKey(rule.id())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <E> long bump(AchievementState state, AchievementRule.Counter<E> counter, E event) {
+        String name = counter.name();
+        String window = counter.windowOf(event);
+        long count;
+        if (window != null && !window.equals(state.getWindows().get(name))) {
+            state.getWindows().put(name, window);
+            count = 1;
+        } else {
+            count = state.getCounters().getOrDefault(name, 0L) + 1;
+        }
+        state.getCounters().put(name, count);
+        return count;
+    }
+}
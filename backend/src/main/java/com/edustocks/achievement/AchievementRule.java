@@ -0,0 +1,109 @@
+package com.edustocks.achievement;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * One achievement and the condition that unlocks it. A rule either counts matching events in a
+ * named per-user counter ({@link #counting}) or checks a value carried by a single event
+ * ({@link #reaching}); either way it depends on exactly one event type.
+ */
+public final class AchievementRule<E> {
+
+    private final String id;
+    private final String title;
+    private final String description;
+    private final Class<E> eventType;
+    private final Counter<E> counter;
+    private final ToDoubleFunction<E> value;
+    private final double target;
+
+    /**
+     * A per-user count of matching events. Counters with a window (e.g. the ISO week a lesson was
+     * completed in) start over when the window changes. Rules that share a counter must share the
+     * same instance, so each event bumps it once; the index rejects two different counters
+     * under one name.
+     */
+    public record Counter<E>(String name, Class<E> eventType, Predicate<? super E> filter,
+                             Function<? super E, String> window) {
+
+        public Counter {
+            Objects.requireNonNull(name, "name");
+            Objects.requireNonNull(eventType, "eventType");
+        }
+
+        public static <E> Counter<E> of(String name, Class<E> eventType) {
+            return new Counter<>(name, eventType, null, null);
+        }
+
+        public Counter<E> where(Predicate<? super E> filter) {
+            return new Counter<>(name, eventType, filter, window);
+        }
+
+        public Counter<E> per(Function<? super E, String> window) {
+            return new Counter<>(name, eventType, filter, window);
+        }
+
+        boolean matches(E event) {
+            return filter == null || filter.test(event);
+        }
+
+        String windowOf(E event) {
+            return window == null ? null : window.apply(event);
+        }
+    }
+
+    private AchievementRule(String id, String title, String description, Class<E> eventType,
+                            Counter<E> counter, ToDoubleFunction<E> value, double target) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.title = title;
+        this.description = description;
+        this.eventType = eventType;
+        this.counter = counter;
+        this.value = value;
+        this.target = target;
+    }
+
+    /** Unlocks once {@code counter} reaches {@code target}. */
+    public static <E> AchievementRule<E> counting(String id, String title, String description,
+                                                  Counter<E> counter, long target) {
+        return new AchievementRule<>(id, title, description, counter.eventType(), counter, null, target);
+    }
+
+    /** Unlocks the first time an event carries a value of at least {@code target}. */
+    public static <E> AchievementRule<E> reaching(String id, String title, String description,
+                                                  Class<E> eventType, ToDoubleFunction<E> value, double target) {
+        return new AchievementRule<>(id, title, description, eventType, null, Objects.requireNonNull(value), target);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public Class<E> eventType() {
+        return eventType;
+    }
+
+    /** The counter this rule reads, or null for a rule that checks a single event's value. */
+    public Counter<E> counter() {
+        return counter;
+    }
+
+    public double target() {
+        return target;
+    }
+
+    boolean reachedBy(E event) {
+        return value.applyAsDouble(event) >= target;
+    }
+}
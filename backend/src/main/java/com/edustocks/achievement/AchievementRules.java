@@ -0,0 +1,46 @@
+package com.edustocks.achievement;
+
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.event.PortfolioValuedEvent;
+import com.edustocks.event.TradeExecutedEvent;
+
+import java.util.List;
+
+/** The achievements students can earn. Ids are stored with each user, so never rename one. */
+public final class AchievementRules {
+
+    private static final AchievementRule.Counter<LessonCompletedEvent> LESSONS =
+        AchievementRule.Counter.of("lessons", LessonCompletedEvent.class);
+
+    private static final AchievementRule.Counter<LessonCompletedEvent> LESSONS_THIS_WEEK =
+        AchievementRule.Counter.of("lessonsThisWeek", LessonCompletedEvent.class)
+            .per(LessonCompletedEvent::weekKey);
+
+    private static final AchievementRule.Counter<LessonCompletedEvent> PERFECT_LESSONS =
+        AchievementRule.Counter.of("perfectLessons", LessonCompletedEvent.class)
+            .where(event -> event.score() >= 100);
+
+    private static final AchievementRule.Counter<TradeExecutedEvent> TRADES =
+        AchievementRule.Counter.of("trades", TradeExecutedEvent.class);
+
+    private AchievementRules() {
+    }
+
+    public static List<AchievementRule<?>> defaults() {
+        return List.of(
+            AchievementRule.counting("first-lesson", "First Lesson", "Complete your first lesson", LESSONS, 1),
+            AchievementRule.counting("knowledge-seeker", "Knowledge Seeker", "Complete 5 lessons", LESSONS, 5),
+            AchievementRule.counting("scholar", "Scholar", "Complete 15 lessons", LESSONS, 15),
+            AchievementRule.counting("busy-week", "Busy Week", "Complete 5 lessons in one week",
+                LESSONS_THIS_WEEK, 5),
+            AchievementRule.counting("perfect-score", "Perfect Score", "Score 100% on a lesson quiz",
+                PERFECT_LESSONS, 1),
+            AchievementRule.counting("first-trade", "First Trade", "Complete your first stock trade", TRADES, 1),
+            AchievementRule.counting("active-trader", "Active Trader", "Complete 25 trades", TRADES, 25),
+            AchievementRule.reaching("diversified", "Diversified", "Hold 5 different stocks at once",
+                PortfolioValuedEvent.class, PortfolioValuedEvent::holdingCount, 5),
+            AchievementRule.reaching("portfolio-up-10", "In the Green", "Grow your portfolio 10% above the starting balance",
+                PortfolioValuedEvent.class, PortfolioValuedEvent::returnPercent, 10)
+        );
+    }
+}
@@ -0,0 +1,191 @@
+package com.edustocks.ai;
+
+import com.edustocks.analytics.QuantileSketch;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for AI provider calls. At most {@code max-concurrent} calls run at once;
+ * up to {@code max-queue} more wait in arrival order for at most {@code max-wait-ms}, and each
+ * user may hold at most {@code per-user-max} running or waiting calls, so one busy client cannot
+ * fill the queue. Anything beyond that is rejected at once with a {@link SaturatedException}
+ * carrying a retry-after estimate. Callers are expected to wait on virtual threads, so a queue
+ * of waiting calls never ties up request threads.
+ */
+@Component
+public class AIBulkhead {
+
+    @Value("${ai.bulkhead.max-concurrent:16}")
+    private int maxConcurrent = 16;
+
+    @Value("${ai.bulkhead.max-queue:64}")
+    private int maxQueue = 64;
+
+    @Value("${ai.bulkhead.max-wait-ms:10000}")
+    private long maxWaitMs = 10000;
+
+    @Value("${ai.bulkhead.per-user-max:2}")
+    private int perUserMax = 2;
+
+    /** Thrown when a call is not admitted; the client should retry after the given delay. */
+    public static class SaturatedException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public SaturatedException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    /** Counts since startup; wait times cover admitted calls, including those that did not queue. */
+    public record Stats(int maxConcurrent, int active, int queued, int maxQueue, long admitted,
+                        long rejectedFull, long rejectedPerUser, long timedOut,
+                        double meanWaitMs, double p95WaitMs, double meanCallMs) {
+    }
+
+    private record Admission(String user, long admittedAt) {
+    }
+
+    private Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ConcurrentHashMap<String, Integer> perUser = new ConcurrentHashMap<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+    private final LongAdder rejectedPerUser = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder callNanos = new LongAdder();
+    private final QuantileSketch waitSketch = new QuantileSketch(0.02); // guarded by itself
+
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /** Runs {@code task} once admitted, blocking the calling thread while it waits its turn. */
+    public <T> T call(String userId, Supplier<T> task) {
+        Admission admission = admit(userId);
+        try {
+            return task.get();
+        } finally {
+            release(admission);
+        }
+    }
+
+    /**
+     * Subscribes to {@code source} once admitted and holds the slot until the stream completes,
+     * fails or is cancelled. The wait for admission happens on a bounded-elastic worker.
+     */
+    public <T> Flux<T> stream(String userId, Supplier<Flux<T>> source) {
+        return Flux.using(() -> admit(userId), admission -> source.get(), this::release)
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Stats stats() {
+        long calls = admitted.sum();
+        double p95;
+        synchronized (waitSketch) {
+            p95 = waitSketch.quantile(0.95);
+        }
+        return new Stats(maxConcurrent, maxConcurrent - permits.availablePermits(), queued.get(), maxQueue,
+            calls, rejectedFull.sum(), rejectedPerUser.sum(), timedOut.sum(),
+            calls == 0 ? 0 : waitNanos.sum() / 1e6 / calls, p95,
+            calls == 0 ? 0 : callNanos.sum() / 1e6 / calls);
+    }
+
+    private Admission admit(String userId) {
+        String user = userId == null ? "" : userId;
+        if (!reserveUserSlot(user)) {
+            rejectedPerUser.increment();
+            throw new SaturatedException("Too many AI requests in progress for this user", retryAfterSeconds());
+        }
+        try {
+            long waitStart = System.nanoTime();
+            acquire();
+            long admittedAt = System.nanoTime();
+            recordWait(admittedAt - waitStart);
+            admitted.increment();
+            return new Admission(user, admittedAt);
+        } catch (RuntimeException e) {
+            releaseUserSlot(user);
+            throw e;
+        }
+    }
+
+    private void release(Admission admission) {
+        permits.release();
+        callNanos.add(System.nanoTime() - admission.admittedAt());
+        releaseUserSlot(admission.user());
+    }
+
+    // tryAcquire(0, ...) rather than tryAcquire() so a free permit is not taken ahead of queued callers
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                rejectedFull.increment();
+                throw new SaturatedException("The AI trainer is busy, please retry shortly", retryAfterSeconds());
+            }
+            try {
+                if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                    timedOut.increment();
+                    throw new SaturatedException("The AI trainer is busy, please retry shortly", retryAfterSeconds());
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the AI trainer", e);
+        }
+    }
+
+    private boolean reserveUserSlot(String user) {
+        boolean[] reserved = new boolean[1];
+        perUser.compute(user, (key, held) -> {
+            int count = held == null ? 0 : held;
+            if (count >= perUserMax) {
+                return held;
+            }
+            reserved[0] = true;
+            return count + 1;
+        });
+        return reserved[0];
+    }
+
+    private void releaseUserSlot(String user) {
+        perUser.computeIfPresent(user, (key, held) -> held <= 1 ? null : held - 1);
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        synchronized (waitSketch) {
+            waitSketch.add(nanos / 1e6);
+        }
+    }
+
+    // Time for the calls ahead of a new caller to drain at the current mean call time
+    private long retryAfterSeconds() {
+        long calls = admitted.sum();
+        double meanCallMs = calls == 0 ? 1000 : callNanos.sum() / 1e6 / calls;
+        double drainMs = meanCallMs * (queued.get() + maxConcurrent) / maxConcurrent;
+        return Math.max(1, (long) Math.ceil(drainMs / 1000));
+    }
+}
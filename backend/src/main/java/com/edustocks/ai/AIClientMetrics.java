@@ -0,0 +1,54 @@
+package com.edustocks.ai;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Request and connection-reuse counters for one provider's HTTP client. */
+public final class AIClientMetrics {
+
+    /**
+     * Point-in-time view. {@code openConnections} and {@code idleConnections} are null when the
+     * client doesn't expose its pool.
+     */
+    public record Snapshot(String provider, long requests, long failures, long connectionsOpened,
+                           long connectionsReused, double reuseRatio, double meanLatencyMs,
+                           Integer openConnections, Integer idleConnections) {
+    }
+
+    private final String provider;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    public AIClientMetrics(String provider) {
+        this.provider = provider;
+    }
+
+    public void connectionOpened() {
+        opened.increment();
+    }
+
+    public void connectionReused() {
+        reused.increment();
+    }
+
+    public void recordCall(long elapsedNanos, boolean failed) {
+        requests.increment();
+        latencyNanos.add(elapsedNanos);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    public Snapshot snapshot(Integer openConnections, Integer idleConnections) {
+        long requestCount = requests.sum();
+        long openedCount = opened.sum();
+        long reusedCount = reused.sum();
+        long acquired = openedCount + reusedCount;
+        return new Snapshot(provider, requestCount, failures.sum(), openedCount, reusedCount,
+            acquired == 0 ? 0 : (double) reusedCount / acquired,
+            requestCount == 0 ? 0 : latencyNanos.sum() / 1e6 / requestCount,
+            openConnections, idleConnections);
+    }
+}
@@ -0,0 +1,29 @@
+package com.edustocks.ai;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * A large language model backend for the AI Trainer. Implementations are long-lived beans that
+ * own a pooled HTTP client; exactly one is active, picked with {@code ai.provider}.
+ */
+public interface AIProvider {
+
+    String SYSTEM_PROMPT = "You are an AI stock learning assistant.";
+
+    /** Short id used in configuration and metrics, e.g. {@code openai}. */
+    String name();
+
+    /** Name shown to users in error messages, e.g. {@code OpenAI}. */
+    String displayName();
+
+    /** Sends one prompt and blocks until the whole completion has arrived. */
+    String complete(String prompt);
+
+    /**
+     * Sends one prompt and emits the completion's text fragments as the provider produces them.
+     * Nothing is sent until subscription; cancelling the subscription abandons the request.
+     */
+    Flux<String> stream(String prompt);
+
+    AIClientMetrics.Snapshot metrics();
+}
@@ -0,0 +1,294 @@
+package com.edustocks.ai;
+
+import com.edustocks.cache.ExpiringLruCache;
+import com.edustocks.storage.LocalDocumentStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Caches AI answers by provider, level and normalized prompt, so the many students asking
+ * "What is a P/E ratio?" at the same level cost one provider call. Entries live in an in-memory
+ * LRU with a time-to-live and, when {@code ai.cache.disk-dir} is set, in a local log-structured
+ * store that survives restarts. An answer read back from disk keeps the lifetime it had left,
+ * so no tier serves it for longer than the time-to-live after it was first stored. Expired disk
+ * entries are deleted when looked up, and whenever the disk tier grows past
+ * {@code ai.cache.disk-max-entries} a pass deletes every expired entry and then the oldest ones;
+ * the pass runs in the background, except at startup. Concurrent misses for the same key wait
+ * for a single call. Failures are never cached.
+ */
+@Component
+public class AIResponseCache {
+
+    private static final String COLLECTION = "aiResponses";
+
+    @Value("${ai.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ai.cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    @Value("${ai.cache.ttl-minutes:1440}")
+    private long ttlMinutes = 1440;
+
+    @Value("${ai.cache.disk-dir:}")
+    private String diskDir = "";
+
+    @Value("${ai.cache.disk-max-entries:100000}")
+    private int diskMaxEntries = 100000;
+
+    private static final int TRIM_PAGE_SIZE = 500;
+
+    /** Hit and miss counts; {@code hitRate} counts hits from either tier. */
+    public record Stats(boolean enabled, long memoryHits, long diskHits, long misses, double hitRate,
+                        int entries, long evictions) {
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StoredResponse {
+        private String key;
+        private String response;
+        private long storedAt;
+    }
+
+    private record DiskEntry(long storedAt, String id) {
+    }
+
+    private ExpiringLruCache<String, String> memory;
+    private LocalDocumentStore disk;
+    // Documents on disk, counting overwrites as new until the next trim recounts
+    private final AtomicInteger diskEntries = new AtomicInteger();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private volatile Thread trimmer;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        memory = new ExpiringLruCache<>(maxEntries, ttlMinutes * 60_000);
+        if (enabled && diskDir != null && !diskDir.isBlank()) {
+            disk = new LocalDocumentStore(Paths.get(diskDir), false);
+            diskEntries.set(disk.count(COLLECTION));
+            if (diskEntries.get() > diskMaxEntries) {
+                // The bound may have been lowered since the entries were written
+                trimDisk();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (disk != null) {
+            Thread running = trimmer;
+            if (running != null) {
+                try {
+                    running.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            disk.close();
+        }
+    }
+
+    /** Returns the cached answer for this prompt, or calls {@code loader} once and caches its answer. */
+    public String get(String provider, String level, String prompt, Supplier<String> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = key(provider, level, prompt);
+        String cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        misses.increment();
+        try {
+            String response = loader.get();
+            store(key, response);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Returns the cached answer for this prompt, or null (counted as a miss). For callers that
+     * produce the answer themselves, such as a token stream, and {@link #put} it when complete.
+     */
+    public String peek(String provider, String level, String prompt) {
+        if (!enabled) {
+            return null;
+        }
+        String cached = lookup(key(provider, level, prompt));
+        if (cached == null) {
+            misses.increment();
+        }
+        return cached;
+    }
+
+    public void put(String provider, String level, String prompt, String response) {
+        if (enabled) {
+            store(key(provider, level, prompt), response);
+        }
+    }
+
+    public Stats stats() {
+        long fromMemory = memoryHits.sum();
+        long fromDisk = diskHits.sum();
+        long missed = misses.sum();
+        long lookups = fromMemory + fromDisk + missed;
+        return new Stats(enabled, fromMemory, fromDisk, missed,
+            lookups == 0 ? 0 : (double) (fromMemory + fromDisk) / lookups, memory.size(), memory.evictions());
+    }
+
+    /** Lower-cases, collapses whitespace and drops trailing punctuation, so trivially different prompts share an entry. */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        int end = normalized.length();
+        while (end > 0 && "?!. ".indexOf(normalized.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return normalized.substring(0, end);
+    }
+
+    private static String key(String provider, String level, String prompt) {
+        return provider + "|" + normalize(level) + "|" + normalize(prompt);
+    }
+
+    private String lookup(String key) {
+        String response = memory.get(key);
+        if (response != null) {
+            memoryHits.increment();
+            return response;
+        }
+        if (disk == null) {
+            return null;
+        }
+        String id = diskId(key);
+        StoredResponse stored = disk.get(COLLECTION, id, StoredResponse.class);
+        // The id is a hash, so compare the full key as well
+        if (stored == null || !key.equals(stored.getKey())) {
+            return null;
+        }
+        if (isExpired(stored)) {
+            disk.delete(COLLECTION, id);
+            diskEntries.decrementAndGet();
+            return null;
+        }
+        memory.put(key, stored.getResponse(), stored.getStoredAt() + ttlMinutes * 60_000);
+        diskHits.increment();
+        return stored.getResponse();
+    }
+
+    private void store(String key, String response) {
+        memory.put(key, response);
+        if (disk != null) {
+            disk.putAsync(COLLECTION, diskId(key), new StoredResponse(key, response, System.currentTimeMillis()))
+                .thenRun(() -> {
+                    if (diskEntries.incrementAndGet() > diskMaxEntries) {
+                        scheduleTrim();
+                    }
+                })
+                .exceptionally(e -> {
+                    System.err.println("Failed to persist cached AI response: " + e.getMessage());
+                    return null;
+                });
+        }
+    }
+
+    private void scheduleTrim() {
+        if (trimming.compareAndSet(false, true)) {
+            trimmer = Thread.ofVirtual().name("ai-cache-trim").start(() -> {
+                try {
+                    trimDisk();
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to trim the AI response cache: " + e.getMessage());
+                } finally {
+                    trimming.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Deletes expired disk entries, then the oldest live ones until the disk tier is back to 90%
+     * of its bound, so a full cache is not trimmed again on the very next store.
+     */
+    void trimDisk() {
+        List<DiskEntry> live = new ArrayList<>();
+        try (Stream<StoredResponse> entries = disk.scan(COLLECTION, StoredResponse.class, TRIM_PAGE_SIZE, 1)) {
+            entries.forEach(stored -> {
+                String id = diskId(stored.getKey());
+                if (isExpired(stored)) {
+                    disk.delete(COLLECTION, id);
+                } else {
+                    live.add(new DiskEntry(stored.getStoredAt(), id));
+                }
+            });
+        }
+        if (live.size() > diskMaxEntries) {
+            live.sort(Comparator.comparingLong(DiskEntry::storedAt));
+            int excess = live.size() - diskMaxEntries * 9 / 10;
+            for (int i = 0; i < excess; i++) {
+                disk.delete(COLLECTION, live.get(i).id());
+            }
+        }
+        diskEntries.set(disk.count(COLLECTION));
+    }
+
+    private boolean isExpired(StoredResponse stored) {
+        return System.currentTimeMillis() - stored.getStoredAt() >= ttlMinutes * 60_000;
+    }
+
+    static String diskId(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
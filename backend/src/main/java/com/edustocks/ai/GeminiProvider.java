@@ -0,0 +1,178 @@
+package com.edustocks.ai;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gemini generateContent over one shared WebClient backed by a bounded Reactor Netty connection
+ * pool, so connections are kept alive and reused across requests.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.provider", havingValue = "gemini")
+public class GeminiProvider implements AIProvider {
+
+    @Value("${gemini.api.key:}")
+    private String apiKey = "";
+
+    @Value("${ai.gemini.base-url:https://generativelanguage.googleapis.com}")
+    private String baseUrl = "https://generativelanguage.googleapis.com";
+
+    @Value("${ai.gemini.model:gemini-pro}")
+    private String model = "gemini-pro"; // text-only model suitable for chat
+
+    @Value("${ai.http.max-connections:20}")
+    private int maxConnections = 20;
+
+    @Value("${ai.http.keep-alive-seconds:300}")
+    private long keepAliveSeconds = 300;
+
+    @Value("${ai.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs = 5000;
+
+    @Value("${ai.http.read-timeout-seconds:60}")
+    private long readTimeoutSeconds = 60;
+
+    private final AIClientMetrics metrics = new AIClientMetrics("gemini");
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @PostConstruct
+    public void start() {
+        connectionProvider = ConnectionProvider.builder("gemini")
+            .maxConnections(maxConnections)
+            .maxIdleTime(Duration.ofSeconds(keepAliveSeconds))
+            .pendingAcquireTimeout(Duration.ofSeconds(readTimeoutSeconds))
+            .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMs)
+            .responseTimeout(Duration.ofSeconds(readTimeoutSeconds))
+            .observe((connection, state) -> {
+                if (state == ConnectionObserver.State.CONNECTED) {
+                    metrics.connectionOpened();
+                } else if (state == ConnectionObserver.State.ACQUIRED) {
+                    metrics.connectionReused();
+                }
+            });
+        webClient = WebClient.builder()
+            .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    @Override
+    public String name() {
+        return "gemini";
+    }
+
+    @Override
+    public String displayName() {
+        return "Gemini";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String complete(String prompt) {
+        requireKey();
+        long start = System.nanoTime();
+        boolean failed = true;
+        Map<String, Object> response;
+        try {
+            response = webClient.post()
+                    .uri(uri -> uri.path("/v1beta/models/{model}:generateContent")
+                        .queryParam("key", apiKey)
+                        .build(model))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(requestBody(prompt))
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .block(Duration.ofSeconds(readTimeoutSeconds));
+            failed = false;
+        } finally {
+            metrics.recordCall(System.nanoTime() - start, failed);
+        }
+
+        String text = response == null ? null : textOf(response);
+        return text == null ? "No response received from Gemini." : text;
+    }
+
+    // streamGenerateContent with alt=sse sends one generateContent-shaped JSON object per event
+    @Override
+    public Flux<String> stream(String prompt) {
+        return Flux.defer(() -> {
+            requireKey();
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri(uri -> uri.path("/v1beta/models/{model}:streamGenerateContent")
+                        .queryParam("alt", "sse")
+                        .queryParam("key", apiKey)
+                        .build(model))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(requestBody(prompt))
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>>() {})
+                    .mapNotNull(event -> event.data() == null ? null : textOf(event.data()))
+                    .filter(text -> !text.isEmpty())
+                    .doOnComplete(() -> metrics.recordCall(System.nanoTime() - start, false))
+                    .doOnError(e -> metrics.recordCall(System.nanoTime() - start, true));
+        });
+    }
+
+    private void requireKey() {
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("GEMINI_API_KEY is not set");
+        }
+    }
+
+    private static Map<String, Object> requestBody(String prompt) {
+        return Map.of(
+                "contents", List.of(Map.of(
+                        "parts", List.of(Map.of("text", SYSTEM_PROMPT), Map.of("text", prompt))
+                ))
+        );
+    }
+
+    // Extract candidates[0].content.parts[0].text; null when the response has no candidate text
+    @SuppressWarnings("unchecked")
+    private static String textOf(Map<String, Object> response) {
+        try {
+            var candidates = (List<Map<String, Object>>) response.get("candidates");
+            if (candidates == null || candidates.isEmpty()) return null;
+            var content = (Map<String, Object>) candidates.get(0).get("content");
+            if (content == null) return null;
+            var parts = (List<Map<String, Object>>) content.get("parts");
+            if (parts == null || parts.isEmpty()) return null;
+            Object text = parts.get(0).get("text");
+            return text == null ? "" : text.toString();
+        } catch (Exception ex) {
+            throw new RuntimeException("Failed to parse Gemini response: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public AIClientMetrics.Snapshot metrics() {
+        return metrics.snapshot(null, null);
+    }
+}
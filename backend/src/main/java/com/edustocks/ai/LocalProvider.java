@@ -0,0 +1,160 @@
+package com.edustocks.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An offline stand-in for a real model, for load tests and CI without network access or keys.
+ * The reply is a pure function of the prompt: question prompts get a well-formed
+ * QUESTION / OPTIONS / ANSWER / EXPLANATION reply, anything else a short tutor answer. Timing
+ * mimics a hosted model: {@code ai.local.latency-ms} before the first token, then
+ * {@code ai.local.tokens-per-second} (0 for no per-token delay), one word per token.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.provider", havingValue = "local")
+public class LocalProvider implements AIProvider {
+
+    private static final Pattern QUESTION_PROMPT =
+        Pattern.compile("Create an? (.+?)-level multiple-choice question about (.+?) stock trading");
+    private static final Pattern TUTOR_PROMPT = Pattern.compile("(?s)As an? (.+?)-level tutor.*?:\\n(.*)");
+    private static final Pattern TOKEN = Pattern.compile("\\s*\\S+");
+
+    private static final String[] ANSWER_SENTENCES = {
+        "Start by asking how %s affects the risk you take on, not just the return you hope for.",
+        "A useful habit is to compare %s across several companies in the same sector.",
+        "Remember that %s is one signal among many; no single number tells the whole story.",
+        "Try a small simulated trade to see how %s plays out before committing real money.",
+        "Long-term investors usually care more about %s trends than day-to-day moves.",
+        "If %s changes suddenly, check the company's latest reports for the reason.",
+    };
+
+    @Value("${ai.local.latency-ms:200}")
+    private long latencyMs = 200;
+
+    @Value("${ai.local.tokens-per-second:50}")
+    private double tokensPerSecond = 50;
+
+    private final AIClientMetrics metrics = new AIClientMetrics("local");
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public String displayName() {
+        return "Local model";
+    }
+
+    @Override
+    public String complete(String prompt) {
+        long start = System.nanoTime();
+        List<String> tokens = tokens(reply(prompt));
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMs);
+            TimeUnit.NANOSECONDS.sleep(tokenDelayNanos() * tokens.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metrics.recordCall(System.nanoTime() - start, true);
+            throw new IllegalStateException("Interrupted while generating", e);
+        }
+        metrics.recordCall(System.nanoTime() - start, false);
+        return String.join("", tokens);
+    }
+
+    @Override
+    public Flux<String> stream(String prompt) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            Flux<String> tokens = Flux.fromIterable(tokens(reply(prompt)));
+            long delayNanos = tokenDelayNanos();
+            if (delayNanos > 0) {
+                tokens = tokens.delayElements(Duration.ofNanos(delayNanos));
+            }
+            return tokens
+                .delaySubscription(Duration.ofMillis(latencyMs))
+                .doOnComplete(() -> metrics.recordCall(System.nanoTime() - start, false))
+                .doOnError(e -> metrics.recordCall(System.nanoTime() - start, true));
+        });
+    }
+
+    @Override
+    public AIClientMetrics.Snapshot metrics() {
+        return metrics.snapshot(null, null);
+    }
+
+    private long tokenDelayNanos() {
+        return tokensPerSecond > 0 ? (long) (1_000_000_000L / tokensPerSecond) : 0;
+    }
+
+    static String reply(String prompt) {
+        SplittableRandom random = new SplittableRandom(seed(prompt));
+        Matcher question = QUESTION_PROMPT.matcher(prompt);
+        if (question.find()) {
+            return question(question.group(1), question.group(2), random);
+        }
+        Matcher tutor = TUTOR_PROMPT.matcher(prompt);
+        if (tutor.matches()) {
+            return answer(tutor.group(1), tutor.group(2).trim(), random);
+        }
+        return answer("beginner", prompt.trim(), random);
+    }
+
+    private static String question(String level, String topic, SplittableRandom random) {
+        String subject = Character.toUpperCase(topic.charAt(0)) + topic.substring(1);
+        String[] options = {
+            "Understanding " + topic + " helps you weigh risk against return before trading",
+            subject + " only matters to professional traders",
+            subject + " guarantees a profit on every trade",
+            subject + " has no effect on a stock's price",
+        };
+        int correct = random.nextInt(4);
+        String right = options[0];
+        options[0] = options[correct];
+        options[correct] = right;
+        return "QUESTION: (" + Long.toHexString(random.nextLong() & 0xffffffL) + ") Which statement about "
+            + topic + " is most accurate for a " + level + " investor?\n"
+            + "OPTIONS: A) " + options[0] + " B) " + options[1] + " C) " + options[2] + " D) " + options[3] + "\n"
+            + "ANSWER: " + (char) ('A' + correct) + "\n"
+            + "EXPLANATION: No single concept guarantees profits; " + topic
+            + " is one input for judging risk and return.";
+    }
+
+    private static String answer(String level, String query, SplittableRandom random) {
+        String subject = query.replaceAll("[?!.]+$", "");
+        StringBuilder answer = new StringBuilder("Good question. At the " + level + " level, think of \""
+            + subject + "\" this way.");
+        int first = random.nextInt(ANSWER_SENTENCES.length);
+        for (int i = 0; i < 3; i++) {
+            answer.append(' ').append(String.format(ANSWER_SENTENCES[(first + i) % ANSWER_SENTENCES.length],
+                subject.toLowerCase(Locale.ROOT)));
+        }
+        return answer.toString();
+    }
+
+    // Words with their leading whitespace, so joining the tokens reproduces the text exactly
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher word = TOKEN.matcher(text);
+        while (word.find()) {
+            tokens.add(word.group());
+        }
+        return tokens;
+    }
+
+    // String.hashCode is specified, so replies are stable across JVMs and runs
+    private static long seed(String prompt) {
+        return prompt.hashCode() * 0x9E3779B97F4A7C15L;
+    }
+}
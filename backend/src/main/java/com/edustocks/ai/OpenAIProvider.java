@@ -0,0 +1,169 @@
+package com.edustocks.ai;
+
+import com.theokanning.openai.client.OpenAiApi;
+import com.theokanning.openai.completion.chat.ChatCompletionChunk;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatMessage;
+import com.theokanning.openai.service.OpenAiService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenAI chat completions over one shared OkHttp client, so TLS connections are pooled and kept
+ * alive across requests instead of being set up (and a dispatcher pool leaked) per call.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.provider", havingValue = "openai", matchIfMissing = true)
+public class OpenAIProvider implements AIProvider {
+
+    @Value("${openai.api.key:}")
+    private String apiKey = "";
+
+    @Value("${ai.openai.base-url:https://api.openai.com/}")
+    private String baseUrl = "https://api.openai.com/";
+
+    @Value("${ai.openai.model:gpt-3.5-turbo}")
+    private String model = "gpt-3.5-turbo";
+
+    @Value("${ai.http.max-connections:20}")
+    private int maxConnections = 20;
+
+    @Value("${ai.http.keep-alive-seconds:300}")
+    private long keepAliveSeconds = 300;
+
+    @Value("${ai.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs = 5000;
+
+    @Value("${ai.http.read-timeout-seconds:60}")
+    private long readTimeoutSeconds = 60;
+
+    private final AIClientMetrics metrics = new AIClientMetrics("openai");
+    private OkHttpClient client;
+    private OpenAiService service;
+
+    @PostConstruct
+    public void start() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConnections);
+        dispatcher.setMaxRequestsPerHost(maxConnections);
+        client = OpenAiService.defaultClient(apiKey, Duration.ofSeconds(readTimeoutSeconds)).newBuilder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(maxConnections, keepAliveSeconds, TimeUnit.SECONDS))
+            .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+            .eventListenerFactory(call -> new ConnectionListener())
+            .build();
+        OpenAiApi api = OpenAiService.defaultRetrofit(client, OpenAiService.defaultObjectMapper()).newBuilder()
+            .baseUrl(baseUrl)
+            .build()
+            .create(OpenAiApi.class);
+        service = new OpenAiService(api, dispatcher.executorService());
+    }
+
+    @PreDestroy
+    public void stop() {
+        service.shutdownExecutor();
+        client.connectionPool().evictAll();
+    }
+
+    @Override
+    public String name() {
+        return "openai";
+    }
+
+    @Override
+    public String displayName() {
+        return "OpenAI";
+    }
+
+    @Override
+    public String complete(String prompt) {
+        ChatCompletionRequest request = chatRequest(prompt);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            var response = service.createChatCompletion(request);
+            failed = false;
+            if (response.getChoices().isEmpty()) {
+                return "No response received from OpenAI.";
+            }
+            return response.getChoices().get(0).getMessage().getContent();
+        } finally {
+            metrics.recordCall(System.nanoTime() - start, failed);
+        }
+    }
+
+    // The response body is read by OkHttp's dispatcher threads, never by the subscriber's thread
+    @Override
+    public Flux<String> stream(String prompt) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.from(service.streamChatCompletion(chatRequest(prompt)))
+                .map(OpenAIProvider::textOf)
+                .filter(text -> !text.isEmpty())
+                .doOnComplete(() -> metrics.recordCall(System.nanoTime() - start, false))
+                .doOnError(e -> metrics.recordCall(System.nanoTime() - start, true));
+        });
+    }
+
+    private ChatCompletionRequest chatRequest(String prompt) {
+        return ChatCompletionRequest.builder()
+                .model(model)
+                .messages(List.of(
+                        new ChatMessage("system", SYSTEM_PROMPT),
+                        new ChatMessage("user", prompt)
+                ))
+                .maxTokens(300)
+                .build();
+    }
+
+    // Streamed chunks carry the new text in choices[0].delta; the last one has none
+    private static String textOf(ChatCompletionChunk chunk) {
+        if (chunk.getChoices() == null || chunk.getChoices().isEmpty()) {
+            return "";
+        }
+        ChatMessage delta = chunk.getChoices().get(0).getMessage();
+        return delta == null || delta.getContent() == null ? "" : delta.getContent();
+    }
+
+    @Override
+    public AIClientMetrics.Snapshot metrics() {
+        ConnectionPool pool = client.connectionPool();
+        return metrics.snapshot(pool.connectionCount(), pool.idleConnectionCount());
+    }
+
+    // One instance per call: a connect before the connection is acquired means it is new
+    private final class ConnectionListener extends EventListener {
+        private boolean connected;
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connected = true;
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            if (connected) {
+                metrics.connectionOpened();
+            } else {
+                metrics.connectionReused();
+            }
+            connected = false;
+        }
+    }
+}
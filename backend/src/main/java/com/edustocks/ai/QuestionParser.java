@@ -0,0 +1,112 @@
+package com.edustocks.ai;
+
+import com.edustocks.model.Question;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses a generated multiple-choice question in the QUESTION / OPTIONS / ANSWER / EXPLANATION
+ * format requested by {@link QuestionPool#prompt}. Tolerates the usual model variations: labels
+ * in bold or brackets, options on one line or several, and answers like "B", "[B]" or "B) ...".
+ */
+public final class QuestionParser {
+
+    private static final Pattern SECTION =
+        Pattern.compile("(?i)[*#\\s]*\\b(QUESTION|OPTIONS|ANSWER|EXPLANATION)\\b\\s*\\**\\s*:\\s*\\**");
+    private static final Pattern OPTION = Pattern.compile("(?:^|\\s|\\[)\\(?([A-D])[).:]\\s*");
+    private static final Pattern ANSWER = Pattern.compile("(?i)^\\W*([A-D])\\b");
+
+    private QuestionParser() {
+    }
+
+    /** Returns the question with an unset id; throws IllegalArgumentException when the text is not in the format. */
+    public static Question parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Empty question text");
+        }
+        Map<String, String> sections = sections(text);
+        String question = clean(sections.get("QUESTION"));
+        if (question.isEmpty()) {
+            throw new IllegalArgumentException("No QUESTION section");
+        }
+        List<String> options = options(clean(sections.get("OPTIONS")));
+
+        Matcher answer = ANSWER.matcher(clean(sections.get("ANSWER")));
+        if (!answer.find()) {
+            throw new IllegalArgumentException("No ANSWER letter");
+        }
+        int correct = answer.group(1).toUpperCase(Locale.ROOT).charAt(0) - 'A';
+        return new Question(null, question, options, correct, clean(sections.get("EXPLANATION")));
+    }
+
+    // The first non-empty occurrence of each label wins, so a preamble like "Here is your
+    // question:" is skipped; text before the first label is ignored
+    private static Map<String, String> sections(String text) {
+        Map<String, String> sections = new HashMap<>();
+        Matcher matcher = SECTION.matcher(text);
+        String name = null;
+        int start = 0;
+        while (matcher.find()) {
+            if (name != null) {
+                addSection(sections, name, text.substring(start, matcher.start()));
+            }
+            name = matcher.group(1).toUpperCase(Locale.ROOT);
+            start = matcher.end();
+        }
+        if (name != null) {
+            addSection(sections, name, text.substring(start));
+        }
+        return sections;
+    }
+
+    private static void addSection(Map<String, String> sections, String name, String body) {
+        if (!body.isBlank()) {
+            sections.putIfAbsent(name, body);
+        }
+    }
+
+    // Options must be labelled A) to D) in order; a later letter inside an option's text is not a label
+    private static List<String> options(String section) {
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        Matcher matcher = OPTION.matcher(section);
+        while (matcher.find() && starts.size() < 4) {
+            if (matcher.group(1).charAt(0) == 'A' + starts.size()) {
+                starts.add(matcher.start());
+                ends.add(matcher.end());
+            }
+        }
+        if (starts.size() != 4) {
+            throw new IllegalArgumentException("Expected options A) to D), found " + starts.size());
+        }
+        List<String> options = new ArrayList<>(4);
+        for (int i = 0; i < 4; i++) {
+            String option = clean(section.substring(ends.get(i), i < 3 ? starts.get(i + 1) : section.length()));
+            if (option.isEmpty()) {
+                throw new IllegalArgumentException("Option " + (char) ('A' + i) + " is empty");
+            }
+            options.add(option);
+        }
+        return options;
+    }
+
+    private static String clean(String text) {
+        if (text == null) {
+            return "";
+        }
+        String cleaned = text.replace("*", "").replaceAll("\\s+", " ").trim();
+        if (cleaned.startsWith("[")) {
+            cleaned = cleaned.substring(1);
+        }
+        if (cleaned.endsWith("]")) {
+            cleaned = cleaned.substring(0, cleaned.length() - 1);
+        }
+        return cleaned.trim();
+    }
+}
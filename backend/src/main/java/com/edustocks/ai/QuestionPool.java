@@ -0,0 +1,243 @@
+package com.edustocks.ai;
+
+import com.edustocks.model.Question;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a few ready-made AI Trainer questions per (level, topic), so a question request is
+ * answered from memory instead of waiting seconds for the model. Each take tops the pair back up
+ * in the background; refills share a concurrency limit and a rate limit so they never crowd out
+ * live requests or burn through the provider quota. Only the configured levels and topics, plus
+ * any pairs listed in {@code ai.question-pool.warm}, are pooled: a pair is filled from its first
+ * request, or at startup when warm. Questions on any other topic are left to the caller to
+ * generate live, so free-form topics from clients can't grow the pool or spend its refill budget.
+ */
+@Component
+public class QuestionPool {
+
+    private static final long RETRY_AFTER_FAILURE_MS = 30_000;
+
+    @Autowired
+    private AIProvider aiProvider;
+
+    @Value("${ai.question-pool.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ai.question-pool.size:5}")
+    private int size = 5;
+
+    @Value("${ai.question-pool.max-concurrent:2}")
+    private int maxConcurrent = 2;
+
+    @Value("${ai.question-pool.generations-per-minute:20}")
+    private double generationsPerMinute = 20;
+
+    @Value("${ai.question-pool.levels:beginner,intermediate,advanced}")
+    private String levels = "beginner,intermediate,advanced";
+
+    @Value("${ai.question-pool.topics:stock basics,valuation,dividends,risk management,order types,diversification}")
+    private String topics = "stock basics,valuation,dividends,risk management,order types,diversification";
+
+    @Value("${ai.question-pool.warm:}")
+    private String warm = "";
+
+    /**
+     * {@code unpooled} counts takes for pairs that are not pooled; {@code rejected} counts
+     * generations discarded because they could not be parsed.
+     */
+    public record Stats(boolean enabled, int pairs, int ready, int refilling, long hits, long misses,
+                        long unpooled, long generated, long rejected, long failures) {
+    }
+
+    private static final class Pair {
+        final String level;
+        final String topic;
+        final Queue<Question> ready = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pending = new AtomicInteger();
+        volatile long retryAt;
+
+        Pair(String level, String topic) {
+            this.level = level;
+            this.topic = topic;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Pair> pairs = new ConcurrentHashMap<>();
+    private Set<String> pooled = Set.of();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder unpooled = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private Semaphore permits;
+    private TokenBucket rate;
+    private ExecutorService refills;
+
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(maxConcurrent);
+        rate = new TokenBucket(generationsPerMinute, maxConcurrent);
+        refills = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("question-pool-", 0).factory());
+        Set<String> keys = new HashSet<>();
+        for (String level : list(levels)) {
+            for (String topic : list(topics)) {
+                keys.add(key(level, topic));
+            }
+        }
+        List<String[]> warmPairs = new ArrayList<>();
+        for (String entry : list(warm)) {
+            String[] parts = entry.split(":", 2);
+            if (parts.length == 2 && !parts[0].isBlank() && !parts[1].isBlank()) {
+                warmPairs.add(new String[]{parts[0].trim(), parts[1].trim()});
+                keys.add(key(parts[0].trim(), parts[1].trim()));
+            }
+        }
+        pooled = Set.copyOf(keys);
+        if (enabled) {
+            for (String[] pair : warmPairs) {
+                refill(pairFor(pair[0], pair[1]));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        refills.shutdownNow();
+    }
+
+    /** The prompt for one multiple-choice question, shared by pooled and live generation. */
+    public static String prompt(String level, String topic) {
+        return String.format(
+            "Create a %s-level multiple-choice question about %s stock trading. " +
+            "Format: QUESTION: [question text] OPTIONS: [A) option1 B) option2 C) option3 D) option4] ANSWER: [A/B/C/D] " +
+            "EXPLANATION: [one or two sentences on why the answer is correct]",
+            level, topic
+        );
+    }
+
+    /**
+     * Removes and returns a ready question, without an id, or null if the pair has none or is not
+     * pooled and the caller should generate one itself. A pooled pair is refilled in the
+     * background either way.
+     */
+    public Question take(String level, String topic) {
+        if (!enabled) {
+            return null;
+        }
+        if (!pooled.contains(key(level, topic))) {
+            unpooled.increment();
+            return null;
+        }
+        Pair pair = pairFor(level, topic);
+        Question question = pair.ready.poll();
+        if (question != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        refill(pair);
+        return question;
+    }
+
+    public Stats stats() {
+        int ready = 0;
+        int refilling = 0;
+        for (Pair pair : pairs.values()) {
+            ready += pair.ready.size();
+            refilling += pair.pending.get();
+        }
+        return new Stats(enabled, pairs.size(), ready, refilling, hits.sum(), misses.sum(), unpooled.sum(),
+            generated.sum(), rejected.sum(), failures.sum());
+    }
+
+    private Pair pairFor(String level, String topic) {
+        return pairs.computeIfAbsent(key(level, topic), k -> new Pair(level, topic));
+    }
+
+    private static String key(String level, String topic) {
+        return level.trim().toLowerCase(Locale.ROOT) + "|" + topic.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> list(String csv) {
+        List<String> values = new ArrayList<>();
+        if (csv != null) {
+            for (String value : csv.split(",")) {
+                if (!value.isBlank()) {
+                    values.add(value.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    // Schedules one generation per missing question; pending ones count as present. At most one
+    // pool's worth is scheduled per call, so fast rejections are not retried in a tight loop.
+    private void refill(Pair pair) {
+        if (System.currentTimeMillis() < pair.retryAt) {
+            return;
+        }
+        int scheduled = 0;
+        while (scheduled < size) {
+            int pending = pair.pending.get();
+            if (pair.ready.size() + pending >= size) {
+                return;
+            }
+            if (pair.pending.compareAndSet(pending, pending + 1)) {
+                refills.execute(() -> generate(pair));
+                scheduled++;
+            }
+        }
+    }
+
+    private void generate(Pair pair) {
+        try {
+            long waitNanos = rate.reserve();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            String text;
+            permits.acquire();
+            try {
+                text = aiProvider.complete(prompt(pair.level, pair.topic));
+            } finally {
+                permits.release();
+            }
+            generated.increment();
+            try {
+                pair.ready.offer(QuestionParser.parse(text));
+            } catch (IllegalArgumentException e) {
+                // A malformed question is the model's fault, not the provider's; the next take retries
+                rejected.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Back off so a failing provider is not retried on every take
+            failures.increment();
+            pair.retryAt = System.currentTimeMillis() + RETRY_AFTER_FAILURE_MS;
+            System.err.println("Failed to pre-generate a " + pair.level + " question on " + pair.topic + ": " + e.getMessage());
+        } finally {
+            pair.pending.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.edustocks.ai;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A token-bucket rate limit: permits accrue at a steady rate up to a burst capacity. Callers
+ * reserve a permit up front and wait out the returned delay, so waiting callers queue behind
+ * each other instead of all retrying when a permit frees up.
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double tokens; // guarded by this; negative when permits are reserved ahead
+    private long refilledAt; // guarded by this
+
+    TokenBucket(double permitsPerMinute, int burst) {
+        this(permitsPerMinute, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerMinute, int burst, LongSupplier nanoClock) {
+        if (permitsPerMinute <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerMinute / 60_000_000_000.0;
+        this.capacity = burst;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /** Takes one permit and returns the nanoseconds to wait before using it; 0 if one was free. */
+    synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+}
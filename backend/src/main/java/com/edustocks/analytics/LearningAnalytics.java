@@ -0,0 +1,138 @@
+package com.edustocks.analytics;
+
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.event.LevelReachedEvent;
+import com.edustocks.event.QuizGradedEvent;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Learning aggregates maintained incrementally from lesson events: per-lesson score histograms
+ * (merged into per-level ones when read), daily attempt and completion counts, and per-cohort
+ * sketches of how many days users take to reach each level. Each event costs a few counter
+ * updates, and reports read these aggregates instead of scanning users.
+ *
+ * <p>Not thread-safe; {@link com.edustocks.service.AnalyticsService} feeds it from a single
+ * thread and guards reads.
+ */
+public final class LearningAnalytics {
+
+    private static final long DAY_SECONDS = 24 * 60 * 60;
+    private static final double SKETCH_ACCURACY = 0.01;
+
+    public record LessonReport(String lessonId, String level, long attempts, long completions,
+                               double meanScore, int p25Score, int medianScore, int p90Score) {
+    }
+
+    public record LevelReport(String level, long attempts, long completions, double meanScore,
+                              int p25Score, int medianScore, int p75Score, int p90Score) {
+    }
+
+    /** Days from account creation to reaching {@code level} for users created in {@code cohort} (yyyy-MM). */
+    public record CohortReport(String cohort, String level, long users, double medianDays, double p90Days) {
+    }
+
+    public record ActivityReport(long firstEpochDay, long[] attempts, long[] completions) {
+    }
+
+    private static final class LessonStats {
+        String level;
+        long completions;
+        final ScoreHistogram scores = new ScoreHistogram();
+    }
+
+    private final Map<String, LessonStats> lessons = new HashMap<>();
+    // level -> cohort -> days to reach it
+    private final Map<String, Map<String, QuantileSketch>> daysToLevel = new HashMap<>();
+    private final RollingCounter attempts;
+    private final RollingCounter completions;
+    private long unknownCohortEvents;
+
+    public LearningAnalytics(int activityDays) {
+        attempts = new RollingCounter(activityDays);
+        completions = new RollingCounter(activityDays);
+    }
+
+    /** Folds one event, observed at {@code at} (epoch seconds), into the aggregates; other events are ignored. */
+    public void apply(Object event, long at) {
+        long day = Math.floorDiv(at, DAY_SECONDS);
+        if (event instanceof QuizGradedEvent quiz) {
+            LessonStats stats = lessons.computeIfAbsent(quiz.lessonId(), id -> new LessonStats());
+            if (quiz.level() != null) {
+                stats.level = quiz.level();
+            }
+            stats.scores.add(quiz.score());
+            attempts.add(day, 1);
+        } else if (event instanceof LessonCompletedEvent completed) {
+            lessons.computeIfAbsent(completed.lessonId(), id -> new LessonStats()).completions++;
+            completions.add(day, 1);
+        } else if (event instanceof LevelReachedEvent reached) {
+            if (reached.createdAt() <= 0) {
+                unknownCohortEvents++;
+                return;
+            }
+            String cohort = YearMonth.from(Instant.ofEpochSecond(reached.createdAt()).atZone(ZoneOffset.UTC)).toString();
+            double days = (reached.reachedAt() - reached.createdAt()) / (double) DAY_SECONDS;
+            daysToLevel.computeIfAbsent(reached.level(), level -> new HashMap<>())
+                .computeIfAbsent(cohort, c -> new QuantileSketch(SKETCH_ACCURACY))
+                .add(days);
+        }
+    }
+
+    /** Lessons with at least one graded attempt, lowest mean score first. */
+    public List<LessonReport> lessonReports() {
+        List<LessonReport> reports = new ArrayList<>();
+        lessons.forEach((lessonId, stats) -> {
+            if (stats.scores.count() > 0) {
+                ScoreHistogram scores = stats.scores;
+                reports.add(new LessonReport(lessonId, stats.level, scores.count(), stats.completions, scores.mean(),
+                    scores.quantile(0.25), scores.quantile(0.5), scores.quantile(0.9)));
+            }
+        });
+        reports.sort(Comparator.comparingDouble(LessonReport::meanScore).thenComparing(LessonReport::lessonId));
+        return reports;
+    }
+
+    /** Per-level score distributions, merged from the lessons of each level. */
+    public List<LevelReport> levelReports() {
+        Map<String, ScoreHistogram> merged = new TreeMap<>();
+        Map<String, Long> levelCompletions = new HashMap<>();
+        lessons.forEach((lessonId, stats) -> {
+            String level = stats.level == null ? "unknown" : stats.level;
+            merged.computeIfAbsent(level, l -> new ScoreHistogram()).merge(stats.scores);
+            levelCompletions.merge(level, stats.completions, Long::sum);
+        });
+        List<LevelReport> reports = new ArrayList<>();
+        merged.forEach((level, scores) -> reports.add(new LevelReport(level, scores.count(),
+            levelCompletions.getOrDefault(level, 0L), scores.mean(), scores.quantile(0.25),
+            scores.quantile(0.5), scores.quantile(0.75), scores.quantile(0.9))));
+        return reports;
+    }
+
+    /** Time to reach {@code level} per monthly signup cohort, oldest cohort first. */
+    public List<CohortReport> cohortReports(String level) {
+        List<CohortReport> reports = new ArrayList<>();
+        new TreeMap<>(daysToLevel.getOrDefault(level, Map.of())).forEach((cohort, sketch) ->
+            reports.add(new CohortReport(cohort, level, sketch.count(), sketch.quantile(0.5), sketch.quantile(0.9))));
+        return reports;
+    }
+
+    /** Daily attempts and completions for the last {@code days} days up to {@code today} (epoch day). */
+    public ActivityReport activity(long today, int days) {
+        long[] attemptSeries = attempts.series(today, days);
+        return new ActivityReport(today - attemptSeries.length + 1, attemptSeries, completions.series(today, days));
+    }
+
+    /** Level-ups that couldn't be placed in a cohort because the user predates signup tracking. */
+    public long unknownCohortEvents() {
+        return unknownCohortEvents;
+    }
+}
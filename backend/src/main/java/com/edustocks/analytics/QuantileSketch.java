@@ -0,0 +1,75 @@
+package com.edustocks.analytics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Quantiles of an unbounded positive quantity (such as days until a level is reached) with a
+ * fixed relative error. Values fall into logarithmic buckets {@code (gamma^(i-1), gamma^i]}
+ * with {@code gamma = (1 + a) / (1 - a)}, so any quantile is reported within a fraction
+ * {@code a} of the true value while memory grows only with the log of the value range.
+ * Sketches with the same accuracy merge exactly by adding bucket counts.
+ */
+public final class QuantileSketch {
+
+    private static final double MIN_VALUE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long total;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /** Records a value; anything at or below zero is counted as zero. */
+    public void add(double value) {
+        if (value <= MIN_VALUE) {
+            zeroCount++;
+        } else {
+            buckets.merge((int) Math.ceil(Math.log(value) / logGamma), 1L, Long::sum);
+        }
+        total++;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        other.buckets.forEach((index, count) -> buckets.merge(index, count, Long::sum));
+        zeroCount += other.zeroCount;
+        total += other.total;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    /** Estimated {@code q}-quantile, or 0 when empty. */
+    public double quantile(double q) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = zeroCount;
+        if (seen >= rank) {
+            return 0;
+        }
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen >= rank) {
+                // Midpoint of the bucket in relative terms, which bounds the error by a
+                return 2 * Math.pow(gamma, bucket.getKey()) / (gamma + 1);
+            }
+        }
+        return 2 * Math.pow(gamma, buckets.lastKey()) / (gamma + 1);
+    }
+}
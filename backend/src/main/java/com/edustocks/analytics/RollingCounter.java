@@ -0,0 +1,59 @@
+package com.edustocks.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Daily counts over a sliding window of days, kept in a ring so old days are overwritten
+ * instead of accumulating.
+ */
+public final class RollingCounter {
+
+    private final long[] counts;
+    private final long[] days; // epoch day each slot currently holds
+
+    public RollingCounter(int windowDays) {
+        counts = new long[windowDays];
+        days = new long[windowDays];
+        Arrays.fill(days, Long.MIN_VALUE);
+    }
+
+    public void add(long epochDay, long amount) {
+        int slot = slot(epochDay);
+        if (days[slot] != epochDay) {
+            if (days[slot] > epochDay) {
+                return; // older than the window
+            }
+            days[slot] = epochDay;
+            counts[slot] = 0;
+        }
+        counts[slot] += amount;
+    }
+
+    /** Counts for the {@code length} days ending with {@code today}, oldest first. */
+    public long[] series(long today, int length) {
+        int span = Math.min(length, counts.length);
+        long[] series = new long[span];
+        for (int i = 0; i < span; i++) {
+            long day = today - (span - 1 - i);
+            int slot = slot(day);
+            series[i] = days[slot] == day ? counts[slot] : 0;
+        }
+        return series;
+    }
+
+    public long sum(long today, int length) {
+        long sum = 0;
+        for (long count : series(today, length)) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    public int windowDays() {
+        return counts.length;
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) counts.length);
+    }
+}
@@ -0,0 +1,52 @@
+package com.edustocks.analytics;
+
+/**
+ * Quiz scores bucketed by whole percent, 0 to 100. Scores are bounded, so 101 counters give
+ * exact quantiles at one-point resolution, and two histograms merge by adding counts, which
+ * is how per-level figures are built from per-lesson ones.
+ */
+public final class ScoreHistogram {
+
+    private final long[] counts = new long[101];
+    private long total;
+    private double sum;
+
+    public void add(double score) {
+        int bucket = (int) Math.round(Math.max(0, Math.min(100, score)));
+        counts[bucket]++;
+        total++;
+        sum += score;
+    }
+
+    public void merge(ScoreHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public double mean() {
+        return total == 0 ? 0 : sum / total;
+    }
+
+    /** The score below which a fraction {@code q} of attempts fall (nearest rank), or 0 when empty. */
+    public int quantile(double q) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return 100;
+    }
+}
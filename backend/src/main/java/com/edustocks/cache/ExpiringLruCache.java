@@ -0,0 +1,83 @@
+package com.edustocks.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded map that evicts the least recently used entry when full and treats entries older
+ * than the time-to-live as absent. Expired entries are dropped when they are next looked up or
+ * reach the LRU end, so there is no background sweeper.
+ */
+public final class ExpiringLruCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long evictions; // guarded by this
+
+    public ExpiringLruCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    ExpiringLruCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ExpiringLruCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** The live value, or null if absent or expired. */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            entries.remove(key);
+            evictions++;
+            return null;
+        }
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis));
+    }
+
+    /**
+     * Caches the value until {@code expiresAt} (epoch millis) instead of for the full
+     * time-to-live, for a value that was already cached somewhere else for a while.
+     */
+    public synchronized void put(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /** Removes the entry, returning its live value, or null if it was absent or expired. */
+    public synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry == null || entry.expiresAt() <= clock.getAsLong() ? null : entry.value();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Entries dropped for space or age so far. */
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
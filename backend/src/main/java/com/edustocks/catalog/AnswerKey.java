@@ -0,0 +1,102 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.Lesson;
+import com.edustocks.model.Question;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Correct answers for every quiz, indexed by lesson when the catalog is built. Feedback for
+ * each question is precomputed for both outcomes and shared, so grading a submission only
+ * allocates the result and its feedback list, however many students submit at once.
+ */
+public final class AnswerKey {
+
+    public record Feedback(String questionId, boolean correct, int correctAnswer, String explanation) {
+    }
+
+    public record Result(String lessonId, int correctCount, int totalQuestions, double score, List<Feedback> feedback) {
+    }
+
+    private record LessonKey(int[] correctAnswers, Feedback[] whenCorrect, Feedback[] whenIncorrect,
+                             Map<String, Integer> questionIndex) {
+    }
+
+    private final Map<String, LessonKey> keys;
+
+    private AnswerKey(Map<String, LessonKey> keys) {
+        this.keys = keys;
+    }
+
+    static AnswerKey build(Collection<Lesson> lessons) {
+        Map<String, LessonKey> keys = new HashMap<>();
+        for (Lesson lesson : lessons) {
+            List<Question> questions = lesson.getQuestions() == null ? List.of() : lesson.getQuestions();
+            int[] correctAnswers = new int[questions.size()];
+            Feedback[] whenCorrect = new Feedback[questions.size()];
+            Feedback[] whenIncorrect = new Feedback[questions.size()];
+            Map<String, Integer> questionIndex = new HashMap<>();
+            for (int i = 0; i < questions.size(); i++) {
+                Question question = questions.get(i);
+                if (question.getId() != null) {
+                    questionIndex.put(question.getId(), i);
+                }
+                correctAnswers[i] = question.getCorrectAnswer();
+                whenCorrect[i] = new Feedback(question.getId(), true, question.getCorrectAnswer(), question.getExplanation());
+                whenIncorrect[i] = new Feedback(question.getId(), false, question.getCorrectAnswer(), question.getExplanation());
+            }
+            keys.put(lesson.getId(), new LessonKey(correctAnswers, whenCorrect, whenIncorrect, Map.copyOf(questionIndex)));
+        }
+        return new AnswerKey(Map.copyOf(keys));
+    }
+
+    /**
+     * Grades one answer per question, in question order (-1 for unanswered).
+     *
+     * @return the result, or null when there is no lesson with this id
+     * @throws IllegalArgumentException when the number of answers does not match the quiz
+     */
+    public Result grade(String lessonId, int[] answers) {
+        LessonKey key = lessonId == null ? null : keys.get(lessonId);
+        if (key == null) {
+            return null;
+        }
+        int total = key.correctAnswers().length;
+        if (answers == null || answers.length != total) {
+            throw new IllegalArgumentException("Expected " + total + " answers but got "
+                + (answers == null ? 0 : answers.length));
+        }
+
+        Feedback[] feedback = new Feedback[total];
+        int correct = 0;
+        for (int i = 0; i < total; i++) {
+            if (answers[i] == key.correctAnswers()[i]) {
+                correct++;
+                feedback[i] = key.whenCorrect()[i];
+            } else {
+                feedback[i] = key.whenIncorrect()[i];
+            }
+        }
+        double score = total == 0 ? 100.0 : correct * 100.0 / total;
+        return new Result(lessonId, correct, total, score, Arrays.asList(feedback));
+    }
+
+    public boolean hasQuestion(String lessonId, String questionId) {
+        LessonKey key = lessonId == null ? null : keys.get(lessonId);
+        return key != null && questionId != null && key.questionIndex().containsKey(questionId);
+    }
+
+    /** Grades a single question, or returns null when the lesson or question does not exist. */
+    public Feedback gradeQuestion(String lessonId, String questionId, int answer) {
+        LessonKey key = lessonId == null ? null : keys.get(lessonId);
+        Integer index = key == null || questionId == null ? null : key.questionIndex().get(questionId);
+        if (index == null) {
+            return null;
+        }
+        return answer == key.correctAnswers()[index] ? key.whenCorrect()[index] : key.whenIncorrect()[index];
+    }
+}
@@ -0,0 +1,77 @@
+package com.edustocks.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A JSON response body encoded once, ahead of time, with a strong ETag derived from its bytes.
+ * Large bodies also carry a gzipped copy; it has its own ETag, since a strong validator must
+ * differ between content codings.
+ */
+public record EncodedJson(byte[] body, String etag, byte[] gzipBody, String gzipEtag) {
+
+    // Below this size gzip framing costs more than it saves
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    public static EncodedJson encode(ObjectWriter writer, Object value) {
+        try {
+            byte[] body = writer.writeValueAsBytes(value);
+            String tag = digest(body);
+            byte[] gzipBody = body.length >= GZIP_MIN_BYTES ? gzip(body) : null;
+            if (gzipBody != null && gzipBody.length >= body.length) {
+                gzipBody = null;
+            }
+            return new EncodedJson(body, "\"" + tag + "\"", gzipBody, gzipBody == null ? null : "\"" + tag + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to encode lesson response: " + e.getMessage(), e);
+        }
+    }
+
+    public boolean hasGzip() {
+        return gzipBody != null;
+    }
+
+    /** True when an {@code If-None-Match} header names either encoding of this body (or is {@code *}). */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                // If-None-Match uses the weak comparison
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to gzip lesson response", e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,189 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.Lesson;
+import com.edustocks.model.LessonViews;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable snapshot of every lesson, indexed once when it is built. Readers never copy or
+ * filter; a new catalog is built and swapped in whole when lesson content changes.
+ *
+ * <p>The JSON served by the lesson endpoints is encoded here too, so requests only copy bytes.
+ * Lists use the {@link LessonViews.Summary} projection; content and questions are only in the
+ * per-lesson {@link LessonViews.Detail} encoding.
+ *
+ * <p>The {@link Lesson} instances are shared by every request and must be treated as read-only.
+ */
+public final class LessonCatalog {
+
+    private static final List<String> LEVELS = List.of("beginner", "intermediate", "advanced");
+
+    // order numbers restart at 1 within each level
+    private static final Comparator<Lesson> BY_ORDER =
+        Comparator.comparingInt((Lesson lesson) -> levelRank(lesson.getLevel()))
+            .thenComparingInt(Lesson::getOrder)
+            .thenComparing(Lesson::getId);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectWriter SUMMARY_JSON = JSON.writerWithView(LessonViews.Summary.class);
+    private static final ObjectWriter DETAIL_JSON = JSON.writerWithView(LessonViews.Detail.class);
+
+    private final List<Lesson> all;
+    private final Map<String, Lesson> byId;
+    private final Map<String, List<Lesson>> byLevel;
+
+    private final EncodedJson allJson;
+    private final Map<String, EncodedJson> byIdJson;
+    private final Map<String, EncodedJson> byLevelJson;
+    private final EncodedJson emptyListJson;
+    private final LessonSearchIndex searchIndex;
+    private final AnswerKey answerKey;
+    private final Map<String, LevelMask> levelMasks;
+
+    private LessonCatalog(List<Lesson> all, Map<String, Lesson> byId, Map<String, List<Lesson>> byLevel) {
+        this.all = all;
+        this.byId = byId;
+        this.byLevel = byLevel;
+
+        this.allJson = EncodedJson.encode(SUMMARY_JSON, all);
+        Map<String, EncodedJson> idJson = new HashMap<>();
+        byId.forEach((id, lesson) -> idJson.put(id, EncodedJson.encode(DETAIL_JSON, lesson)));
+        this.byIdJson = Map.copyOf(idJson);
+        Map<String, EncodedJson> levelJson = new HashMap<>();
+        byLevel.forEach((level, lessons) -> levelJson.put(level, EncodedJson.encode(SUMMARY_JSON, lessons)));
+        this.byLevelJson = Map.copyOf(levelJson);
+        this.emptyListJson = EncodedJson.encode(SUMMARY_JSON, List.of());
+        this.searchIndex = LessonSearchIndex.build(all);
+        this.answerKey = AnswerKey.build(all);
+        this.levelMasks = Map.of();
+    }
+
+    private LessonCatalog(LessonCatalog base, Map<String, LevelMask> levelMasks) {
+        this.all = base.all;
+        this.byId = base.byId;
+        this.byLevel = base.byLevel;
+        this.allJson = base.allJson;
+        this.byIdJson = base.byIdJson;
+        this.byLevelJson = base.byLevelJson;
+        this.emptyListJson = base.emptyListJson;
+        this.searchIndex = base.searchIndex;
+        this.answerKey = base.answerKey;
+        this.levelMasks = levelMasks;
+    }
+
+    public static LessonCatalog of(Collection<Lesson> lessons) {
+        Map<String, Lesson> byId = new HashMap<>();
+        for (Lesson lesson : lessons) {
+            if (lesson.getId() == null || lesson.getId().isBlank()) {
+                throw new IllegalArgumentException("Lesson is missing an id: " + lesson.getTitle());
+            }
+            if (byId.putIfAbsent(lesson.getId(), lesson) != null) {
+                throw new IllegalArgumentException("Duplicate lesson id: " + lesson.getId());
+            }
+        }
+
+        List<Lesson> sorted = new ArrayList<>(lessons);
+        sorted.sort(BY_ORDER);
+
+        Map<String, List<Lesson>> levels = new HashMap<>();
+        for (Lesson lesson : sorted) {
+            levels.computeIfAbsent(levelKey(lesson.getLevel()), key -> new ArrayList<>()).add(lesson);
+        }
+        Map<String, List<Lesson>> byLevel = new HashMap<>();
+        levels.forEach((level, list) -> byLevel.put(level, List.copyOf(list)));
+
+        return new LessonCatalog(List.copyOf(sorted), Map.copyOf(byId), Map.copyOf(byLevel));
+    }
+
+    /**
+     * A copy of this catalog with per-level bitset masks over the given lesson ordinals,
+     * for answering progress queries against users' completion bitsets.
+     */
+    public LessonCatalog withOrdinals(ToIntFunction<String> ordinals) {
+        Map<String, LevelMask> masks = new HashMap<>();
+        byLevel.forEach((level, lessons) -> {
+            int[] ordinalsInOrder = new int[lessons.size()];
+            String[] idsInOrder = new String[lessons.size()];
+            for (int i = 0; i < lessons.size(); i++) {
+                idsInOrder[i] = lessons.get(i).getId();
+                ordinalsInOrder[i] = ordinals.applyAsInt(idsInOrder[i]);
+            }
+            masks.put(level, new LevelMask(ordinalsInOrder, idsInOrder));
+        });
+        return new LessonCatalog(this, Map.copyOf(masks));
+    }
+
+    public static LessonCatalog empty() {
+        return of(List.of());
+    }
+
+    /** All lessons, sorted by level and then by their {@code order} within the level. */
+    public List<Lesson> all() {
+        return all;
+    }
+
+    public Lesson byId(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    /** Lessons of one level (case-insensitive), sorted by their {@code order}. */
+    public List<Lesson> byLevel(String level) {
+        return byLevel.getOrDefault(levelKey(level), List.of());
+    }
+
+    public EncodedJson allJson() {
+        return allJson;
+    }
+
+    /** The encoded lesson, or null when there is no lesson with this id. */
+    public EncodedJson byIdJson(String id) {
+        return id == null ? null : byIdJson.get(id);
+    }
+
+    public EncodedJson byLevelJson(String level) {
+        return byLevelJson.getOrDefault(levelKey(level), emptyListJson);
+    }
+
+    public LessonSearchIndex searchIndex() {
+        return searchIndex;
+    }
+
+    /** Levels that have lessons, easiest first. */
+    public List<String> levels() {
+        List<String> levels = new ArrayList<>(byLevel.keySet());
+        levels.sort(Comparator.comparingInt(LessonCatalog::levelRank).thenComparing(Comparator.naturalOrder()));
+        return levels;
+    }
+
+    /** The level's lessons as a bitset over ordinals; null until {@link #withOrdinals} is applied. */
+    public LevelMask levelMask(String level) {
+        return levelMasks.get(levelKey(level));
+    }
+
+    public AnswerKey answerKey() {
+        return answerKey;
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    private static int levelRank(String level) {
+        int rank = LEVELS.indexOf(levelKey(level));
+        return rank < 0 ? LEVELS.size() : rank;
+    }
+
+    private static String levelKey(String level) {
+        return level == null ? "" : level.toLowerCase(Locale.ROOT);
+    }
+}
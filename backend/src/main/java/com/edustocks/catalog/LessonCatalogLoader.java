@@ -0,0 +1,113 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.Lesson;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads lesson content, one JSON document per lesson. Lessons come from {@code lessons.content-dir}
+ * when it is set, so they can be edited without a redeploy, and otherwise from
+ * {@code lessons.location} (the files bundled under {@code src/main/resources/lessons}).
+ *
+ * <p>In directory mode the parsed lesson of every file is kept, so a reload only re-parses the
+ * files that changed. A file that fails to parse keeps its previous version in the catalog.
+ */
+@Component
+public class LessonCatalogLoader {
+
+    @Value("${lessons.location:classpath:lessons/*.json}")
+    private String location;
+
+    @Value("${lessons.content-dir:}")
+    private String contentDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    // Parsed lesson per file in the content directory; only touched under this loader's lock
+    private final Map<Path, Lesson> lessonsByFile = new HashMap<>();
+
+    /** The content directory, or null when lessons come from the bundled resources. */
+    public Path contentDir() {
+        return contentDir == null || contentDir.isBlank() ? null : Paths.get(contentDir).toAbsolutePath();
+    }
+
+    public synchronized LessonCatalog load() {
+        Path dir = contentDir();
+        if (dir != null) {
+            lessonsByFile.clear();
+            return reload(listLessonFiles(dir));
+        }
+        try {
+            Resource[] resources = resolver.getResources(location);
+            List<Lesson> lessons = new ArrayList<>(resources.length);
+            for (Resource resource : resources) {
+                lessons.add(read(resource));
+            }
+            return LessonCatalog.of(lessons);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load lessons from " + location, e);
+        }
+    }
+
+    /**
+     * Re-reads the given files of the content directory (deleted files drop their lesson) and
+     * builds a complete new catalog from them plus every unchanged file.
+     */
+    public synchronized LessonCatalog reload(Collection<Path> changedFiles) {
+        for (Path file : changedFiles) {
+            if (!Files.exists(file)) {
+                lessonsByFile.remove(file);
+                continue;
+            }
+            try (InputStream in = Files.newInputStream(file)) {
+                lessonsByFile.put(file, objectMapper.readValue(in, Lesson.class));
+            } catch (IOException e) {
+                System.err.println("Keeping previous version of lesson file " + file + ": " + e.getMessage());
+            }
+        }
+        return LessonCatalog.of(lessonsByFile.values());
+    }
+
+    public static boolean isLessonFile(Path file) {
+        return file.getFileName().toString().endsWith(".json");
+    }
+
+    public Lesson read(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return objectMapper.readValue(in, Lesson.class);
+        } catch (IOException e) {
+            throw new IOException("Invalid lesson file " + resource.getDescription() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Path> listLessonFiles(Path dir) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : stream) {
+                files.add(file.toAbsolutePath());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to list lessons in " + dir, e);
+        }
+        return files;
+    }
+}
@@ -0,0 +1,123 @@
+package com.edustocks.catalog;
+
+import com.edustocks.service.LessonService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches {@code lessons.content-dir} and swaps in a new catalog when lesson files change.
+ *
+ * <p>Events are collected until the directory has been quiet for {@code lessons.reload-debounce-ms},
+ * so an editor's save (often several writes and a rename) triggers one reload. The new catalog is
+ * built completely on this thread before it replaces the old one, so readers are never blocked
+ * and never see a partial catalog.
+ */
+@Component
+public class LessonContentWatcher {
+
+    @Autowired
+    private LessonCatalogLoader catalogLoader;
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Value("${lessons.reload-debounce-ms:250}")
+    private long debounceMillis;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    @PostConstruct
+    public void start() {
+        Path dir = catalogLoader.contentDir();
+        if (dir == null) {
+            return;
+        }
+        try {
+            watchService = dir.getFileSystem().newWatchService();
+            dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            System.err.println("Lesson hot reload disabled, cannot watch " + dir + ": " + e.getMessage());
+            return;
+        }
+        thread = Thread.ofPlatform().name("lesson-watcher").daemon().start(() -> watch(dir));
+        System.out.println("Watching " + dir + " for lesson changes");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close lesson watcher: " + e.getMessage());
+            }
+        }
+    }
+
+    private void watch(Path dir) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new HashSet<>();
+                boolean overflow = collect(watchService.take(), dir, changed);
+                WatchKey next;
+                while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(next, dir, changed);
+                }
+                if (overflow || !changed.isEmpty()) {
+                    reload(overflow, changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    private void reload(boolean overflow, Set<Path> changed) {
+        try {
+            // Events were dropped, so nothing short of a full rescan is reliable
+            LessonCatalog updated = overflow ? catalogLoader.load() : catalogLoader.reload(changed);
+            lessonService.replaceCatalog(updated);
+            System.out.println("Reloaded lessons (" + (overflow ? "full rescan" : changed.size() + " changed files")
+                + "), " + updated.size() + " lessons");
+        } catch (RuntimeException e) {
+            System.err.println("Lesson reload failed, keeping the current catalog: " + e.getMessage());
+        }
+    }
+
+    private static boolean collect(WatchKey key, Path dir, Set<Path> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            Path file = dir.resolve((Path) event.context()).toAbsolutePath();
+            if (LessonCatalogLoader.isLessonFile(file)) {
+                changed.add(file);
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+}
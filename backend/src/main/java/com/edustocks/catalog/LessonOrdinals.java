@@ -0,0 +1,117 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.LessonOrdinalRegistry;
+import com.edustocks.repository.LessonOrdinalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Interns lesson ids to dense ints so per-user completion can be stored as a bitset.
+ *
+ * <p>The registry is append-only and persisted: an id keeps its ordinal forever, even if the
+ * lesson is later removed, so stored bitsets never change meaning. New ids are appended to the
+ * stored registry in a storage transaction, so instances registering at the same time agree on
+ * ordinals. If the stored registry does not start with the ids this instance already knows,
+ * ordinals have been reassigned behind its back and registering fails rather than persisting
+ * a second, conflicting order.
+ */
+@Component
+public class LessonOrdinals {
+
+    @Autowired
+    private LessonOrdinalRepository ordinalRepository;
+
+    private record Snapshot(List<String> ids, Map<String, Integer> ordinals) {
+    }
+
+    private volatile Snapshot snapshot;
+
+    /** The lesson's ordinal, or -1 if it has never been registered. */
+    public int ordinalOf(String lessonId) {
+        Integer ordinal = snapshot().ordinals().get(lessonId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public String lessonId(int ordinal) {
+        List<String> ids = snapshot().ids();
+        return ordinal >= 0 && ordinal < ids.size() ? ids.get(ordinal) : null;
+    }
+
+    /** Returns the lesson's ordinal, assigning (and persisting) the next free one if it is new. */
+    public int register(String lessonId) {
+        int ordinal = ordinalOf(lessonId);
+        if (ordinal >= 0) {
+            return ordinal;
+        }
+        registerAll(List.of(lessonId));
+        return ordinalOf(lessonId);
+    }
+
+    /**
+     * Assigns ordinals to the ids that don't have one yet.
+     *
+     * @throws IllegalStateException if the stored registry disagrees with the ordinals this
+     *         instance has already handed out
+     */
+    public synchronized void registerAll(Collection<String> lessonIds) {
+        Snapshot current = snapshot();
+        if (current.ordinals().keySet().containsAll(lessonIds)) {
+            return;
+        }
+        List<String> known = current.ids();
+        LessonOrdinalRegistry stored = ordinalRepository.update(registry -> {
+            List<String> ids = registry == null || registry.getLessonIds() == null
+                ? new ArrayList<>()
+                : new ArrayList<>(registry.getLessonIds());
+            if (ids.size() < known.size() || !ids.subList(0, known.size()).equals(known)) {
+                throw new IllegalStateException("Stored lesson ordinals no longer start with the "
+                    + known.size() + " this instance has assigned; refusing to reorder them");
+            }
+            int storedCount = ids.size();
+            Set<String> present = new HashSet<>(ids);
+            for (String lessonId : lessonIds) {
+                if (present.add(lessonId)) {
+                    ids.add(lessonId);
+                }
+            }
+            // Another instance may already have appended them all
+            return ids.size() > storedCount ? new LessonOrdinalRegistry(ids) : null;
+        });
+        snapshot = index(stored.getLessonIds());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        LessonOrdinalRegistry stored = ordinalRepository.find();
+        return index(stored == null || stored.getLessonIds() == null ? List.of() : stored.getLessonIds());
+    }
+
+    private static Snapshot index(List<String> ids) {
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            ordinals.putIfAbsent(ids.get(i), i);
+        }
+        return new Snapshot(List.copyOf(ids), Map.copyOf(ordinals));
+    }
+}
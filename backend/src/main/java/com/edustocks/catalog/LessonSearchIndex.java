@@ -0,0 +1,143 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.Lesson;
+import com.edustocks.model.LessonViews;
+import com.edustocks.model.Question;
+import com.fasterxml.jackson.annotation.JsonView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory inverted index over lesson titles, descriptions, content and question text,
+ * ranked with BM25. Matches in the title and description count for more than matches in the
+ * body (field weights are folded into term frequency and document length, as in BM25F).
+ *
+ * <p>Built once per catalog and immutable afterwards; a query touches only the postings of its
+ * own terms, so it costs microseconds even with hundreds of lessons.
+ */
+public final class LessonSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 2.0f;
+    private static final float BODY_WEIGHT = 1.0f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /** Documents containing one term, with the weighted frequency of the term in each. */
+    private record Postings(int[] docs, float[] frequencies) {
+    }
+
+    public record Hit(@JsonView(LessonViews.Summary.class) Lesson lesson,
+                      @JsonView(LessonViews.Summary.class) double score) {
+    }
+
+    private final Lesson[] lessons;
+    private final float[] lengths;
+    private final double averageLength;
+    private final Map<String, Postings> postings;
+
+    private LessonSearchIndex(Lesson[] lessons, float[] lengths, Map<String, Postings> postings) {
+        this.lessons = lessons;
+        this.lengths = lengths;
+        this.postings = postings;
+        double total = 0;
+        for (float length : lengths) {
+            total += length;
+        }
+        this.averageLength = lessons.length == 0 ? 1 : Math.max(1, total / lessons.length);
+    }
+
+    public static LessonSearchIndex build(List<Lesson> lessons) {
+        Builder builder = new Builder();
+        for (Lesson lesson : lessons) {
+            builder.add(lesson);
+        }
+        return builder.build();
+    }
+
+    public List<Hit> search(String query, int limit) {
+        // Repeated query words would otherwise count twice
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        double[] scores = new double[lessons.length];
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (lessons.length - list.docs().length + 0.5) / (list.docs().length + 0.5));
+            for (int i = 0; i < list.docs().length; i++) {
+                int doc = list.docs()[i];
+                double tf = list.frequencies()[i];
+                double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] > 0) {
+                hits.add(new Hit(lessons[doc], scores[doc]));
+            }
+        }
+        hits.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : List.copyOf(hits);
+    }
+
+    /** Adds lessons one at a time, then freezes the postings into compact arrays. */
+    static final class Builder {
+
+        private final List<Lesson> lessons = new ArrayList<>();
+        private final List<Float> lengths = new ArrayList<>();
+        private final Map<String, Map<Integer, Float>> terms = new HashMap<>();
+
+        void add(Lesson lesson) {
+            int doc = lessons.size();
+            lessons.add(lesson);
+            float length = 0;
+            length += addField(doc, lesson.getTitle(), TITLE_WEIGHT);
+            length += addField(doc, lesson.getDescription(), DESCRIPTION_WEIGHT);
+            length += addField(doc, lesson.getContent(), BODY_WEIGHT);
+            // Options and explanations stay out: hit scores are public, so comparing the scores
+            // of searches for each option would reveal the one the explanation repeats
+            if (lesson.getQuestions() != null) {
+                for (Question question : lesson.getQuestions()) {
+                    length += addField(doc, question.getQuestion(), BODY_WEIGHT);
+                }
+            }
+            lengths.add(length);
+        }
+
+        private float addField(int doc, String text, float weight) {
+            List<String> fieldTerms = TextAnalyzer.terms(text);
+            for (String term : fieldTerms) {
+                terms.computeIfAbsent(term, key -> new HashMap<>()).merge(doc, weight, Float::sum);
+            }
+            return fieldTerms.size() * weight;
+        }
+
+        LessonSearchIndex build() {
+            Map<String, Postings> frozen = new HashMap<>(terms.size() * 2);
+            terms.forEach((term, byDoc) -> {
+                int[] docs = byDoc.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                float[] frequencies = new float[docs.length];
+                for (int i = 0; i < docs.length; i++) {
+                    frequencies[i] = byDoc.get(docs[i]);
+                }
+                frozen.put(term, new Postings(docs, frequencies));
+            });
+            float[] lengthArray = new float[lengths.size()];
+            for (int i = 0; i < lengthArray.length; i++) {
+                lengthArray[i] = lengths.get(i);
+            }
+            return new LessonSearchIndex(lessons.toArray(new Lesson[0]), lengthArray, Map.copyOf(frozen));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.edustocks.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The lessons of one level as a bitset over lesson ordinals, for answering progress questions
+ * against a user's completion bitset a 64-bit word at a time.
+ */
+public final class LevelMask {
+
+    private final long[] words;
+    private final int[] ordinalsInOrder;
+    private final String[] idsInOrder;
+
+    LevelMask(int[] ordinalsInOrder, String[] idsInOrder) {
+        this.ordinalsInOrder = ordinalsInOrder;
+        this.idsInOrder = idsInOrder;
+        int max = -1;
+        for (int ordinal : ordinalsInOrder) {
+            max = Math.max(max, ordinal);
+        }
+        this.words = new long[(max >>> 6) + 1];
+        for (int ordinal : ordinalsInOrder) {
+            words[ordinal >>> 6] |= 1L << ordinal;
+        }
+    }
+
+    public int total() {
+        return ordinalsInOrder.length;
+    }
+
+    public int completed(long[] userWords) {
+        int count = 0;
+        int length = Math.min(words.length, userWords.length);
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[i] & userWords[i]);
+        }
+        return count;
+    }
+
+    public double percentComplete(long[] userWords) {
+        return total() == 0 ? 100.0 : completed(userWords) * 100.0 / total();
+    }
+
+    /** The first lesson of the level, in lesson order, that the user has not completed. */
+    public String nextLesson(long[] userWords) {
+        for (int i = 0; i < ordinalsInOrder.length; i++) {
+            if (!isSet(userWords, ordinalsInOrder[i])) {
+                return idsInOrder[i];
+            }
+        }
+        return null;
+    }
+
+    public List<String> completedIds(long[] userWords) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ordinalsInOrder.length; i++) {
+            if (isSet(userWords, ordinalsInOrder[i])) {
+                ids.add(idsInOrder[i]);
+            }
+        }
+        return ids;
+    }
+
+    private static boolean isSet(long[] userWords, int ordinal) {
+        int word = ordinal >>> 6;
+        return word < userWords.length && (userWords[word] & (1L << ordinal)) != 0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.edustocks.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns lesson text and search queries into index terms: strips HTML, lowercases, splits on
+ * anything that is not a letter or digit, drops stopwords and applies a light suffix stemmer,
+ * so "Covered Calls" and "covered call" reach the same postings.
+ */
+final class TextAnalyzer {
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern HTML_ENTITY = Pattern.compile("&[a-zA-Z#0-9]+;");
+    // Keeps abbreviations such as P/E or S&P together as one term
+    private static final Pattern ABBREVIATION = Pattern.compile("\\b(\\p{L})[/&](\\p{L})\\b");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from",
+        "has", "have", "how", "i", "if", "in", "into", "is", "it", "its", "of", "on", "or", "so",
+        "than", "that", "the", "their", "them", "then", "there", "these", "they", "this", "to",
+        "was", "we", "what", "when", "where", "which", "who", "why", "will", "with", "you", "your");
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String plain = HTML_ENTITY.matcher(HTML_TAG.matcher(text).replaceAll(" ")).replaceAll(" ");
+        plain = ABBREVIATION.matcher(plain).replaceAll("$1$2").toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(plain)) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    // A light stemmer after the first step of Porter's algorithm: plurals, -ed and -ing only
+    static String stem(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        if (word.endsWith("sses")) {
+            word = word.substring(0, word.length() - 2);
+        } else if (word.endsWith("ies") && word.length() > 4) {
+            word = word.substring(0, word.length() - 3) + "y";
+        } else if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            word = word.substring(0, word.length() - 1);
+        }
+
+        String stem = null;
+        if (word.endsWith("ing") && word.length() > 5) {
+            stem = word.substring(0, word.length() - 3);
+        } else if (word.endsWith("ed") && word.length() > 4) {
+            stem = word.substring(0, word.length() - 2);
+        }
+        if (stem != null && hasVowel(stem)) {
+            int n = stem.length();
+            char last = stem.charAt(n - 1);
+            if (n > 2 && last == stem.charAt(n - 2) && "lsz".indexOf(last) < 0) {
+                stem = stem.substring(0, n - 1);
+            }
+            word = stem;
+        }
+        return word;
+    }
+
+    private static boolean hasVowel(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if ("aeiouy".indexOf(text.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
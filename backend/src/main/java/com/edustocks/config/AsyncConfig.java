@@ -0,0 +1,18 @@
+package com.edustocks.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class AsyncConfig {
+
+    // Async pipelines hop onto this executor before doing anything that may block (stock quotes,
+    // local fsyncs), so storage callback threads are never held up
+    @Bean(name = "ioExecutor", destroyMethod = "close")
+    public ExecutorService ioExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
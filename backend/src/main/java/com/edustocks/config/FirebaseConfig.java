@@ -5,8 +5,10 @@ import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.auth.FirebaseAuth;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import javax.annotation.PostConstruct;
 import java.io.ByteArrayInputStream;
@@ -28,6 +30,9 @@ public class FirebaseConfig {
     @Value("${FIREBASE_CREDENTIALS_JSON:}")
     private String firebaseCredentialsJson;
 
+    @Value("${storage.engine:firestore}")
+    private String storageEngine;
+
     @PostConstruct
     public void initialize() {
         try {
@@ -47,6 +52,10 @@ public class FirebaseConfig {
             } else if (credentialsPath != null && !credentialsPath.isEmpty()) {
                 // Fallback to file path for local development
                 serviceAccount = new FileInputStream(credentialsPath);
+            } else if ("local".equalsIgnoreCase(storageEngine)) {
+                // The local storage engine does not need Google credentials; only token verification is unavailable
+                System.err.println("Firebase credentials not configured; running with local storage and without Firebase auth");
+                return;
             } else {
                 throw new RuntimeException("Firebase credentials not configured. Set FIREBASE_CREDENTIALS_JSON env var or firebase.credentials.path property.");
             }
@@ -60,16 +69,22 @@ public class FirebaseConfig {
                 FirebaseApp.initializeApp(options);
             }
         } catch (IOException e) {
+            if ("local".equalsIgnoreCase(storageEngine)) {
+                System.err.println("Firebase could not be initialized (" + e.getMessage() + "); running with local storage and without Firebase auth");
+                return;
+            }
             throw new RuntimeException("Failed to initialize Firebase", e);
         }
     }
 
     @Bean
+    @Lazy
     public FirebaseAuth firebaseAuth() {
         return FirebaseAuth.getInstance();
     }
 
     @Bean
+    @ConditionalOnProperty(name = "storage.engine", havingValue = "firestore", matchIfMissing = true)
     public com.google.cloud.firestore.Firestore firestore() {
         return com.google.firebase.cloud.FirestoreClient.getFirestore();
     }
@@ -1,13 +1,23 @@
 package com.edustocks.controller;
 
+import com.edustocks.ai.AIBulkhead;
 import com.edustocks.service.AITrainerService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @RestController
 @RequestMapping("/api/ai-trainer")
@@ -16,14 +26,31 @@ public class AITrainerController {
     @Autowired
     private AITrainerService aiTrainerService;
 
+    // AI calls may wait in the bulkhead queue, so they run on virtual threads, not request threads
+    @Autowired
+    @Qualifier("ioExecutor")
+    private ExecutorService ioExecutor;
+
     @PostMapping("/question")
-    public ResponseEntity<Map<String, Object>> getQuestion(
-            @RequestBody Map<String, String> requestBody) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getQuestion(
+            @RequestBody Map<String, String> requestBody,
+            HttpServletRequest request) {
         String level = requestBody.get("level");
         String topic = requestBody.get("topic");
+        String caller = callerOf(request);
 
-        Map<String, Object> question = aiTrainerService.generateQuestion(level, topic);
-        return ResponseEntity.ok(question);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Map<String, Object> question = aiTrainerService.generateQuestion(caller, level, topic);
+                return ResponseEntity.ok(question);
+            } catch (AIBulkhead.SaturatedException e) {
+                return busy(e);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(error(e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.status(500).body(error("Failed to generate question: " + e.getMessage()));
+            }
+        }, ioExecutor);
     }
 
     @PostMapping("/answer")
@@ -32,12 +59,37 @@ public class AITrainerController {
         String questionId = (String) requestBody.get("questionId");
         Integer answer = (Integer) requestBody.get("answer");
 
-        Map<String, Object> response = aiTrainerService.checkAnswer(questionId, answer);
-        return ResponseEntity.ok(response);
+        try {
+            Map<String, Object> response = aiTrainerService.checkAnswer(questionId, answer);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return error;
+    }
+
+    private static ResponseEntity<Map<String, Object>> busy(AIBulkhead.SaturatedException e) {
+        Map<String, Object> error = error(e.getMessage());
+        error.put("retryAfterSeconds", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+            .body(error);
+    }
+
+    // Signed-in users get their own bulkhead share; anonymous callers are told apart by address
+    private static String callerOf(HttpServletRequest request) {
+        String userId = (String) request.getAttribute("userId");
+        return userId != null && !userId.isBlank() ? userId : "ip:" + request.getRemoteAddr();
     }
 
     @PostMapping("/ask")
-    public ResponseEntity<Map<String, Object>> askQuestion(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> askQuestion(
             @RequestBody Map<String, String> requestBody,
             HttpServletRequest request) {
         
@@ -45,37 +97,68 @@ public class AITrainerController {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Query is required");
-            return ResponseEntity.badRequest().body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
         }
 
-        try {
-            String query = requestBody.get("query");
-            String level = requestBody.getOrDefault("level", "beginner");
-            
-            if (query == null || query.isBlank()) {
+        String query = requestBody.get("query");
+        String level = requestBody.getOrDefault("level", "beginner");
+        if (query == null || query.isBlank()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Query cannot be empty");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
+        }
+        String caller = callerOf(request);
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                String response = aiTrainerService.answerQuery(caller, query, level);
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("success", true);
+                result.put("response", response);
+                result.put("level", level);
+                result.put("respondedAt", System.currentTimeMillis());
+
+                return ResponseEntity.ok(result);
+            } catch (AIBulkhead.SaturatedException e) {
+                return busy(e);
+            } catch (Exception e) {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
-                error.put("message", "Query cannot be empty");
-                return ResponseEntity.badRequest().body(error);
+                error.put("message", "Failed to answer query: " + e.getMessage());
+                return ResponseEntity.status(500).body(error);
             }
+        }, ioExecutor);
+    }
 
-            String response = aiTrainerService.answerQuery(query, level);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("response", response);
-            result.put("level", level);
-            result.put("respondedAt", System.currentTimeMillis());
-            
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Failed to answer query: " + e.getMessage());
-            return ResponseEntity.status(500).body(error);
+    /**
+     * Same as /ask, but streams the answer as server-sent events: a "token" event per text
+     * fragment, then "done", or "error" if the provider fails part-way or the bulkhead is
+     * saturated (with the retry delay in the event's retry field). The request thread is
+     * released while the answer streams.
+     */
+    @PostMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> askQuestionStream(
+            @RequestBody Map<String, String> requestBody,
+            HttpServletRequest request) {
+        String query = requestBody == null ? null : requestBody.get("query");
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.badRequest()
+                .body(Flux.just(ServerSentEvent.builder("Query cannot be empty").event("error").build()));
         }
+        String level = requestBody.getOrDefault("level", "beginner");
+
+        Flux<ServerSentEvent<String>> events = aiTrainerService.streamAnswer(callerOf(request), query, level)
+            .map(token -> ServerSentEvent.builder(token).event("token").build())
+            .concatWith(Flux.just(ServerSentEvent.builder("").event("done").build()))
+            .onErrorResume(AIBulkhead.SaturatedException.class, e -> Flux.just(ServerSentEvent.builder(e.getMessage())
+                .event("error").retry(Duration.ofSeconds(e.getRetryAfterSeconds())).build()))
+            .onErrorResume(e -> {
+                System.err.println("AI answer stream failed: " + e.getMessage());
+                return Flux.just(ServerSentEvent.builder("Failed to answer query: " + e.getMessage())
+                    .event("error").build());
+            });
+        return ResponseEntity.ok(events);
     }
 }
-
-
-
@@ -0,0 +1,166 @@
+package com.edustocks.controller;
+
+import com.edustocks.ai.AIBulkhead;
+import com.edustocks.ai.AIProvider;
+import com.edustocks.ai.AIResponseCache;
+import com.edustocks.ai.QuestionPool;
+import com.edustocks.service.AnalyticsService;
+import com.edustocks.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operational endpoints. Every call must carry the {@code X-Admin-Token} header matching
+ * {@code admin.api-token}; when no token is configured the endpoints are disabled.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final int MAX_ANALYTICS_ROWS = 500;
+
+    @Value("${admin.api-token:}")
+    private String adminToken;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AIProvider aiProvider;
+
+    @Autowired
+    private AIResponseCache aiResponseCache;
+
+    @Autowired
+    private QuestionPool questionPool;
+
+    @Autowired
+    private AIBulkhead aiBulkhead;
+
+    @PostMapping("/leaderboard/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildLeaderboard(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        ResponseEntity<Map<String, Object>> denied = checkToken(token);
+        if (denied != null) {
+            return denied;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        if (!leaderboardService.startRebuild()) {
+            response.put("success", false);
+            response.put("message", "A leaderboard rebuild is already running");
+            return ResponseEntity.status(409).body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Leaderboard rebuild started");
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /** Lessons ranked by mean quiz score, lowest first, with score quantiles. */
+    @GetMapping("/analytics/lessons")
+    public ResponseEntity<Map<String, Object>> getLessonAnalytics(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token,
+            @RequestParam(defaultValue = "20") int limit) {
+        ResponseEntity<Map<String, Object>> denied = checkToken(token);
+        if (denied != null) {
+            return denied;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("lessons", analyticsService.getLessonReports(Math.max(1, Math.min(limit, MAX_ANALYTICS_ROWS))));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/analytics/levels")
+    public ResponseEntity<Map<String, Object>> getLevelAnalytics(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        ResponseEntity<Map<String, Object>> denied = checkToken(token);
+        if (denied != null) {
+            return denied;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("levels", analyticsService.getLevelReports());
+        return ResponseEntity.ok(response);
+    }
+
+    /** Days from signup to reaching {@code level}, per monthly signup cohort. */
+    @GetMapping("/analytics/cohorts")
+    public ResponseEntity<Map<String, Object>> getCohortAnalytics(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token,
+            @RequestParam(defaultValue = "intermediate") String level) {
+        ResponseEntity<Map<String, Object>> denied = checkToken(token);
+        if (denied != null) {
+            return denied;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("level", level);
+        response.put("cohorts", analyticsService.getCohortReports(level.toLowerCase()));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/analytics/activity")
+    public ResponseEntity<Map<String, Object>> getActivityAnalytics(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token,
+            @RequestParam(defaultValue = "30") int days) {
+        ResponseEntity<Map<String, Object>> denied = checkToken(token);
+        if (denied != null) {
+            return denied;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("activity", analyticsService.getActivity(Math.max(1, Math.min(days, analyticsService.getActivityDays()))));
+        response.put("pipeline", analyticsService.getPipelineStats());
+        return ResponseEntity.ok(response);
+    }
+
+    /** Request counts, latency and connection reuse of the AI provider's HTTP client, and response cache hit rates. */
+    @GetMapping("/ai/metrics")
+    public ResponseEntity<Map<String, Object>> getAIMetrics(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        ResponseEntity<Map<String, Object>> denied = checkToken(token);
+        if (denied != null) {
+            return denied;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("client", aiProvider.metrics());
+        response.put("cache", aiResponseCache.stats());
+        response.put("questionPool", questionPool.stats());
+        response.put("bulkhead", aiBulkhead.stats());
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> checkToken(String token) {
+        if (adminToken == null || adminToken.isBlank()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Admin API is disabled");
+            return ResponseEntity.status(403).body(errorResponse);
+        }
+        if (token == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), adminToken.getBytes(StandardCharsets.UTF_8))) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Invalid admin token");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+        return null;
+    }
+}
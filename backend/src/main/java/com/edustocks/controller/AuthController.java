@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -17,7 +18,7 @@ public class AuthController {
     private UserService userService;
 
     @PostMapping("/verify")
-    public ResponseEntity<Map<String, Object>> verifyToken(HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> verifyToken(HttpServletRequest request) {
         String userId = (String) request.getAttribute("userId");
         String userEmail = (String) request.getAttribute("userEmail");
 
@@ -25,18 +26,17 @@ public class AuthController {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Unauthorized: missing or invalid Firebase token");
-            return ResponseEntity.status(401).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body(error));
         }
         
         // Initialize user if doesn't exist
-        userService.initializeUser(userId, userEmail);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("userId", userId);
-        response.put("email", userEmail);
-        
-        return ResponseEntity.ok(response);
+        return userService.initializeUserAsync(userId, userEmail).thenApply(initialized -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("userId", userId);
+            response.put("email", userEmail);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/health")
@@ -0,0 +1,65 @@
+package com.edustocks.controller;
+
+import com.edustocks.model.LeaderboardEntry;
+import com.edustocks.service.LeaderboardService;
+import com.edustocks.service.ProgressService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    private static final int MAX_ENTRIES = 100;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getLeaderboard(
+            @RequestParam(defaultValue = LeaderboardService.GLOBAL) String window,
+            @RequestParam(required = false) String classId,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+
+        String userId = (String) request.getAttribute("userId");
+        String key = null;
+        if (LeaderboardService.CLASS.equals(window)) {
+            // Default to the caller's own class
+            key = classId != null ? classId
+                : userId != null ? progressService.getUserProgress(userId).getClassId() : null;
+            if (key == null) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "classId is required for the class leaderboard");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+        }
+
+        try {
+            List<LeaderboardEntry> entries = leaderboardService.getTop(window, key, Math.max(1, Math.min(limit, MAX_ENTRIES)));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("window", window);
+            response.put("entries", entries);
+            if (userId != null) {
+                response.put("me", leaderboardService.getStanding(window, key, userId));
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+}
@@ -1,9 +1,19 @@
 package com.edustocks.controller;
 
-import com.edustocks.model.Lesson;
+import com.edustocks.catalog.AnswerKey;
+import com.edustocks.catalog.EncodedJson;
+import com.edustocks.catalog.LessonCatalog;
+import com.edustocks.catalog.LessonSearchIndex;
+import com.edustocks.model.LessonViews;
+import com.edustocks.model.QuizSubmission;
 import com.edustocks.service.LessonService;
+import com.fasterxml.jackson.annotation.JsonView;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,42 +24,50 @@ import java.util.Map;
 @RequestMapping("/api/lessons")
 public class LessonController {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     @Autowired
     private LessonService lessonService;
 
+    // Lesson JSON is encoded when the catalog loads; these endpoints only pick the bytes to send
     @GetMapping
-    public ResponseEntity<List<Lesson>> getLessons(@RequestParam(required = false) String level) {
-        List<Lesson> lessons;
-        if (level != null) {
-            lessons = lessonService.getLessonsByLevel(level);
-        } else {
-            lessons = lessonService.getAllLessons();
+    public ResponseEntity<byte[]> getLessons(
+            @RequestParam(required = false) String level,
+            HttpServletRequest request) {
+        LessonCatalog catalog = lessonService.getCatalog();
+        EncodedJson lessons = level != null ? catalog.byLevelJson(level) : catalog.allJson();
+        return encodedResponse(lessons, request);
+    }
+
+    @GetMapping("/search")
+    @JsonView(LessonViews.Summary.class)
+    public ResponseEntity<?> searchLessons(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (q == null || q.isBlank()) {
+            Map<String, Object> errorResponse = new java.util.HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Search query is required");
+            return ResponseEntity.badRequest().body(errorResponse);
         }
-        return ResponseEntity.ok(lessons);
+        List<LessonSearchIndex.Hit> hits = lessonService.searchLessons(q, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        return ResponseEntity.ok(hits);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Lesson> getLesson(@PathVariable String id) {
-        Lesson lesson = lessonService.getLessonById(id);
+    public ResponseEntity<byte[]> getLesson(@PathVariable String id, HttpServletRequest request) {
+        EncodedJson lesson = lessonService.getCatalog().byIdJson(id);
         if (lesson != null) {
-            return ResponseEntity.ok(lesson);
+            return encodedResponse(lesson, request);
         }
         return ResponseEntity.notFound().build();
     }
 
-    @PostMapping("/{id}/complete")
-    public ResponseEntity<Map<String, Object>> completeLesson(
+    @PostMapping("/{id}/submit")
+    public ResponseEntity<Map<String, Object>> submitQuiz(
             @PathVariable String id,
-            @RequestBody Map<String, Object> requestBody,
+            @RequestBody QuizSubmission submission,
             HttpServletRequest request) {
-        
-        // Validate inputs
-        if (id == null || id.isBlank()) {
-            Map<String, Object> errorResponse = new java.util.HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", "Lesson ID is required");
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
 
         String userId = (String) request.getAttribute("userId");
         if (userId == null || userId.isBlank()) {
@@ -59,45 +77,78 @@ public class LessonController {
             return ResponseEntity.status(401).body(errorResponse);
         }
 
-        if (requestBody == null || !requestBody.containsKey("score")) {
+        if (submission == null || submission.getAnswers() == null) {
             Map<String, Object> errorResponse = new java.util.HashMap<>();
             errorResponse.put("success", false);
-            errorResponse.put("message", "Score is required");
+            errorResponse.put("message", "Answers are required");
             return ResponseEntity.badRequest().body(errorResponse);
         }
 
         try {
-            Double score = ((Number) requestBody.get("score")).doubleValue();
-            
-            if (score < 0 || score > 100) {
+            // Graded on the server, which alone holds the answer key (lesson JSON leaves it out),
+            // so the recorded score and the XP it earns can't be forged
+            AnswerKey.Result result = lessonService.submitQuiz(userId, id, submission.getAnswers());
+            if (result == null) {
                 Map<String, Object> errorResponse = new java.util.HashMap<>();
                 errorResponse.put("success", false);
-                errorResponse.put("message", "Score must be between 0 and 100");
-                return ResponseEntity.badRequest().body(errorResponse);
+                errorResponse.put("message", "Lesson not found");
+                return ResponseEntity.status(404).body(errorResponse);
             }
 
-            lessonService.completeLesson(userId, id, score);
-            
             Map<String, Object> response = new java.util.HashMap<>();
             response.put("success", true);
             response.put("message", "Lesson completed successfully");
             response.put("lessonId", id);
-            response.put("score", score);
+            response.put("score", result.score());
+            response.put("correctCount", result.correctCount());
+            response.put("totalQuestions", result.totalQuestions());
+            response.put("feedback", result.feedback());
             response.put("completedAt", System.currentTimeMillis());
             return ResponseEntity.ok(response);
-        } catch (ClassCastException e) {
+        } catch (IllegalArgumentException e) {
             Map<String, Object> errorResponse = new java.util.HashMap<>();
             errorResponse.put("success", false);
-            errorResponse.put("message", "Invalid score format");
+            errorResponse.put("message", e.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new java.util.HashMap<>();
             errorResponse.put("success", false);
-            errorResponse.put("message", "Error completing lesson: " + e.getMessage());
+            errorResponse.put("message", "Error submitting quiz: " + e.getMessage());
             return ResponseEntity.status(500).body(errorResponse);
         }
     }
-}
 
+    private ResponseEntity<byte[]> encodedResponse(EncodedJson json, HttpServletRequest request) {
+        boolean gzip = json.hasGzip() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        // no-cache lets browsers keep the body but revalidate it, so edited lessons show up at once
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(gzip ? json.gzipEtag() : json.etag());
+        headers.setCacheControl(CacheControl.noCache());
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
 
+        if (json.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return ResponseEntity.ok().headers(headers).body(json.gzipBody());
+        }
+        return ResponseEntity.ok().headers(headers).body(json.body());
+    }
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
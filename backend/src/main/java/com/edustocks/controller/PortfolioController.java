@@ -1,7 +1,11 @@
 package com.edustocks.controller;
 
+import com.edustocks.model.IdempotentResponse;
 import com.edustocks.model.Portfolio;
+import com.edustocks.model.RebalancePlan;
+import com.edustocks.service.IdempotencyService;
 import com.edustocks.service.PortfolioService;
+import com.edustocks.service.RebalanceService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +13,9 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/portfolio")
@@ -17,49 +24,64 @@ public class PortfolioController {
     @Autowired
     private PortfolioService portfolioService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private RebalanceService rebalanceService;
+
     @GetMapping
-    public ResponseEntity<Portfolio> getPortfolio(HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<Portfolio>> getPortfolio(HttpServletRequest request) {
         String userId = (String) request.getAttribute("userId");
-        Portfolio portfolio = portfolioService.getPortfolio(userId);
-        return ResponseEntity.ok(portfolio);
+        return portfolioService.getPortfolioAsync(userId).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/buy")
-    public ResponseEntity<Map<String, Object>> buyStock(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> buyStock(
             @RequestBody Map<String, Object> requestBody,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             HttpServletRequest request) {
         String userId = (String) request.getAttribute("userId");
         String symbol = (String) requestBody.get("symbol");
         Integer quantity = (Integer) requestBody.get("quantity");
+        String fingerprint = "buy:" + symbol + ":" + quantity;
 
-        try {
-            portfolioService.buyStock(userId, symbol, quantity);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Stock purchased successfully");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.badRequest().body(response);
-        }
+        return idempotencyService.executeAsync(userId, idempotencyKey, fingerprint, () -> tradeResponse(
+                () -> portfolioService.buyStockAsync(userId, symbol, quantity), "Stock purchased successfully"))
+            .thenApply(this::toResponseEntity);
     }
 
     @PostMapping("/sell")
-    public ResponseEntity<Map<String, Object>> sellStock(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sellStock(
             @RequestBody Map<String, Object> requestBody,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             HttpServletRequest request) {
         String userId = (String) request.getAttribute("userId");
         String symbol = (String) requestBody.get("symbol");
         Integer quantity = (Integer) requestBody.get("quantity");
+        String fingerprint = "sell:" + symbol + ":" + quantity;
+
+        return idempotencyService.executeAsync(userId, idempotencyKey, fingerprint, () -> tradeResponse(
+                () -> portfolioService.sellStockAsync(userId, symbol, quantity), "Stock sold successfully"))
+            .thenApply(this::toResponseEntity);
+    }
+
+    @PostMapping("/rebalance")
+    public ResponseEntity<?> rebalance(
+            @RequestBody Map<String, Object> requestBody,
+            HttpServletRequest request) {
+        String userId = (String) request.getAttribute("userId");
 
         try {
-            portfolioService.sellStock(userId, symbol, quantity);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Stock sold successfully");
-            return ResponseEntity.ok(response);
+            Map<String, Double> targets = new HashMap<>();
+            Object rawTargets = requestBody.get("targets");
+            if (rawTargets instanceof Map<?, ?> targetMap) {
+                for (Map.Entry<?, ?> entry : targetMap.entrySet()) {
+                    targets.put(String.valueOf(entry.getKey()), ((Number) entry.getValue()).doubleValue());
+                }
+            }
+            RebalancePlan plan = rebalanceService.planRebalance(userId, targets);
+            return ResponseEntity.ok(plan);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -67,6 +89,36 @@ public class PortfolioController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    // Runs the trade and turns its outcome, including synchronous failures, into a recordable response
+    private CompletableFuture<IdempotentResponse> tradeResponse(Supplier<CompletableFuture<Void>> trade, String successMessage) {
+        CompletableFuture<Void> pending;
+        try {
+            pending = trade.get();
+        } catch (Exception e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
+        return pending.handle((done, error) -> {
+            Map<String, Object> response = new HashMap<>();
+            if (error == null) {
+                response.put("success", true);
+                response.put("message", successMessage);
+                return new IdempotentResponse(200, response);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            response.put("success", false);
+            response.put("message", cause.getMessage());
+            return new IdempotentResponse(400, response);
+        });
+    }
+
+    private ResponseEntity<Map<String, Object>> toResponseEntity(IdempotentResponse result) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(result.getStatus());
+        if (result.isReplayed()) {
+            builder.header("Idempotent-Replayed", "true");
+        }
+        return builder.body(result.getBody());
+    }
 }
 
 
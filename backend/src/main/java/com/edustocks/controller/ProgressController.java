@@ -1,25 +1,132 @@
 package com.edustocks.controller;
 
+import com.edustocks.model.AchievementStatus;
+import com.edustocks.model.LevelProgress;
+import com.edustocks.model.ReviewAnswer;
+import com.edustocks.model.ReviewItem;
+import com.edustocks.model.ReviewResult;
 import com.edustocks.model.UserProgress;
+import com.edustocks.service.AchievementService;
+import com.edustocks.service.LessonService;
 import com.edustocks.service.ProgressService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/progress")
 public class ProgressController {
 
+    private static final int MAX_REVIEWS = 100;
+
     @Autowired
     private ProgressService progressService;
 
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private AchievementService achievementService;
+
     @GetMapping
     public ResponseEntity<UserProgress> getProgress(HttpServletRequest request) {
         String userId = (String) request.getAttribute("userId");
         UserProgress progress = progressService.getUserProgress(userId);
         return ResponseEntity.ok(progress);
     }
+
+    @PutMapping("/class")
+    public ResponseEntity<?> joinClass(
+            @RequestBody Map<String, String> body,
+            HttpServletRequest request) {
+        String userId = (String) request.getAttribute("userId");
+        if (userId == null || userId.isBlank()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "User not authenticated");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+        UserProgress progress = progressService.joinClass(userId, body == null ? null : body.get("classId"));
+        return ResponseEntity.ok(progress);
+    }
+
+    @GetMapping("/levels")
+    public ResponseEntity<?> getLevelProgress(HttpServletRequest request) {
+        String userId = (String) request.getAttribute("userId");
+        if (userId == null || userId.isBlank()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "User not authenticated");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+        List<LevelProgress> levels = lessonService.getLevelProgress(userId);
+        return ResponseEntity.ok(levels);
+    }
+
+    @GetMapping("/achievements")
+    public ResponseEntity<?> getAchievements(HttpServletRequest request) {
+        String userId = (String) request.getAttribute("userId");
+        if (userId == null || userId.isBlank()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "User not authenticated");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+        List<AchievementStatus> achievements = achievementService.getAchievements(userId);
+        return ResponseEntity.ok(achievements);
+    }
+
+    @GetMapping("/reviews")
+    public ResponseEntity<?> getDueReviews(
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request) {
+        String userId = (String) request.getAttribute("userId");
+        if (userId == null || userId.isBlank()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "User not authenticated");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+        List<ReviewItem> reviews = lessonService.getDueReviews(userId, Math.max(1, Math.min(limit, MAX_REVIEWS)));
+        return ResponseEntity.ok(reviews);
+    }
+
+    @PostMapping("/reviews")
+    public ResponseEntity<Map<String, Object>> submitReview(
+            @RequestBody ReviewAnswer review,
+            HttpServletRequest request) {
+        String userId = (String) request.getAttribute("userId");
+        if (userId == null || userId.isBlank()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "User not authenticated");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+        if (review == null || review.getLessonId() == null || review.getQuestionId() == null || review.getAnswer() == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "lessonId, questionId and answer are required");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        ReviewResult result = lessonService.reviewQuestion(userId, review.getLessonId(), review.getQuestionId(), review.getAnswer());
+        if (result == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Question not found");
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("result", result);
+        return ResponseEntity.ok(response);
+    }
 }
 
 
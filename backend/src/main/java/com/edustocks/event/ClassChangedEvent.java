@@ -0,0 +1,5 @@
+package com.edustocks.event;
+
+/** Published after a user joins, switches or leaves a class (classId null when leaving). */
+public record ClassChangedEvent(String userId, String previousClassId, String classId, int totalXp) {
+}
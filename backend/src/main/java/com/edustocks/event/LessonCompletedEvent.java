@@ -0,0 +1,17 @@
+package com.edustocks.event;
+
+/**
+ * Published after a user's first completion of a lesson has been saved. Carries the user's
+ * totals after the completion, so listeners don't have to read the progress back.
+ */
+public record LessonCompletedEvent(
+    String userId,
+    String lessonId,
+    double score,
+    int xpEarned,
+    int totalXp,
+    String classId,
+    String weekKey,
+    int weeklyXp
+) {
+}
@@ -0,0 +1,13 @@
+package com.edustocks.event;
+
+/**
+ * Published when a completion lifts a user's XP into a new level. {@code createdAt} is when the
+ * user's progress was first created (epoch seconds), or 0 for users from before it was recorded.
+ */
+public record LevelReachedEvent(
+    String userId,
+    String level,
+    long createdAt,
+    long reachedAt
+) {
+}
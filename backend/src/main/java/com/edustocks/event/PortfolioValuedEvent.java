@@ -0,0 +1,13 @@
+package com.edustocks.event;
+
+/**
+ * Published whenever a portfolio has been marked to current prices, after a trade or when it
+ * is viewed. {@code returnPercent} is measured against the starting balance.
+ */
+public record PortfolioValuedEvent(
+    String userId,
+    double totalValue,
+    double returnPercent,
+    int holdingCount
+) {
+}
@@ -0,0 +1,12 @@
+package com.edustocks.event;
+
+/** Published for every graded quiz submission, first attempt or not. */
+public record QuizGradedEvent(
+    String userId,
+    String lessonId,
+    String level,
+    double score,
+    int correctCount,
+    int totalQuestions
+) {
+}
@@ -0,0 +1,11 @@
+package com.edustocks.event;
+
+/** Published after a buy or sell has been applied to a portfolio and saved. */
+public record TradeExecutedEvent(
+    String userId,
+    String symbol,
+    String side, // buy or sell
+    int quantity,
+    double price
+) {
+}
@@ -0,0 +1,26 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stored achievement state for one user: when each achievement was unlocked and the running
+ * counters the rules read, so an event only ever bumps a counter instead of replaying history.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AchievementState {
+    private String userId;
+    private Map<String, Long> unlocked = new HashMap<>(); // achievement id -> epoch seconds
+    private Map<String, Long> counters = new HashMap<>();
+    private Map<String, String> windows = new HashMap<>(); // counter name -> window it counts
+
+    public AchievementState(String userId) {
+        this.userId = userId;
+    }
+}
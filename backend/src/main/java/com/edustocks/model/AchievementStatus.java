@@ -0,0 +1,18 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AchievementStatus {
+    private String id;
+    private String title;
+    private String description;
+    private boolean unlocked;
+    private Long unlockedAt; // epoch seconds, null while locked
+    private double progress;
+    private double target;
+}
@@ -0,0 +1,26 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentResponse {
+    private int status;
+    private Map<String, Object> body;
+    private long createdAt;
+    private boolean replayed; // only set on the copy handed back for a duplicate request
+    private String fingerprint; // identifies the request the response was recorded for
+
+    public IdempotentResponse(int status, Map<String, Object> body) {
+        this(status, body, System.currentTimeMillis(), false, null);
+    }
+
+    public IdempotentResponse asReplay() {
+        return new IdempotentResponse(status, body, createdAt, true, fingerprint);
+    }
+}
@@ -0,0 +1,16 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardStanding {
+    private String window; // global, class or weekly
+    private int rank;
+    private int xp;
+    private double percentile; // share of other users at or below this user's XP
+    private int totalUsers;
+}
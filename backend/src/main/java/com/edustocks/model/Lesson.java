@@ -1,5 +1,8 @@
 package com.edustocks.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,14 +13,25 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Lesson {
+    @JsonView(LessonViews.Summary.class)
     private String id;
+    @JsonView(LessonViews.Summary.class)
     private String title;
+    @JsonView(LessonViews.Summary.class)
     private String description;
+    @JsonView(LessonViews.Summary.class)
     private String level; // beginner, intermediate, advanced
+    @JsonView(LessonViews.Detail.class)
     private String content;
+    @JsonView(LessonViews.Detail.class)
     private List<Question> questions;
+    @JsonView(LessonViews.Summary.class)
     private int order;
-}
-
-
 
+    // Lets list views show the number of questions without shipping them
+    @JsonView(LessonViews.Summary.class)
+    @JsonProperty(value = "questionCount", access = JsonProperty.Access.READ_ONLY)
+    public int getQuestionCount() {
+        return questions == null ? 0 : questions.size();
+    }
+}
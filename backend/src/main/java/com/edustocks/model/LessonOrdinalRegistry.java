@@ -0,0 +1,16 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Lesson ids in the order they were first seen; a lesson's ordinal is its index here. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonOrdinalRegistry {
+    private List<String> lessonIds = new ArrayList<>();
+}
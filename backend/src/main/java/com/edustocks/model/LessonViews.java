@@ -0,0 +1,22 @@
+package com.edustocks.model;
+
+/**
+ * Jackson views for {@link Lesson}: list endpoints serialize {@link Summary}, the single-lesson
+ * endpoint serializes {@link Detail}, which adds the content and questions. Each question's
+ * correct answer and explanation are only in {@link Answers}, which no endpoint serializes, so
+ * quizzes can only be graded by the server.
+ */
+public final class LessonViews {
+
+    private LessonViews() {
+    }
+
+    public interface Summary {
+    }
+
+    public interface Detail extends Summary {
+    }
+
+    public interface Answers extends Detail {
+    }
+}
@@ -0,0 +1,19 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LevelProgress {
+    private String level;
+    private int completedLessons;
+    private int totalLessons;
+    private double percentComplete;
+    private String nextLessonId; // first uncompleted lesson in order, null when the level is done
+    private List<String> completedLessonIds;
+}
@@ -11,6 +11,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Portfolio {
+    public static final double STARTING_BALANCE = 10000.0;
+
     private String userId;
     private double balance;
     private List<Holding> holdings;
@@ -18,7 +20,7 @@ public class Portfolio {
 
     public Portfolio(String userId) {
         this.userId = userId;
-        this.balance = 10000.0; // Starting balance
+        this.balance = STARTING_BALANCE;
         this.holdings = new ArrayList<>();
         this.totalValue = balance;
     }
@@ -1,5 +1,6 @@
 package com.edustocks.model;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,9 +14,8 @@ public class Question {
     private String id;
     private String question;
     private List<String> options;
+    @JsonView(LessonViews.Answers.class)
     private int correctAnswer;
+    @JsonView(LessonViews.Answers.class)
     private String explanation;
 }
-
-
-
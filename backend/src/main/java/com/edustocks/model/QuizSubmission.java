@@ -0,0 +1,12 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizSubmission {
+    private int[] answers; // selected option per question, in question order; -1 if unanswered
+}
@@ -0,0 +1,16 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebalanceOrder {
+    private String symbol;
+    private String side; // BUY or SELL
+    private int quantity;
+    private double price;
+    private double value;
+}
@@ -0,0 +1,19 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebalancePlan {
+    private List<RebalanceOrder> orders; // sells first, so buys are always funded
+    private double totalValue;
+    private double cashBefore;
+    private double cashAfter;
+    private Map<String, Double> resultingWeights;
+}
@@ -0,0 +1,14 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewAnswer {
+    private String lessonId;
+    private String questionId;
+    private Integer answer;
+}
@@ -0,0 +1,21 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stored spaced-repetition state for one user. Each card is packed into a single string,
+ * {@code lessonId|questionId|ease x 100|interval days|repetitions|due epoch seconds},
+ * so a deck of hundreds of questions stays one small document.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewDeck {
+    private String userId;
+    private List<String> cards = new ArrayList<>();
+}
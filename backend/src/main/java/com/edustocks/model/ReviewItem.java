@@ -0,0 +1,20 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewItem {
+    private String lessonId;
+    private String lessonTitle;
+    private String questionId;
+    private String question;
+    private List<String> options;
+    private long dueAt;
+    private int repetitions;
+}
@@ -0,0 +1,18 @@
+package com.edustocks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewResult {
+    private String lessonId;
+    private String questionId;
+    private boolean correct;
+    private int correctAnswer;
+    private String explanation;
+    private long nextReviewAt;
+    private int intervalDays;
+}
@@ -1,30 +1,182 @@
 package com.edustocks.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.google.cloud.firestore.annotation.IgnoreExtraProperties;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 
+// level and rank are derived from xp; documents written before that still carry them as fields
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@IgnoreExtraProperties
 public class UserProgress {
     private String userId;
-    private String level; // beginner, intermediate, advanced
+    // Completed lessons as a bitset over lesson ordinals (see LessonOrdinals): base64 of
+    // little-endian 64-bit words, so 1,000 lessons take at most 172 characters
+    private String completedLessonBits = "";
+    private int completedCount;
+    // Legacy list of completed lesson ids; folded into the bitset when the progress is next read
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<String> completedLessons;
     private int xp;
-    private String rank;
+    private String classId; // class the student belongs to, for class leaderboards; null if none
+    private String weekKey; // ISO week (e.g. 2026-W42) that weeklyXp was earned in
+    private int weeklyXp;
+    private long createdAt; // epoch seconds; 0 for progress created before this was recorded
+
+    // Decoded form of completedLessonBits, kept so checks don't re-decode on every call
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient long[] completedWords;
 
     public UserProgress(String userId) {
         this.userId = userId;
-        this.level = "beginner";
-        this.completedLessons = new ArrayList<>();
-        this.xp = 0;
-        this.rank = "Novice";
+        this.createdAt = System.currentTimeMillis() / 1000;
+    }
+
+    /** An independent copy, for callers that must not share a cached instance. */
+    public UserProgress copy() {
+        UserProgress copy = new UserProgress();
+        copy.userId = userId;
+        copy.completedLessonBits = completedLessonBits;
+        copy.completedCount = completedCount;
+        copy.completedLessons = completedLessons == null ? null : new ArrayList<>(completedLessons);
+        copy.xp = xp;
+        copy.classId = classId;
+        copy.weekKey = weekKey;
+        copy.weeklyXp = weeklyXp;
+        copy.createdAt = createdAt;
+        return copy;
+    }
+
+    /** beginner, intermediate or advanced, from total XP. */
+    public String getLevel() {
+        return levelFor(xp);
+    }
+
+    public static String levelFor(int xp) {
+        if (xp >= 5000) {
+            return "advanced";
+        } else if (xp >= 2000) {
+            return "intermediate";
+        }
+        return "beginner";
+    }
+
+    public String getRank() {
+        if (xp >= 5000) {
+            return "Master";
+        } else if (xp >= 2500) {
+            return "Expert";
+        } else if (xp >= 1000) {
+            return "Advanced";
+        } else if (xp >= 500) {
+            return "Intermediate";
+        } else if (xp >= 100) {
+            return "Beginner";
+        }
+        return "Novice";
+    }
+
+    public void setCompletedLessonBits(String completedLessonBits) {
+        this.completedLessonBits = completedLessonBits;
+        this.completedWords = null;
     }
-}
 
+    public boolean hasCompletedLesson(int ordinal) {
+        long[] words = words();
+        int word = ordinal >>> 6;
+        return word < words.length && (words[word] & (1L << ordinal)) != 0;
+    }
+
+    /** Marks a lesson completed; returns false if it already was. */
+    public boolean markLessonCompleted(int ordinal) {
+        if (hasCompletedLesson(ordinal)) {
+            return false;
+        }
+        long[] words = words();
+        int word = ordinal >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, word + 1);
+        }
+        words[word] |= 1L << ordinal;
+        completedWords = words;
+        completedLessonBits = encode(words);
+        completedCount = 0;
+        for (long bits : words) {
+            completedCount += Long.bitCount(bits);
+        }
+        return true;
+    }
+
+    /**
+     * Marks a lesson completed and awards its XP, starting weekly XP over if {@code week} is
+     * not the week it was earned in. Returns false, changing nothing, if it already was completed.
+     */
+    public boolean completeLesson(int ordinal, int xpEarned, String week) {
+        if (!markLessonCompleted(ordinal)) {
+            return false;
+        }
+        xp += xpEarned;
+        if (!week.equals(weekKey)) {
+            weekKey = week;
+            weeklyXp = 0;
+        }
+        weeklyXp += xpEarned;
+        return true;
+    }
+
+    /** The completion bitset as 64-bit words; callers must not modify it. */
+    public long[] completedLessonWords() {
+        return words();
+    }
+
+    private long[] words() {
+        long[] words = completedWords;
+        if (words == null) {
+            words = decode(completedLessonBits);
+            completedWords = words;
+        }
+        return words;
+    }
 
+    private static String encode(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < length; i++) {
+            buffer.putLong(words[i]);
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
 
+    private static long[] decode(String bits) {
+        if (bits == null || bits.isEmpty()) {
+            return new long[0];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(bits)).order(ByteOrder.LITTLE_ENDIAN);
+        long[] words = new long[buffer.remaining() / Long.BYTES];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong();
+        }
+        return words;
+    }
+}
@@ -0,0 +1,33 @@
+package com.edustocks.repository;
+
+import com.edustocks.model.AchievementState;
+import com.edustocks.storage.DocumentStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.UnaryOperator;
+
+@Repository
+public class AchievementStateRepository {
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    private static final String COLLECTION_NAME = "achievements";
+
+    public AchievementState findByUserId(String userId) {
+        return documentStore.get(COLLECTION_NAME, userId, AchievementState.class);
+    }
+
+    public void save(AchievementState state) {
+        documentStore.put(COLLECTION_NAME, state.getUserId(), state);
+    }
+
+    /**
+     * Applies {@code change} to the user's stored state atomically (see {@link DocumentStore#transact});
+     * returns the state as stored afterwards.
+     */
+    public AchievementState update(String userId, UnaryOperator<AchievementState> change) {
+        return documentStore.transact(COLLECTION_NAME, userId, AchievementState.class, change);
+    }
+}
@@ -0,0 +1,14 @@
+package com.edustocks.repository;
+
+import com.edustocks.model.IdempotentResponse;
+
+/**
+ * Backend for recently seen idempotency keys. Implementations must drop entries
+ * once they are older than the configured TTL.
+ */
+public interface IdempotencyStore {
+
+    IdempotentResponse find(String key);
+
+    void save(String key, IdempotentResponse response);
+}
@@ -0,0 +1,49 @@
+package com.edustocks.repository;
+
+import com.edustocks.model.IdempotentResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single-instance dedupe store: a bounded LRU map whose entries also expire after the TTL.
+ */
+@Repository
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    @Value("${idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, IdempotentResponse> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, IdempotentResponse> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    @Override
+    public synchronized IdempotentResponse find(String key) {
+        IdempotentResponse response = entries.get(key);
+        if (response != null && isExpired(response)) {
+            entries.remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    @Override
+    public synchronized void save(String key, IdempotentResponse response) {
+        entries.put(key, response);
+    }
+
+    private boolean isExpired(IdempotentResponse response) {
+        return System.currentTimeMillis() - response.getCreatedAt() > ttlSeconds * 1000;
+    }
+}
@@ -0,0 +1,34 @@
+package com.edustocks.repository;
+
+import com.edustocks.model.LessonOrdinalRegistry;
+import com.edustocks.storage.DocumentStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.UnaryOperator;
+
+@Repository
+public class LessonOrdinalRepository {
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    private static final String COLLECTION_NAME = "lessonOrdinals";
+    private static final String REGISTRY_ID = "registry";
+
+    public LessonOrdinalRegistry find() {
+        return documentStore.get(COLLECTION_NAME, REGISTRY_ID, LessonOrdinalRegistry.class);
+    }
+
+    public void save(LessonOrdinalRegistry registry) {
+        documentStore.put(COLLECTION_NAME, REGISTRY_ID, registry);
+    }
+
+    /**
+     * Applies {@code change} to the stored registry atomically (see {@link DocumentStore#transact});
+     * returns the registry as stored afterwards.
+     */
+    public LessonOrdinalRegistry update(UnaryOperator<LessonOrdinalRegistry> change) {
+        return documentStore.transact(COLLECTION_NAME, REGISTRY_ID, LessonOrdinalRegistry.class, change);
+    }
+}
@@ -1,76 +1,53 @@
 package com.edustocks.repository;
 
 import com.edustocks.model.Portfolio;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.DocumentSnapshot;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.WriteResult;
+import com.edustocks.storage.DocumentStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @Repository
 public class PortfolioRepository {
     
     @Autowired
-    private Firestore firestore;
+    private DocumentStore documentStore;
+
+    @Value("${storage.scan.page-size:500}")
+    private int scanPageSize;
+
+    @Value("${storage.scan.prefetch-pages:2}")
+    private int scanPrefetchPages;
 
     private static final String COLLECTION_NAME = "portfolios";
 
     public Portfolio findByUserId(String userId) {
-        try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(userId);
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
-            if (document.exists()) {
-                return document.toObject(Portfolio.class);
-            }
-            return null;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to fetch portfolio", e);
-        }
+        return documentStore.get(COLLECTION_NAME, userId, Portfolio.class);
     }
 
     public void save(Portfolio portfolio) {
-        try {
-            ApiFuture<WriteResult> future = firestore.collection(COLLECTION_NAME)
-                .document(portfolio.getUserId())
-                .set(portfolio);
-            future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to save portfolio", e);
-        }
+        documentStore.put(COLLECTION_NAME, portfolio.getUserId(), portfolio);
     }
 
-    public List<Portfolio> findAll() {
-        try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME).get();
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            List<Portfolio> portfolios = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                portfolios.add(document.toObject(Portfolio.class));
-            }
-            return portfolios;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to fetch all portfolios", e);
-        }
+    public CompletableFuture<Portfolio> findByUserIdAsync(String userId) {
+        return documentStore.getAsync(COLLECTION_NAME, userId, Portfolio.class);
     }
 
-    public void delete(String userId) {
-        try {
-            ApiFuture<WriteResult> future = firestore.collection(COLLECTION_NAME).document(userId).delete();
-            future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to delete portfolio", e);
-        }
+    public CompletableFuture<Void> saveAsync(Portfolio portfolio) {
+        return documentStore.putAsync(COLLECTION_NAME, portfolio.getUserId(), portfolio);
     }
-}
-
 
+    /**
+     * Streams every portfolio page by page instead of loading the whole collection,
+     * so memory stays bounded as the user base grows. Close the stream when done.
+     */
+    public Stream<Portfolio> streamAll() {
+        return documentStore.scan(COLLECTION_NAME, Portfolio.class, scanPageSize, scanPrefetchPages);
+    }
 
+    public void delete(String userId) {
+        documentStore.delete(COLLECTION_NAME, userId);
+    }
+}
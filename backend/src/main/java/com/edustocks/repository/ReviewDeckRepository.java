@@ -0,0 +1,33 @@
+package com.edustocks.repository;
+
+import com.edustocks.model.ReviewDeck;
+import com.edustocks.storage.DocumentStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.UnaryOperator;
+
+@Repository
+public class ReviewDeckRepository {
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    private static final String COLLECTION_NAME = "reviews";
+
+    public ReviewDeck findByUserId(String userId) {
+        return documentStore.get(COLLECTION_NAME, userId, ReviewDeck.class);
+    }
+
+    public void save(ReviewDeck deck) {
+        documentStore.put(COLLECTION_NAME, deck.getUserId(), deck);
+    }
+
+    /**
+     * Applies {@code change} to the user's stored deck atomically (see {@link DocumentStore#transact});
+     * returns the deck as stored afterwards.
+     */
+    public ReviewDeck update(String userId, UnaryOperator<ReviewDeck> change) {
+        return documentStore.transact(COLLECTION_NAME, userId, ReviewDeck.class, change);
+    }
+}
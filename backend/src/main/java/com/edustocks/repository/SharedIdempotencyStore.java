@@ -0,0 +1,92 @@
+package com.edustocks.repository;
+
+import com.edustocks.model.IdempotentResponse;
+import com.edustocks.storage.DocumentStore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * Dedupe store kept in the configured storage engine, so every backend instance sees the same
+ * keys. Documents are addressed by a hash of the key, since client keys may contain characters
+ * such as {@code /} that are not valid in document ids. Expired documents are deleted when read
+ * and by a periodic sweep.
+ */
+@Repository
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "shared")
+public class SharedIdempotencyStore implements IdempotencyStore {
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Value("${idempotency.ttl-seconds:86400}")
+    private long ttlSeconds = 86400;
+
+    private static final String COLLECTION_NAME = "idempotencyKeys";
+    private static final int SWEEP_PAGE_SIZE = 500;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StoredKey {
+        private String key;
+        private IdempotentResponse response;
+    }
+
+    @Override
+    public IdempotentResponse find(String key) {
+        String id = documentId(key);
+        StoredKey stored = documentStore.get(COLLECTION_NAME, id, StoredKey.class);
+        if (stored == null || stored.getResponse() == null || !key.equals(stored.getKey())) {
+            return null;
+        }
+        if (isExpired(stored.getResponse())) {
+            documentStore.delete(COLLECTION_NAME, id);
+            return null;
+        }
+        return stored.getResponse();
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        documentStore.put(COLLECTION_NAME, documentId(key), new StoredKey(key, response));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.sweep-interval-ms:3600000}",
+        initialDelayString = "${idempotency.sweep-interval-ms:3600000}")
+    public void deleteExpired() {
+        try (Stream<StoredKey> keys = documentStore.scan(COLLECTION_NAME, StoredKey.class, SWEEP_PAGE_SIZE, 1)) {
+            for (StoredKey stored : (Iterable<StoredKey>) keys::iterator) {
+                if (stored.getKey() != null && (stored.getResponse() == null || isExpired(stored.getResponse()))) {
+                    documentStore.delete(COLLECTION_NAME, documentId(stored.getKey()));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to sweep expired idempotency keys: " + e.getMessage());
+        }
+    }
+
+    private boolean isExpired(IdempotentResponse response) {
+        return System.currentTimeMillis() - response.getCreatedAt() > ttlSeconds * 1000;
+    }
+
+    private static String documentId(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,35 +1,142 @@
 package com.edustocks.repository;
 
+import com.edustocks.cache.ExpiringLruCache;
 import com.edustocks.model.UserProgress;
+import com.edustocks.storage.DocumentStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @Repository
 public class UserProgressRepository {
-    
-    // In-memory storage - replace with Firebase Firestore in production
-    private final Map<String, UserProgress> progresses = new HashMap<>();
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    // Other instances may update the same user, so cached entries are re-read after this long
+    @Value("${storage.cache.progress-ttl-seconds:300}")
+    private long cacheTtlSeconds = 300;
+
+    @Value("${storage.cache.progress-max-entries:100000}")
+    private int cacheMaxEntries = 100000;
+
+    @Value("${storage.scan.page-size:500}")
+    private int scanPageSize;
+
+    @Value("${storage.scan.prefetch-pages:2}")
+    private int scanPrefetchPages;
+
+    private static final String COLLECTION_NAME = "userProgress";
+
+    // Write-through cache: every save goes to storage first, then replaces the cached entry.
+    // Entries are private copies and callers get copies, so one caller's unsaved changes are
+    // never seen by another.
+    private ExpiringLruCache<String, UserProgress> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new ExpiringLruCache<>(cacheMaxEntries, cacheTtlSeconds * 1000);
+    }
 
     public UserProgress findByUserId(String userId) {
-        return progresses.get(userId);
+        UserProgress cached = cached(userId);
+        if (cached != null) {
+            return cached;
+        }
+        return remember(userId, documentStore.get(COLLECTION_NAME, userId, UserProgress.class));
     }
 
     public void save(UserProgress progress) {
-        progresses.put(progress.getUserId(), progress);
+        documentStore.put(COLLECTION_NAME, progress.getUserId(), progress);
+        remember(progress.getUserId(), progress);
+    }
+
+    /**
+     * Marks a lesson completed and awards its XP in one storage transaction on the current
+     * document, so completions recorded by other instances at the same time are all kept and
+     * the completed count always matches the bitset.
+     *
+     * @return the progress as stored afterwards, or null if the lesson was already completed
+     */
+    public UserProgress recordCompletion(String userId, int ordinal, int xpEarned, String week) {
+        boolean[] completed = new boolean[1];
+        UserProgress stored;
+        try {
+            stored = documentStore.transact(COLLECTION_NAME, userId, UserProgress.class, current -> {
+                UserProgress progress = current == null ? new UserProgress(userId) : current;
+                completed[0] = progress.completeLesson(ordinal, xpEarned, week);
+                return completed[0] ? progress : null;
+            });
+        } catch (RuntimeException e) {
+            cache.remove(userId);
+            throw e;
+        }
+        remember(userId, stored);
+        return completed[0] ? stored : null;
     }
 
-    public List<UserProgress> findAll() {
-        return new ArrayList<>(progresses.values());
+    /** Stores only the class id, leaving XP and completions to concurrent writers. */
+    public void saveClassId(UserProgress progress) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("classId", progress.getClassId());
+        update(progress, fields, Map.of());
+    }
+
+    public CompletableFuture<UserProgress> findByUserIdAsync(String userId) {
+        UserProgress cached = cached(userId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return documentStore.getAsync(COLLECTION_NAME, userId, UserProgress.class)
+            .thenApply(progress -> remember(userId, progress));
+    }
+
+    public CompletableFuture<Void> saveAsync(UserProgress progress) {
+        return documentStore.putAsync(COLLECTION_NAME, progress.getUserId(), progress)
+            .thenRun(() -> remember(progress.getUserId(), progress));
+    }
+
+    /**
+     * Streams every user's progress page by page, bypassing the cache, for bulk jobs such as
+     * rebuilding the leaderboard. Close the stream when done.
+     */
+    public Stream<UserProgress> streamAll() {
+        return documentStore.scan(COLLECTION_NAME, UserProgress.class, scanPageSize, scanPrefetchPages);
     }
 
     public void delete(String userId) {
-        progresses.remove(userId);
+        documentStore.delete(COLLECTION_NAME, userId);
+        cache.remove(userId);
     }
-}
 
+    private void update(UserProgress progress, Map<String, Object> fields, Map<String, Long> increments) {
+        try {
+            documentStore.update(COLLECTION_NAME, progress.getUserId(), fields, increments);
+        } catch (RuntimeException e) {
+            // The caller already changed the object; don't keep serving a change that wasn't stored
+            cache.remove(progress.getUserId());
+            throw e;
+        }
+        remember(progress.getUserId(), progress);
+    }
 
+    private UserProgress cached(String userId) {
+        UserProgress cached = cache.get(userId);
+        return cached == null ? null : cached.copy();
+    }
 
+    private UserProgress remember(String userId, UserProgress progress) {
+        if (progress == null) {
+            cache.remove(userId);
+        } else {
+            cache.put(userId, progress.copy());
+        }
+        return progress;
+    }
+}
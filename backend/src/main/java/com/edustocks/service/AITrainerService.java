@@ -1,15 +1,18 @@
 package com.edustocks.service;
 
+import com.edustocks.ai.AIBulkhead;
+import com.edustocks.ai.AIProvider;
+import com.edustocks.ai.AIResponseCache;
+import com.edustocks.ai.QuestionParser;
+import com.edustocks.ai.QuestionPool;
+import com.edustocks.cache.ExpiringLruCache;
+import com.edustocks.model.Question;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import com.theokanning.openai.service.OpenAiService;
-import com.theokanning.openai.completion.chat.ChatCompletionRequest;
-import com.theokanning.openai.completion.chat.ChatMessage;
+import reactor.core.publisher.Flux;
 
-import java.time.Duration;
-import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -17,94 +20,52 @@ import java.util.UUID;
 @Service
 public class AITrainerService {
 
-    @Value("${ai.provider:openai}")
-    private String aiProvider;
+    @Autowired
+    private AIProvider aiProvider;
 
-    @Value("${openai.api.key:}")
-    private String openAiKey;
+    @Autowired
+    private AIResponseCache responseCache;
 
-    @Value("${gemini.api.key:}")
-    private String geminiKey;
+    @Autowired
+    private QuestionPool questionPool;
 
-    public String getAIResponse(String prompt) {
-        try {
-            if ("gemini".equalsIgnoreCase(aiProvider)) {
-                return getAIResponseWithGemini(prompt);
-            }
-            return getAIResponseWithOpenAI(prompt);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ("gemini".equalsIgnoreCase(aiProvider) ? "Error communicating with Gemini: " : "Error communicating with OpenAI: ") + e.getMessage();
-        }
-    }
+    @Autowired
+    private AIBulkhead bulkhead;
 
-    private String getAIResponseWithOpenAI(String prompt) {
-        OpenAiService service = new OpenAiService(openAiKey, Duration.ofSeconds(60));
-
-        ChatCompletionRequest request = ChatCompletionRequest.builder()
-                .model("gpt-3.5-turbo")
-                .messages(List.of(
-                        new ChatMessage("system", "You are an AI stock learning assistant."),
-                        new ChatMessage("user", prompt)
-                ))
-                .maxTokens(300)
-                .build();
-
-        var response = service.createChatCompletion(request);
-        if (response.getChoices().isEmpty()) {
-            return "No response received from OpenAI.";
-        }
-        return response.getChoices().get(0).getMessage().getContent();
-    }
+    @Value("${ai.questions.max-entries:50000}")
+    private int maxIssuedQuestions = 50000;
 
-    @SuppressWarnings("unchecked")
-    private String getAIResponseWithGemini(String prompt) {
-        if (geminiKey == null || geminiKey.isBlank()) {
-            throw new IllegalStateException("GEMINI_API_KEY is not set");
-        }
+    @Value("${ai.questions.ttl-minutes:120}")
+    private long issuedQuestionTtlMinutes = 120;
 
-        String model = "gemini-pro"; // text-only model suitable for chat
-        String url = String.format("https://generativelanguage.googleapis.com/v1beta/models/%s:generateContent?key=%s", model, geminiKey);
-
-        Map<String, Object> body = Map.of(
-                "contents", List.of(Map.of(
-                        "parts", List.of(Map.of("text", "You are an AI stock learning assistant."), Map.of("text", prompt))
-                ))
-        );
-
-        Map<String, Object> response = WebClient.create()
-                .post()
-                .uri(url)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block(Duration.ofSeconds(60));
-
-        if (response == null) {
-            return "No response received from Gemini.";
-        }
+    // Questions handed out, with their answers, until they are answered or expire
+    private ExpiringLruCache<String, Question> issuedQuestions;
 
-        // Extract candidates[0].content.parts[0].text
+    @PostConstruct
+    public void init() {
+        issuedQuestions = new ExpiringLruCache<>(maxIssuedQuestions, issuedQuestionTtlMinutes * 60_000);
+    }
+
+    public String getAIResponse(String prompt) {
         try {
-            var candidates = (List<Map<String, Object>>) response.get("candidates");
-            if (candidates == null || candidates.isEmpty()) return "No response received from Gemini.";
-            var content = (Map<String, Object>) candidates.get(0).get("content");
-            if (content == null) return "No response received from Gemini.";
-            var parts = (List<Map<String, Object>>) content.get("parts");
-            if (parts == null || parts.isEmpty()) return "No response received from Gemini.";
-            Object text = parts.get(0).get("text");
-            return text == null ? "" : text.toString();
-        } catch (Exception ex) {
-            throw new RuntimeException("Failed to parse Gemini response: " + ex.getMessage(), ex);
+            return aiProvider.complete(prompt);
+        } catch (Exception e) {
+            return errorMessage(e);
         }
     }
 
+    private String errorMessage(Exception e) {
+        e.printStackTrace();
+        return "Error communicating with " + aiProvider.displayName() + ": " + e.getMessage();
+    }
+
     /**
-     * Generate a question for the given difficulty level and topic using the AI model.
-     * Includes validation and proper response parsing.
+     * Generate a question for the given difficulty level and topic. Served from the pre-generated
+     * question pool when it has one ready, otherwise generated live by the AI model within the
+     * caller's bulkhead share. The answer and explanation are kept server-side until the question
+     * is answered.
      */
-    public Map<String, Object> generateQuestion(String level, String topic) {
+    public Map<String, Object> generateQuestion(String userId, String level, String topic) {
         if (level == null || level.isBlank()) {
             throw new IllegalArgumentException("Level cannot be null or blank");
         }
@@ -112,60 +73,107 @@ public class AITrainerService {
             throw new IllegalArgumentException("Topic cannot be null or blank");
         }
 
-        String prompt = String.format(
-            "Create a %s-level multiple-choice question about %s stock trading. " +
-            "Format: QUESTION: [question text] OPTIONS: [A) option1 B) option2 C) option3 D) option4] ANSWER: [A/B/C/D]",
-            level, topic
-        );
-        String questionText = getAIResponse(prompt);
+        Question question = questionPool.take(level, topic);
+        if (question == null) {
+            question = generateLive(userId, level, topic);
+        }
+        question.setId(UUID.randomUUID().toString());
+        issuedQuestions.put(question.getId(), question);
 
         Map<String, Object> result = new HashMap<>();
-        result.put("questionId", UUID.randomUUID().toString());
-        result.put("text", questionText);
+        result.put("questionId", question.getId());
+        result.put("question", question.getQuestion());
+        result.put("options", question.getOptions());
         result.put("level", level);
         result.put("topic", topic);
         result.put("generatedAt", System.currentTimeMillis());
         return result;
     }
 
+    private Question generateLive(String userId, String level, String topic) {
+        String text;
+        try {
+            text = bulkhead.call(userId, () -> aiProvider.complete(QuestionPool.prompt(level, topic)));
+        } catch (AIBulkhead.SaturatedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(errorMessage(e), e);
+        }
+        try {
+            return QuestionParser.parse(text);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unparseable " + level + " question on " + topic + ": " + e.getMessage());
+            throw new RuntimeException("The AI model returned a malformed question, please try again", e);
+        }
+    }
+
     /**
-     * Check the submitted answer for a question with detailed evaluation.
-     * Validates input and returns structured response.
+     * Grade a submitted answer against the issued question. Graded locally; the AI model is not
+     * consulted. Each question can be answered once; an out-of-range answer doesn't count.
      */
     public Map<String, Object> checkAnswer(String questionId, Integer answer) {
         if (questionId == null || questionId.isBlank()) {
             throw new IllegalArgumentException("Question ID cannot be null or blank");
         }
-        if (answer == null || answer < 0 || answer > 3) {
-            throw new IllegalArgumentException("Answer must be between 0 and 3 (A-D)");
+        Question question = issuedQuestions.get(questionId);
+        if (question == null) {
+            throw new IllegalArgumentException("Question not found or expired, please request a new one");
+        }
+        if (answer == null || answer < 0 || answer >= question.getOptions().size()) {
+            throw new IllegalArgumentException("Answer must be between 0 and " + (question.getOptions().size() - 1));
+        }
+        // Only one of several concurrent answers to the same question gets to remove it
+        if (issuedQuestions.remove(questionId) == null) {
+            throw new IllegalArgumentException("Question not found or expired, please request a new one");
         }
-
-        String prompt = String.format(
-            "Evaluate if answer '%s' is correct for question ID %s. " +
-            "Reply with exactly 'CORRECT' or 'INCORRECT' on first line, then explanation.",
-            Character.toString((char)('A' + answer)), questionId
-        );
-        String evaluation = getAIResponse(prompt);
-
-        boolean isCorrect = evaluation != null && evaluation.toLowerCase().startsWith("correct");
-        String explanation = evaluation != null && evaluation.contains("\n") ?
-            evaluation.substring(evaluation.indexOf("\n") + 1).trim() : evaluation;
 
         Map<String, Object> response = new HashMap<>();
         response.put("questionId", questionId);
         response.put("userAnswer", answer);
-        response.put("correct", isCorrect);
-        response.put("explanation", explanation);
+        response.put("correct", answer == question.getCorrectAnswer());
+        response.put("correctAnswer", question.getCorrectAnswer());
+        response.put("explanation", question.getExplanation());
         response.put("evaluatedAt", System.currentTimeMillis());
         return response;
     }
 
     /**
-     * Answer a free-form query at a given difficulty level.
+     * Answer a free-form query at a given difficulty level. Answers are cached per provider,
+     * level and normalized query; errors are returned as text but never cached. A provider call
+     * runs within the caller's bulkhead share and is rejected when the bulkhead is saturated.
      */
-    public String answerQuery(String query, String level) {
-        String prompt = String.format("As a %s-level tutor, answer the following query:\n%s", level, query);
-        return getAIResponse(prompt);
+    public String answerQuery(String userId, String query, String level) {
+        String prompt = tutorPrompt(query, level);
+        try {
+            return responseCache.get(aiProvider.name(), level, query,
+                () -> bulkhead.call(userId, () -> aiProvider.complete(prompt)));
+        } catch (AIBulkhead.SaturatedException e) {
+            throw e;
+        } catch (Exception e) {
+            return errorMessage(e);
+        }
+    }
+
+    /**
+     * Streams the answer to a free-form query as the provider produces it. A cached answer is
+     * emitted whole; a freshly streamed answer is cached once it completes and holds a bulkhead
+     * slot while it streams. Errors are signalled on the Flux rather than returned as text.
+     */
+    public Flux<String> streamAnswer(String userId, String query, String level) {
+        return Flux.defer(() -> {
+            String cached = responseCache.peek(aiProvider.name(), level, query);
+            if (cached != null) {
+                return Flux.just(cached);
+            }
+            StringBuilder answer = new StringBuilder();
+            return bulkhead.stream(userId, () -> aiProvider.stream(tutorPrompt(query, level)))
+                .doOnNext(answer::append)
+                .doOnComplete(() -> responseCache.put(aiProvider.name(), level, query, answer.toString()));
+        });
+    }
+
+    private static String tutorPrompt(String query, String level) {
+        return String.format("As a %s-level tutor, answer the following query:\n%s", level, query);
     }
 }
 
@@ -0,0 +1,98 @@
+package com.edustocks.service;
+
+import com.edustocks.achievement.AchievementIndex;
+import com.edustocks.achievement.AchievementRule;
+import com.edustocks.achievement.AchievementRules;
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.event.PortfolioValuedEvent;
+import com.edustocks.event.TradeExecutedEvent;
+import com.edustocks.model.AchievementState;
+import com.edustocks.model.AchievementStatus;
+import com.edustocks.repository.AchievementStateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Awards achievements as lesson and trade events arrive. Each event is run through the
+ * {@link AchievementIndex}, which touches only the rules and counters that depend on its type.
+ * Events that can change something are applied to the stored state in one storage transaction,
+ * so counters and unlocks recorded by other instances are never overwritten; the cached copy is
+ * only used to skip events that change nothing, so the frequent portfolio valuations cost a
+ * cache lookup once their achievements are earned.
+ */
+@Service
+public class AchievementService {
+
+    @Autowired
+    private AchievementStateRepository achievementStateRepository;
+
+    @Value("${achievements.cache.max-users:10000}")
+    private int maxCachedStates = 10000;
+
+    @Value("${achievements.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds = 300;
+
+    private final AchievementIndex index = AchievementIndex.of(AchievementRules.defaults());
+
+    private final UserStateCache<AchievementState> states = new UserStateCache<>(
+        () -> maxCachedStates, () -> cacheTtlSeconds * 1000, this::load);
+
+    @EventListener
+    public void onLessonCompleted(LessonCompletedEvent event) {
+        record(event.userId(), event);
+    }
+
+    @EventListener
+    public void onTradeExecuted(TradeExecutedEvent event) {
+        record(event.userId(), event);
+    }
+
+    @EventListener
+    public void onPortfolioValued(PortfolioValuedEvent event) {
+        record(event.userId(), event);
+    }
+
+    /** Every achievement with the user's progress towards it, locked ones included. */
+    public List<AchievementStatus> getAchievements(String userId) {
+        return states.withState(userId, index::statusOf);
+    }
+
+    // Achievements are a side effect of the lesson or trade that was already saved; a failure
+    // here is logged rather than failing that request
+    private void record(String userId, Object event) {
+        try {
+            record(userId, event, System.currentTimeMillis() / 1000);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update achievements for " + userId + ": " + e.getMessage());
+        }
+    }
+
+    List<AchievementRule<?>> record(String userId, Object event, long now) {
+        return states.withState(userId, cached -> {
+            if (!index.affects(cached, event)) {
+                return List.of();
+            }
+            List<AchievementRule<?>> unlocked = new ArrayList<>();
+            AchievementState stored = achievementStateRepository.update(userId, current -> {
+                AchievementState state = current == null ? new AchievementState(userId) : current;
+                AchievementIndex.Outcome outcome = index.apply(state, event, now);
+                // The transaction may run again on a newer state; keep only the last outcome
+                unlocked.clear();
+                unlocked.addAll(outcome.unlocked());
+                return outcome.changed() ? state : null;
+            });
+            states.replace(userId, stored == null ? new AchievementState(userId) : stored);
+            return unlocked;
+        });
+    }
+
+    private AchievementState load(String userId) {
+        AchievementState loaded = achievementStateRepository.findByUserId(userId);
+        return loaded == null ? new AchievementState(userId) : loaded;
+    }
+}
@@ -0,0 +1,140 @@
+package com.edustocks.service;
+
+import com.edustocks.analytics.LearningAnalytics;
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.event.LevelReachedEvent;
+import com.edustocks.event.QuizGradedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process pipeline feeding {@link LearningAnalytics}. Listeners only enqueue the event with
+ * its arrival time into a bounded queue, so lesson requests never wait on aggregation; a single
+ * consumer thread drains the queue in batches. When the queue is full events are dropped and
+ * counted rather than blocking the request.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final int BATCH_SIZE = 256;
+
+    @Value("${analytics.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${analytics.activity-days:90}")
+    private int activityDays = 90;
+
+    private record Observed(Object event, long at) {
+    }
+
+    /** Events waiting in the queue, dropped because it was full, and level-ups without a cohort. */
+    public record PipelineStats(int queued, long dropped, long levelUpsWithoutCohort) {
+    }
+
+    private BlockingQueue<Observed> queue;
+    private LearningAnalytics analytics;
+    private Thread consumer;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        analytics = new LearningAnalytics(activityDays);
+        consumer = new Thread(this::consume, "analytics-pipeline");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        consumer.interrupt();
+    }
+
+    @EventListener
+    public void onQuizGraded(QuizGradedEvent event) {
+        enqueue(event);
+    }
+
+    @EventListener
+    public void onLessonCompleted(LessonCompletedEvent event) {
+        enqueue(event);
+    }
+
+    @EventListener
+    public void onLevelReached(LevelReachedEvent event) {
+        enqueue(event);
+    }
+
+    public List<LearningAnalytics.LessonReport> getLessonReports(int limit) {
+        synchronized (analytics) {
+            List<LearningAnalytics.LessonReport> reports = analytics.lessonReports();
+            return reports.subList(0, Math.min(limit, reports.size()));
+        }
+    }
+
+    public List<LearningAnalytics.LevelReport> getLevelReports() {
+        synchronized (analytics) {
+            return analytics.levelReports();
+        }
+    }
+
+    public List<LearningAnalytics.CohortReport> getCohortReports(String level) {
+        synchronized (analytics) {
+            return analytics.cohortReports(level);
+        }
+    }
+
+    public LearningAnalytics.ActivityReport getActivity(int days) {
+        long today = Math.floorDiv(System.currentTimeMillis() / 1000, 24 * 60 * 60);
+        synchronized (analytics) {
+            return analytics.activity(today, days);
+        }
+    }
+
+    public int getActivityDays() {
+        return activityDays;
+    }
+
+    public PipelineStats getPipelineStats() {
+        synchronized (analytics) {
+            return new PipelineStats(queue.size(), dropped.get(), analytics.unknownCohortEvents());
+        }
+    }
+
+    private void enqueue(Object event) {
+        if (!queue.offer(new Observed(event, System.currentTimeMillis() / 1000))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void consume() {
+        List<Observed> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                synchronized (analytics) {
+                    for (Observed observed : batch) {
+                        try {
+                            analytics.apply(observed.event(), observed.at());
+                        } catch (RuntimeException e) {
+                            System.err.println("Skipping analytics event " + observed.event() + ": " + e.getMessage());
+                        }
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.edustocks.service;
+
+import com.edustocks.model.IdempotentResponse;
+import com.edustocks.repository.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    // Requests currently executing, so concurrent duplicates wait for the first one instead of racing it
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run the action at most once per (user, key). Duplicates get the recorded response back,
+     * unless the key was first used for a request with a different {@code fingerprint}, which is
+     * rejected with 422. Requests without a key are executed directly.
+     */
+    public CompletableFuture<IdempotentResponse> executeAsync(String userId, String key, String fingerprint,
+                                                              Supplier<CompletableFuture<IdempotentResponse>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(
+                error(400, "Idempotency key must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        String scopedKey = userId + ":" + key;
+        IdempotentResponse recorded = idempotencyStore.find(scopedKey);
+        if (recorded != null) {
+            return CompletableFuture.completedFuture(replay(recorded, fingerprint));
+        }
+
+        CompletableFuture<IdempotentResponse> pending = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> existing = inFlight.putIfAbsent(scopedKey, pending);
+        if (existing != null) {
+            return existing.thenApply(response -> replay(response, fingerprint));
+        }
+
+        try {
+            // Re-check now that we own the key: another request may have finished in between
+            recorded = idempotencyStore.find(scopedKey);
+            CompletableFuture<IdempotentResponse> result = recorded != null
+                ? CompletableFuture.completedFuture(replay(recorded, fingerprint))
+                : action.get().thenApply(response -> {
+                    response.setFingerprint(fingerprint);
+                    // Server errors are not recorded so the client can safely retry them
+                    if (response.getStatus() < 500) {
+                        idempotencyStore.save(scopedKey, response);
+                    }
+                    return response;
+                });
+            result.whenComplete((response, error) -> {
+                inFlight.remove(scopedKey, pending);
+                if (error != null) {
+                    pending.completeExceptionally(error);
+                } else {
+                    pending.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(scopedKey, pending);
+            pending.completeExceptionally(e);
+        }
+        return pending;
+    }
+
+    private static IdempotentResponse replay(IdempotentResponse recorded, String fingerprint) {
+        if (!Objects.equals(recorded.getFingerprint(), fingerprint)) {
+            return error(422, "Idempotency key was already used for a different request");
+        }
+        return recorded.asReplay();
+    }
+
+    private static IdempotentResponse error(int status, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return new IdempotentResponse(status, error);
+    }
+}
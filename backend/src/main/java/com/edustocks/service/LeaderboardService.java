@@ -0,0 +1,296 @@
+package com.edustocks.service;
+
+import com.edustocks.event.ClassChangedEvent;
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.model.LeaderboardEntry;
+import com.edustocks.model.LeaderboardStanding;
+import com.edustocks.model.UserProgress;
+import com.edustocks.repository.UserProgressRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * XP leaderboards for three windows: everyone (global), a user's class, and XP earned in the
+ * current ISO week. Boards are updated from progress events, and can be rebuilt from storage.
+ *
+ * <p>Each board keeps a skip list ordered by XP for top-K, and a Fenwick tree of user counts
+ * per XP value, so a user's rank and percentile are two prefix sums, O(log maxXp). Reads take
+ * no locks; writes to one board are serialized, which keeps the three structures in step.
+ */
+@Service
+public class LeaderboardService {
+
+    public static final String GLOBAL = "global";
+    public static final String CLASS = "class";
+    public static final String WEEKLY = "weekly";
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    @Qualifier("ioExecutor")
+    private Executor ioExecutor;
+
+    @Value("${leaderboard.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    record Standing(String userId, int xp) {
+    }
+
+    static final class Board {
+
+        private static final Comparator<Standing> BY_XP_DESC =
+            Comparator.comparingInt(Standing::xp).reversed().thenComparing(Standing::userId);
+
+        private final Map<String, Integer> scores = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<Standing> ranking = new ConcurrentSkipListSet<>(BY_XP_DESC);
+        // Fenwick tree: slot xp + 1 counts users with exactly that XP; grown by doubling
+        private volatile AtomicIntegerArray tree = new AtomicIntegerArray(1025);
+
+        /** Raises the user's score; scores in a window only grow, so older values are ignored. */
+        synchronized void raise(String userId, int xp) {
+            Integer old = scores.get(userId);
+            if (old != null && old >= xp) {
+                return;
+            }
+            ensureCapacity(xp);
+            if (old != null) {
+                ranking.remove(new Standing(userId, old));
+                add(tree, old, -1);
+            }
+            scores.put(userId, xp);
+            ranking.add(new Standing(userId, xp));
+            add(tree, xp, 1);
+        }
+
+        synchronized void remove(String userId) {
+            Integer old = scores.remove(userId);
+            if (old != null) {
+                ranking.remove(new Standing(userId, old));
+                add(tree, old, -1);
+            }
+        }
+
+        Integer score(String userId) {
+            return scores.get(userId);
+        }
+
+        List<Standing> top(int limit) {
+            List<Standing> top = new ArrayList<>(Math.min(limit, 100));
+            Iterator<Standing> it = ranking.iterator();
+            while (top.size() < limit && it.hasNext()) {
+                top.add(it.next());
+            }
+            return top;
+        }
+
+        /** Users with strictly more XP, and the number of users, read from one tree snapshot. */
+        int[] countAboveAndTotal(int xp) {
+            AtomicIntegerArray t = tree;
+            int total = prefix(t, t.length() - 2);
+            return new int[]{total - prefix(t, Math.min(xp, t.length() - 2)), total};
+        }
+
+        private void ensureCapacity(int xp) {
+            AtomicIntegerArray t = tree;
+            if (xp + 1 < t.length()) {
+                return;
+            }
+            int size = t.length() - 1;
+            while (xp + 1 > size) {
+                size *= 2;
+            }
+            AtomicIntegerArray grown = new AtomicIntegerArray(size + 1);
+            for (int value : scores.values()) {
+                add(grown, value, 1);
+            }
+            tree = grown;
+        }
+
+        private static void add(AtomicIntegerArray t, int xp, int delta) {
+            for (int i = xp + 1; i < t.length(); i += i & -i) {
+                t.addAndGet(i, delta);
+            }
+        }
+
+        // Number of users with XP <= xp
+        private static int prefix(AtomicIntegerArray t, int xp) {
+            int sum = 0;
+            for (int i = xp + 1; i > 0; i -= i & -i) {
+                sum += t.get(i);
+            }
+            return sum;
+        }
+    }
+
+    private static final class Boards {
+        final Board global = new Board();
+        final Map<String, Board> classes = new ConcurrentHashMap<>();
+        final Map<String, Board> weeks = new ConcurrentHashMap<>();
+
+        void apply(String userId, int xp, String classId, String weekKey, int weeklyXp) {
+            global.raise(userId, xp);
+            if (classId != null) {
+                classes.computeIfAbsent(classId, key -> new Board()).raise(userId, xp);
+            }
+            if (weekKey != null && weeklyXp > 0) {
+                weeks.computeIfAbsent(weekKey, key -> new Board()).raise(userId, weeklyXp);
+                // Only this week and last week are ever asked for
+                if (weeks.size() > 2) {
+                    weeks.keySet().stream().sorted(Comparator.reverseOrder()).skip(2).forEach(weeks::remove);
+                }
+            }
+        }
+
+        void changeClass(String userId, String previousClassId, String classId, int xp) {
+            if (previousClassId != null) {
+                Board previous = classes.get(previousClassId);
+                if (previous != null) {
+                    previous.remove(userId);
+                }
+            }
+            if (classId != null) {
+                classes.computeIfAbsent(classId, key -> new Board()).raise(userId, xp);
+            }
+        }
+    }
+
+    private volatile Boards boards = new Boards();
+    // While a rebuild runs, events are applied to the boards being built as well
+    private volatile Boards rebuilding;
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+
+    @EventListener
+    public void onLessonCompleted(LessonCompletedEvent event) {
+        apply(target -> target.apply(event.userId(), event.totalXp(), event.classId(), event.weekKey(), event.weeklyXp()));
+    }
+
+    @EventListener
+    public void onClassChanged(ClassChangedEvent event) {
+        apply(target -> target.changeClass(event.userId(), event.previousClassId(), event.classId(), event.totalXp()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            startRebuild();
+        }
+    }
+
+    /** Starts a rebuild from storage in the background; false if one is already running. */
+    public boolean startRebuild() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        ioExecutor.execute(() -> {
+            try {
+                int users = rebuild();
+                System.out.println("Rebuilt leaderboards from " + users + " users");
+            } catch (RuntimeException e) {
+                System.err.println("Leaderboard rebuild failed: " + e.getMessage());
+            } finally {
+                rebuildRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    /** Rebuilds every board from stored progress, then swaps the new boards in. */
+    int rebuild() {
+        Boards fresh = new Boards();
+        rebuilding = fresh;
+        String currentWeek = currentWeekKey();
+        int users = 0;
+        try (Stream<UserProgress> all = userProgressRepository.streamAll()) {
+            Iterator<UserProgress> it = all.iterator();
+            while (it.hasNext()) {
+                UserProgress progress = it.next();
+                int weeklyXp = currentWeek.equals(progress.getWeekKey()) ? progress.getWeeklyXp() : 0;
+                fresh.apply(progress.getUserId(), progress.getXp(), progress.getClassId(), progress.getWeekKey(), weeklyXp);
+                users++;
+            }
+            boards = fresh;
+        } finally {
+            rebuilding = null;
+        }
+        return users;
+    }
+
+    public List<LeaderboardEntry> getTop(String window, String key, int limit) {
+        Board board = board(window, key);
+        if (board == null) {
+            return List.of();
+        }
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (Standing standing : board.top(limit)) {
+            // Tied users share a rank
+            entries.add(new LeaderboardEntry(board.countAboveAndTotal(standing.xp())[0] + 1, standing.userId(), standing.xp()));
+        }
+        return entries;
+    }
+
+    /** The user's place in a window, or null if they are not on that board. */
+    public LeaderboardStanding getStanding(String window, String key, String userId) {
+        Board board = board(window, key);
+        Integer xp = board == null ? null : board.score(userId);
+        if (xp == null) {
+            return null;
+        }
+        int[] counts = board.countAboveAndTotal(xp);
+        int above = counts[0];
+        int total = counts[1];
+        // Share of the other users this user is level with or ahead of
+        double percentile = total <= 1 ? 100.0 : (total - 1 - above) * 100.0 / (total - 1);
+        return new LeaderboardStanding(window, above + 1, xp, percentile, total);
+    }
+
+    public static String currentWeekKey() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return String.format("%d-W%02d", today.get(IsoFields.WEEK_BASED_YEAR), today.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    private Board board(String window, String key) {
+        Boards current = boards;
+        switch (window) {
+            case GLOBAL:
+                return current.global;
+            case CLASS:
+                return key == null ? null : current.classes.get(key);
+            case WEEKLY:
+                return current.weeks.get(key == null ? currentWeekKey() : key);
+            default:
+                throw new IllegalArgumentException("Unknown leaderboard window: " + window);
+        }
+    }
+
+    private void apply(Consumer<Boards> update) {
+        // Read the rebuild target first: the swap publishes the new boards before clearing it,
+        // so an event can't miss both the old boards' replacement and the boards being built
+        Boards pending = rebuilding;
+        Boards current = boards;
+        update.accept(current);
+        if (pending != null && pending != current) {
+            update.accept(pending);
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.edustocks.service;
 
+import com.edustocks.event.PortfolioValuedEvent;
+import com.edustocks.event.TradeExecutedEvent;
 import com.edustocks.model.Holding;
 import com.edustocks.model.Portfolio;
 import com.edustocks.model.Stock;
 import com.edustocks.repository.PortfolioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
 public class PortfolioService {
 
@@ -16,6 +23,13 @@ public class PortfolioService {
     @Autowired
     private StockService stockService;
 
+    @Autowired
+    @Qualifier("ioExecutor")
+    private Executor ioExecutor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Portfolio getPortfolio(String userId) {
         Portfolio portfolio = portfolioRepository.findByUserId(userId);
         if (portfolio == null) {
@@ -25,11 +39,79 @@ public class PortfolioService {
         
         // Update current prices and recalculate values
         updatePortfolioValues(portfolio);
+        publishValuation(portfolio);
         return portfolio;
     }
 
+    public CompletableFuture<Portfolio> getPortfolioAsync(String userId) {
+        return portfolioRepository.findByUserIdAsync(userId)
+            .thenCompose(portfolio -> {
+                if (portfolio != null) {
+                    return CompletableFuture.completedFuture(portfolio);
+                }
+                Portfolio created = new Portfolio(userId);
+                return portfolioRepository.saveAsync(created).thenApply(saved -> created);
+            })
+            .thenApplyAsync(portfolio -> {
+                updatePortfolioValues(portfolio);
+                publishValuation(portfolio);
+                return portfolio;
+            }, ioExecutor);
+    }
+
     public void buyStock(String userId, String symbol, int quantity) {
         Portfolio portfolio = getPortfolio(userId);
+        double price = applyBuy(portfolio, symbol, quantity);
+        portfolioRepository.save(portfolio);
+        publishTrade(portfolio, symbol, "buy", quantity, price);
+    }
+
+    public CompletableFuture<Void> buyStockAsync(String userId, String symbol, int quantity) {
+        return getPortfolioAsync(userId)
+            .thenApplyAsync(portfolio -> {
+                double price = applyBuy(portfolio, symbol, quantity);
+                return new Trade(portfolio, price);
+            }, ioExecutor)
+            .thenCompose(trade -> portfolioRepository.saveAsync(trade.portfolio())
+                .thenRunAsync(() -> publishTrade(trade.portfolio(), symbol, "buy", quantity, trade.price()),
+                    ioExecutor));
+    }
+
+    public void sellStock(String userId, String symbol, int quantity) {
+        Portfolio portfolio = getPortfolio(userId);
+        double price = applySell(portfolio, symbol, quantity);
+        portfolioRepository.save(portfolio);
+        publishTrade(portfolio, symbol, "sell", quantity, price);
+    }
+
+    public CompletableFuture<Void> sellStockAsync(String userId, String symbol, int quantity) {
+        return getPortfolioAsync(userId)
+            .thenApplyAsync(portfolio -> {
+                double price = applySell(portfolio, symbol, quantity);
+                return new Trade(portfolio, price);
+            }, ioExecutor)
+            .thenCompose(trade -> portfolioRepository.saveAsync(trade.portfolio())
+                .thenRunAsync(() -> publishTrade(trade.portfolio(), symbol, "sell", quantity, trade.price()),
+                    ioExecutor));
+    }
+
+    private record Trade(Portfolio portfolio, double price) {
+    }
+
+    // Listeners may block on storage, so this is only called from request or executor threads
+    private void publishTrade(Portfolio portfolio, String symbol, String side, int quantity, double price) {
+        eventPublisher.publishEvent(new TradeExecutedEvent(portfolio.getUserId(), symbol, side, quantity, price));
+        publishValuation(portfolio);
+    }
+
+    private void publishValuation(Portfolio portfolio) {
+        double returnPercent = (portfolio.getTotalValue() / Portfolio.STARTING_BALANCE - 1) * 100;
+        eventPublisher.publishEvent(new PortfolioValuedEvent(portfolio.getUserId(), portfolio.getTotalValue(),
+            returnPercent, portfolio.getHoldings().size()));
+    }
+
+    /** Applies a buy at the current price and returns that price. */
+    private double applyBuy(Portfolio portfolio, String symbol, int quantity) {
         Stock stock = stockService.getStockBySymbol(symbol);
         
         if (stock == null) {
@@ -72,11 +154,11 @@ public class PortfolioService {
 
         portfolio.setBalance(portfolio.getBalance() - totalCost);
         updatePortfolioValues(portfolio);
-        portfolioRepository.save(portfolio);
+        return stock.getPrice();
     }
 
-    public void sellStock(String userId, String symbol, int quantity) {
-        Portfolio portfolio = getPortfolio(userId);
+    /** Applies a sell at the current price and returns that price. */
+    private double applySell(Portfolio portfolio, String symbol, int quantity) {
         Stock stock = stockService.getStockBySymbol(symbol);
         
         if (stock == null) {
@@ -104,7 +186,7 @@ public class PortfolioService {
         }
 
         updatePortfolioValues(portfolio);
-        portfolioRepository.save(portfolio);
+        return stock.getPrice();
     }
 
     private void updatePortfolioValues(Portfolio portfolio) {
@@ -1,73 +1,141 @@
 package com.edustocks.service;
 
+import com.edustocks.catalog.LessonOrdinals;
+import com.edustocks.event.ClassChangedEvent;
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.event.LevelReachedEvent;
 import com.edustocks.model.UserProgress;
 import com.edustocks.repository.UserProgressRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
 @Service
 public class ProgressService {
 
     @Autowired
     private UserProgressRepository userProgressRepository;
 
+    @Autowired
+    private LessonOrdinals lessonOrdinals;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Read-modify-write of one user's progress happens under that user's lock; users hash onto a
+    // fixed set of locks so memory stays flat while unrelated users almost never contend
+    private static final int LOCK_STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ProgressService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
     public UserProgress getUserProgress(String userId) {
         UserProgress progress = userProgressRepository.findByUserId(userId);
-        if (progress == null) {
-            progress = new UserProgress(userId);
-            userProgressRepository.save(progress);
+        if (progress != null && progress.getCompletedLessons() == null) {
+            return progress;
+        }
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            return loadForUpdate(userId);
+        } finally {
+            lock.unlock();
         }
-        return progress;
     }
 
     public void completeLesson(String userId, String lessonId, double score) {
-        UserProgress progress = getUserProgress(userId);
-        
-        if (!progress.getCompletedLessons().contains(lessonId)) {
-            progress.getCompletedLessons().add(lessonId);
-            
-            // Award XP based on score
+        LessonCompletedEvent event;
+        LevelReachedEvent levelEvent = null;
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            int ordinal = lessonOrdinals.register(lessonId);
+            UserProgress cached = userProgressRepository.findByUserId(userId);
+            if (cached != null && cached.getCompletedLessons() != null) {
+                migrateCompletedLessons(cached);
+            }
+            // The cached copy may be stale, so this only spares the write for repeats already seen
+            if (cached != null && cached.hasCompletedLesson(ordinal)) {
+                return;
+            }
+
+            // Award XP based on score; level and rank follow from the total
             int xpEarned = (int) (score / 10); // 10 XP per 1% score
-            progress.setXp(progress.getXp() + xpEarned);
-            
-            // Update level based on XP
-            updateLevel(progress);
-            
-            // Update rank
-            updateRank(progress);
-            
-            userProgressRepository.save(progress);
+            UserProgress progress = userProgressRepository.recordCompletion(userId, ordinal, xpEarned,
+                LeaderboardService.currentWeekKey());
+            if (progress == null) {
+                return; // another instance recorded it first
+            }
+
+            event = new LessonCompletedEvent(userId, lessonId, score, xpEarned, progress.getXp(),
+                progress.getClassId(), progress.getWeekKey(), progress.getWeeklyXp());
+            if (!progress.getLevel().equals(UserProgress.levelFor(progress.getXp() - xpEarned))) {
+                levelEvent = new LevelReachedEvent(userId, progress.getLevel(), progress.getCreatedAt(),
+                    System.currentTimeMillis() / 1000);
+            }
+        } finally {
+            lock.unlock();
+        }
+        eventPublisher.publishEvent(event);
+        if (levelEvent != null) {
+            eventPublisher.publishEvent(levelEvent);
         }
     }
 
-    private void updateLevel(UserProgress progress) {
-        int xp = progress.getXp();
-        if (xp >= 5000) {
-            progress.setLevel("advanced");
-        } else if (xp >= 2000) {
-            progress.setLevel("intermediate");
-        } else {
-            progress.setLevel("beginner");
+    /** Puts the user in a class for class leaderboards (null or blank leaves the current class). */
+    public UserProgress joinClass(String userId, String classId) {
+        String next = classId == null || classId.isBlank() ? null : classId.trim();
+        ClassChangedEvent event;
+        UserProgress progress;
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            progress = loadForUpdate(userId);
+            String previous = progress.getClassId();
+            if (Objects.equals(previous, next)) {
+                return progress;
+            }
+            progress.setClassId(next);
+            userProgressRepository.saveClassId(progress);
+            event = new ClassChangedEvent(userId, previous, next, progress.getXp());
+        } finally {
+            lock.unlock();
         }
+        eventPublisher.publishEvent(event);
+        return progress;
     }
 
-    private void updateRank(UserProgress progress) {
-        int xp = progress.getXp();
-        if (xp >= 5000) {
-            progress.setRank("Master");
-        } else if (xp >= 2500) {
-            progress.setRank("Expert");
-        } else if (xp >= 1000) {
-            progress.setRank("Advanced");
-        } else if (xp >= 500) {
-            progress.setRank("Intermediate");
-        } else if (xp >= 100) {
-            progress.setRank("Beginner");
-        } else {
-            progress.setRank("Novice");
+    // Caller holds the user's lock, so creating or migrating the document can't race a completion
+    private UserProgress loadForUpdate(String userId) {
+        UserProgress progress = userProgressRepository.findByUserId(userId);
+        if (progress == null) {
+            progress = new UserProgress(userId);
+            userProgressRepository.save(progress);
+        } else if (progress.getCompletedLessons() != null) {
+            migrateCompletedLessons(progress);
         }
+        return progress;
     }
-}
-
 
+    private ReentrantLock lockFor(String userId) {
+        int hash = userId.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
 
+    // Progress saved before completions became a bitset lists lesson ids; convert it once
+    private void migrateCompletedLessons(UserProgress progress) {
+        for (String lessonId : progress.getCompletedLessons()) {
+            progress.markLessonCompleted(lessonOrdinals.register(lessonId));
+        }
+        progress.setCompletedLessons(null);
+        userProgressRepository.save(progress);
+    }
+}
@@ -0,0 +1,165 @@
+package com.edustocks.service;
+
+import com.edustocks.model.Holding;
+import com.edustocks.model.Portfolio;
+import com.edustocks.model.RebalanceOrder;
+import com.edustocks.model.RebalancePlan;
+import com.edustocks.model.Stock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+@Service
+public class RebalanceService {
+
+    private static final double WEIGHT_TOLERANCE = 1e-9;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private StockService stockService;
+
+    /**
+     * Preview the orders that move the user's holdings to the target weights.
+     * Symbols held but missing from the targets are treated as weight 0.
+     */
+    public RebalancePlan planRebalance(String userId, Map<String, Double> targetWeights) {
+        Portfolio portfolio = portfolioService.getPortfolio(userId);
+
+        // getPortfolio has just refreshed holding prices, so only new symbols need a lookup
+        Map<String, Double> prices = new HashMap<>();
+        for (Holding holding : portfolio.getHoldings()) {
+            prices.put(holding.getSymbol(), holding.getCurrentPrice());
+        }
+        for (String symbol : targetWeights.keySet()) {
+            String upperSymbol = symbol.toUpperCase();
+            if (!prices.containsKey(upperSymbol)) {
+                Stock stock = stockService.getStockBySymbol(upperSymbol);
+                if (stock == null) {
+                    throw new RuntimeException("Stock not found: " + upperSymbol);
+                }
+                prices.put(upperSymbol, stock.getPrice());
+            }
+        }
+        return computePlan(portfolio, targetWeights, prices);
+    }
+
+    /**
+     * Whole-share allocation: every symbol first gets floor(weight * value / price) shares, which
+     * always fits in cash, then leftover cash buys single shares wherever that moves a position
+     * closer to its target. Each symbol ends up with at most one order, and never both a buy and a sell.
+     */
+    RebalancePlan computePlan(Portfolio portfolio, Map<String, Double> targetWeights, Map<String, Double> prices) {
+        Map<String, Double> weights = normalizeWeights(targetWeights);
+
+        Map<String, Integer> current = new LinkedHashMap<>();
+        for (Holding holding : portfolio.getHoldings()) {
+            current.merge(holding.getSymbol(), holding.getQuantity(), Integer::sum);
+        }
+
+        double totalValue = portfolio.getBalance();
+        for (Map.Entry<String, Integer> entry : current.entrySet()) {
+            totalValue += entry.getValue() * prices.get(entry.getKey());
+        }
+
+        List<String> symbols = new ArrayList<>(current.keySet());
+        for (String symbol : weights.keySet()) {
+            if (!current.containsKey(symbol)) {
+                symbols.add(symbol);
+            }
+        }
+
+        int n = symbols.size();
+        int[] targetShares = new int[n];
+        double[] symbolPrices = new double[n];
+        double[] targetValues = new double[n];
+        double allocated = 0;
+        for (int i = 0; i < n; i++) {
+            String symbol = symbols.get(i);
+            double price = prices.get(symbol);
+            if (price <= 0) {
+                throw new RuntimeException("No valid price for " + symbol);
+            }
+            symbolPrices[i] = price;
+            targetValues[i] = weights.getOrDefault(symbol, 0.0) * totalValue;
+            targetShares[i] = (int) Math.floor(targetValues[i] / price);
+            allocated += targetShares[i] * price;
+        }
+
+        // Spend leftover cash one share at a time where it reduces the distance to target the most
+        double cash = totalValue - allocated;
+        PriorityQueue<Integer> candidates = new PriorityQueue<>(Math.max(1, n), (a, b) -> Double.compare(
+            improvement(b, targetValues, targetShares, symbolPrices),
+            improvement(a, targetValues, targetShares, symbolPrices)));
+        for (int i = 0; i < n; i++) {
+            if (targetValues[i] > 0) {
+                candidates.add(i);
+            }
+        }
+        while (!candidates.isEmpty()) {
+            int i = candidates.poll();
+            if (improvement(i, targetValues, targetShares, symbolPrices) <= 0) {
+                break;
+            }
+            if (symbolPrices[i] <= cash + WEIGHT_TOLERANCE) {
+                targetShares[i]++;
+                cash -= symbolPrices[i];
+                candidates.add(i);
+            }
+        }
+
+        List<RebalanceOrder> sells = new ArrayList<>();
+        List<RebalanceOrder> buys = new ArrayList<>();
+        Map<String, Double> resultingWeights = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            String symbol = symbols.get(i);
+            int delta = targetShares[i] - current.getOrDefault(symbol, 0);
+            double price = symbolPrices[i];
+            if (delta < 0) {
+                sells.add(new RebalanceOrder(symbol, "SELL", -delta, price, -delta * price));
+            } else if (delta > 0) {
+                buys.add(new RebalanceOrder(symbol, "BUY", delta, price, delta * price));
+            }
+            if (targetShares[i] > 0) {
+                resultingWeights.put(symbol, totalValue > 0 ? targetShares[i] * price / totalValue : 0);
+            }
+        }
+
+        List<RebalanceOrder> orders = new ArrayList<>(sells);
+        orders.addAll(buys);
+        return new RebalancePlan(orders, totalValue, portfolio.getBalance(), cash, resultingWeights);
+    }
+
+    // How much closer one more share of i gets its value to target (negative if it overshoots further)
+    private static double improvement(int i, double[] targetValues, int[] targetShares, double[] prices) {
+        double gap = targetValues[i] - targetShares[i] * prices[i];
+        return gap - Math.abs(gap - prices[i]);
+    }
+
+    private static Map<String, Double> normalizeWeights(Map<String, Double> targetWeights) {
+        if (targetWeights == null || targetWeights.isEmpty()) {
+            throw new IllegalArgumentException("Target weights are required");
+        }
+        Map<String, Double> weights = new HashMap<>();
+        double sum = 0;
+        for (Map.Entry<String, Double> entry : targetWeights.entrySet()) {
+            Double weight = entry.getValue();
+            if (weight == null || weight.isNaN() || weight < 0 || weight > 1) {
+                throw new IllegalArgumentException("Weight for " + entry.getKey() + " must be between 0 and 1");
+            }
+            weights.merge(entry.getKey().toUpperCase(), weight, Double::sum);
+            sum += weight;
+        }
+        if (sum > 1 + WEIGHT_TOLERANCE) {
+            throw new IllegalArgumentException("Target weights must not add up to more than 1");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,227 @@
+package com.edustocks.service;
+
+import com.edustocks.model.ReviewDeck;
+import com.edustocks.repository.ReviewDeckRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Spaced-repetition scheduling for quiz questions using the SM-2 algorithm: every answered
+ * question becomes a card with its own ease factor and interval, and comes back for review
+ * when its interval has elapsed.
+ *
+ * <p>Each user's deck keeps a min-heap of due times, so finding what is due now reads only
+ * the cards that are actually due. Superseded heap entries are skipped lazily rather than
+ * searched for and removed. Decks are cached per instance for reads; every change is made to
+ * the stored deck in one storage transaction, so reviews recorded by other instances are never
+ * overwritten, and the cached deck is rebuilt from what was stored.
+ */
+@Service
+public class ReviewService {
+
+    static final int QUALITY_CORRECT = 4;
+    static final int QUALITY_INCORRECT = 1;
+
+    private static final int DEFAULT_EASE = 250;
+    private static final int MIN_EASE = 130;
+    private static final long DAY_SECONDS = 24 * 60 * 60;
+
+    @Autowired
+    private ReviewDeckRepository reviewDeckRepository;
+
+    @Value("${reviews.cache.max-users:10000}")
+    private int maxCachedDecks = 10000;
+
+    @Value("${reviews.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds = 300;
+
+    /** Scheduling state of one question for one user. */
+    public record Card(String lessonId, String questionId, int ease, int intervalDays, int repetitions, long dueAt) {
+
+        String key() {
+            return lessonId + "|" + questionId;
+        }
+
+        String encode() {
+            return lessonId + "|" + questionId + "|" + ease + "|" + intervalDays + "|" + repetitions + "|" + dueAt;
+        }
+
+        static Card decode(String packed) {
+            String[] parts = packed.split("\\|");
+            if (parts.length != 6) {
+                throw new IllegalArgumentException("Malformed review card: " + packed);
+            }
+            return new Card(parts[0], parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                Integer.parseInt(parts[4]), Long.parseLong(parts[5]));
+        }
+    }
+
+    private record DueEntry(long dueAt, String key) {
+    }
+
+    private static final class Deck {
+        final Map<String, Card> cards = new HashMap<>();
+        // Ties broken by key, so a deck rebuilt from storage lists cards in the same order
+        final PriorityQueue<DueEntry> due = new PriorityQueue<>(
+            Comparator.comparingLong(DueEntry::dueAt).thenComparing(DueEntry::key));
+
+        void put(Card card) {
+            cards.put(card.key(), card);
+            due.add(new DueEntry(card.dueAt(), card.key()));
+        }
+
+        boolean isCurrent(DueEntry entry) {
+            Card card = cards.get(entry.key());
+            return card != null && card.dueAt() == entry.dueAt();
+        }
+    }
+
+    private final UserStateCache<Deck> decks = new UserStateCache<>(
+        () -> maxCachedDecks, () -> cacheTtlSeconds * 1000, this::load);
+
+    /**
+     * Cards due for review now, earliest first. Cards whose question no longer {@code exists}
+     * (removed or renamed by a catalog reload) are dropped from the deck rather than returned.
+     */
+    public List<Card> getDueCards(String userId, int limit, Predicate<Card> exists) {
+        return getDueCards(userId, limit, exists, System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * Schedules the next review of a question. Quality follows SM-2: 0 (blackout) to 5 (perfect);
+     * anything below 3 counts as a lapse and starts the card over.
+     */
+    public Card recordReview(String userId, String lessonId, String questionId, int quality) {
+        return recordReviews(userId, lessonId, List.of(questionId), new int[]{quality}).get(0);
+    }
+
+    /** Schedules several questions of one lesson at once, saving the deck once. */
+    public List<Card> recordReviews(String userId, String lessonId, List<String> questionIds, int[] qualities) {
+        return recordReviews(userId, lessonId, questionIds, qualities, System.currentTimeMillis() / 1000);
+    }
+
+    List<Card> getDueCards(String userId, int limit, Predicate<Card> exists, long now) {
+        return decks.withState(userId, deck -> {
+            List<Card> dueCards = new ArrayList<>();
+            List<DueEntry> visited = new ArrayList<>();
+            Set<String> dropped = new HashSet<>();
+            while (dueCards.size() < limit && !deck.due.isEmpty() && deck.due.peek().dueAt() <= now) {
+                DueEntry entry = deck.due.poll();
+                if (!deck.isCurrent(entry)) {
+                    continue;
+                }
+                Card card = deck.cards.get(entry.key());
+                if (exists.test(card)) {
+                    dueCards.add(card);
+                    visited.add(entry);
+                } else {
+                    dropped.add(entry.key());
+                }
+            }
+            // Due cards stay due until they are reviewed
+            deck.due.addAll(visited);
+            if (!dropped.isEmpty()) {
+                change(userId, current -> {
+                    dropped.forEach(current.cards::remove);
+                    return null;
+                });
+            }
+            return dueCards;
+        });
+    }
+
+    List<Card> recordReviews(String userId, String lessonId, List<String> questionIds, int[] qualities, long now) {
+        return decks.withState(userId, cached -> change(userId, deck -> {
+            List<Card> updated = new ArrayList<>(questionIds.size());
+            for (int i = 0; i < questionIds.size(); i++) {
+                Card previous = deck.cards.get(lessonId + "|" + questionIds.get(i));
+                Card next = schedule(previous, lessonId, questionIds.get(i), qualities[i], now);
+                deck.put(next);
+                updated.add(next);
+            }
+            return updated;
+        }));
+    }
+
+    static Card schedule(Card previous, String lessonId, String questionId, int quality, long now) {
+        if (quality < 0 || quality > 5) {
+            throw new IllegalArgumentException("Review quality must be between 0 and 5");
+        }
+        int ease = previous == null ? DEFAULT_EASE : previous.ease();
+        int repetitions = previous == null ? 0 : previous.repetitions();
+        int interval = previous == null ? 0 : previous.intervalDays();
+
+        if (quality < 3) {
+            repetitions = 0;
+            interval = 1;
+        } else {
+            if (repetitions == 0) {
+                interval = 1;
+            } else if (repetitions == 1) {
+                interval = 6;
+            } else {
+                interval = (int) Math.round(interval * ease / 100.0);
+            }
+            repetitions++;
+        }
+        // EF' = EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02)), kept in hundredths
+        int miss = 5 - quality;
+        ease = Math.max(MIN_EASE, ease + 10 - miss * (8 + miss * 2));
+
+        return new Card(lessonId, questionId, ease, interval, repetitions, now + interval * DAY_SECONDS);
+    }
+
+    /**
+     * Applies {@code action} to the stored deck in one storage transaction, which may run it
+     * more than once, and caches the deck as stored. Call from within {@code decks.withState}.
+     */
+    private <R> R change(String userId, Function<Deck, R> action) {
+        List<R> result = new ArrayList<>(1);
+        ReviewDeck stored = reviewDeckRepository.update(userId, current -> {
+            Deck deck = decode(userId, current);
+            result.clear();
+            result.add(action.apply(deck));
+            return encode(userId, deck);
+        });
+        decks.replace(userId, decode(userId, stored));
+        return result.get(0);
+    }
+
+    private Deck load(String userId) {
+        return decode(userId, reviewDeckRepository.findByUserId(userId));
+    }
+
+    private static Deck decode(String userId, ReviewDeck stored) {
+        Deck deck = new Deck();
+        if (stored != null && stored.getCards() != null) {
+            for (String packed : stored.getCards()) {
+                try {
+                    deck.put(Card.decode(packed));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping review card for " + userId + ": " + e.getMessage());
+                }
+            }
+        }
+        return deck;
+    }
+
+    private static ReviewDeck encode(String userId, Deck deck) {
+        List<String> packed = new ArrayList<>(deck.cards.size());
+        for (Card card : deck.cards.values()) {
+            packed.add(card.encode());
+        }
+        return new ReviewDeck(userId, packed);
+    }
+}
@@ -7,6 +7,8 @@ import com.edustocks.model.Portfolio;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserService {
 
@@ -17,21 +19,22 @@ public class UserService {
     private PortfolioRepository portfolioRepository;
 
     public void initializeUser(String userId, String email) {
+        initializeUserAsync(userId, email).join();
+    }
+
+    public CompletableFuture<Void> initializeUserAsync(String userId, String email) {
         // Initialize user progress if doesn't exist
-        UserProgress progress = userProgressRepository.findByUserId(userId);
-        if (progress == null) {
-            progress = new UserProgress(userId);
-            userProgressRepository.save(progress);
-        }
-
-        // Initialize portfolio if doesn't exist
-        Portfolio portfolio = portfolioRepository.findByUserId(userId);
-        if (portfolio == null) {
-            portfolio = new Portfolio(userId);
-            portfolioRepository.save(portfolio);
-        }
+        CompletableFuture<Void> progressReady = userProgressRepository.findByUserIdAsync(userId)
+            .thenCompose(progress -> progress != null
+                ? CompletableFuture.completedFuture(null)
+                : userProgressRepository.saveAsync(new UserProgress(userId)));
+
+        // Initialize portfolio if doesn't exist (looked up concurrently with progress)
+        CompletableFuture<Void> portfolioReady = portfolioRepository.findByUserIdAsync(userId)
+            .thenCompose(portfolio -> portfolio != null
+                ? CompletableFuture.completedFuture(null)
+                : portfolioRepository.saveAsync(new Portfolio(userId)));
+
+        return CompletableFuture.allOf(progressReady, portfolioReady);
     }
 }
-
-
-
@@ -0,0 +1,103 @@
+package com.edustocks.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user mutable state kept in memory for recently active users, least recently used evicted
+ * first, on top of a persisted copy. Every access runs under the user's lock, from loading the
+ * state through the caller's change and save, so an eviction can never let a second request
+ * load a stale copy while the first is still changing it: the second waits, then reloads what
+ * the first saved.
+ *
+ * <p>The lock only covers this instance. Other instances may change the persisted copy, so
+ * entries are reloaded once older than the time-to-live, and callers that write should do so
+ * with a storage transaction and {@link #replace} the entry with what was stored.
+ */
+final class UserStateCache<S> {
+
+    // Users hash onto a fixed set of locks, as in ProgressService
+    private static final int LOCK_STRIPES = 256;
+
+    private record Entry<S>(S state, long loadedAt) {
+    }
+
+    private final IntSupplier maxUsers;
+    private final LongSupplier ttlMillis;
+    private final LongSupplier clock;
+    private final Function<String, S> loader;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Map<String, Entry<S>> states = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry<S>> eldest) {
+            return size() > maxUsers.getAsInt();
+        }
+    };
+
+    /** {@code loader} reads a user's persisted state, returning a fresh one for new users. */
+    UserStateCache(IntSupplier maxUsers, LongSupplier ttlMillis, Function<String, S> loader) {
+        this(maxUsers, ttlMillis, loader, System::currentTimeMillis);
+    }
+
+    UserStateCache(IntSupplier maxUsers, LongSupplier ttlMillis, Function<String, S> loader, LongSupplier clock) {
+        this.maxUsers = maxUsers;
+        this.ttlMillis = ttlMillis;
+        this.loader = loader;
+        this.clock = clock;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs {@code action} on the user's state under the user's lock. If it throws, the cached
+     * state is dropped so the next access reloads what was actually stored.
+     */
+    <R> R withState(String userId, Function<S, R> action) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            Entry<S> entry;
+            synchronized (states) {
+                entry = states.get(userId);
+            }
+            S state;
+            if (entry != null && clock.getAsLong() - entry.loadedAt() < ttlMillis.getAsLong()) {
+                state = entry.state();
+            } else {
+                state = loader.apply(userId);
+                replace(userId, state);
+            }
+            try {
+                return action.apply(state);
+            } catch (RuntimeException e) {
+                synchronized (states) {
+                    states.remove(userId);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches {@code state} as the user's current state, typically what a storage transaction
+     * just stored. Only call this from within {@link #withState} for the same user.
+     */
+    void replace(String userId, S state) {
+        Entry<S> entry = new Entry<>(state, clock.getAsLong());
+        synchronized (states) {
+            states.put(userId, entry);
+        }
+    }
+
+    private ReentrantLock lockFor(String userId) {
+        int hash = userId.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+}
@@ -0,0 +1,76 @@
+package com.edustocks.storage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Storage SPI behind the repositories. Documents are plain model objects addressed by
+ * collection and id; the engine is picked with {@code storage.engine}.
+ */
+public interface DocumentStore {
+
+    /** Returns the document, or null if it does not exist. */
+    <T> T get(String collection, String id, Class<T> type);
+
+    /** Creates or fully replaces the document. Durable once this returns. */
+    void put(String collection, String id, Object document);
+
+    /**
+     * Sets {@code fields} and adds {@code increments} to numeric fields in one atomic write,
+     * creating the document if needed and leaving every other field as it is. Increments are
+     * applied by the engine, so concurrent writers never lose each other's additions.
+     */
+    void update(String collection, String id, Map<String, Object> fields, Map<String, Long> increments);
+
+    /**
+     * Reads the document, passes it to {@code change} (null if it does not exist) and stores what
+     * {@code change} returns, as one atomic step: if another writer gets in first the engine
+     * either serializes the two or retries with the new document, so {@code change} may run more
+     * than once and must not have side effects. Returning null leaves the document as it is; an
+     * exception thrown by {@code change} aborts the write and propagates.
+     *
+     * @return the document as stored afterwards, or null if there is none
+     */
+    <T> T transact(String collection, String id, Class<T> type, UnaryOperator<T> change);
+
+    void delete(String collection, String id);
+
+    <T> List<T> findAll(String collection, Class<T> type);
+
+    /** Fetches up to {@code limit} documents whose ids sort after {@code afterId} (null for the first page). */
+    <T> CompletableFuture<Page<T>> findPage(String collection, Class<T> type, String afterId, int limit);
+
+    /**
+     * Streams the whole collection in id order, page by page, keeping at most
+     * {@code prefetchPages} pages in flight ahead of the consumer. Close the stream
+     * (or use try-with-resources) when stopping early.
+     */
+    default <T> Stream<T> scan(String collection, Class<T> type, int pageSize, int prefetchPages) {
+        return PagedScan.stream((afterId, limit) -> findPage(collection, type, afterId, limit), pageSize, prefetchPages);
+    }
+
+    /**
+     * Non-blocking variant of {@link #get}. Engines backed by network I/O override this; the
+     * default just runs the blocking call on the caller's thread.
+     */
+    default <T> CompletableFuture<T> getAsync(String collection, String id, Class<T> type) {
+        try {
+            return CompletableFuture.completedFuture(get(collection, id, type));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Non-blocking variant of {@link #put}; completes once the write is durable. */
+    default CompletableFuture<Void> putAsync(String collection, String id, Object document) {
+        try {
+            put(collection, id, document);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.edustocks.storage;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.UnaryOperator;
+
+@Component
+@ConditionalOnProperty(name = "storage.engine", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreDocumentStore implements DocumentStore {
+
+    @Autowired
+    private Firestore firestore;
+
+    @Override
+    public <T> T get(String collection, String id, Class<T> type) {
+        DocumentSnapshot document = await(firestore.collection(collection).document(id).get(),
+            "Failed to fetch " + collection + "/" + id);
+        return document.exists() ? document.toObject(type) : null;
+    }
+
+    @Override
+    public void put(String collection, String id, Object document) {
+        await(firestore.collection(collection).document(id).set(document),
+            "Failed to save " + collection + "/" + id);
+    }
+
+    @Override
+    public void update(String collection, String id, Map<String, Object> fields, Map<String, Long> increments) {
+        Map<String, Object> changes = new HashMap<>(fields);
+        increments.forEach((field, delta) -> changes.put(field, FieldValue.increment(delta)));
+        await(firestore.collection(collection).document(id).set(changes, SetOptions.merge()),
+            "Failed to update " + collection + "/" + id);
+    }
+
+    // Firestore retries the transaction when the document changes under it
+    @Override
+    public <T> T transact(String collection, String id, Class<T> type, UnaryOperator<T> change) {
+        DocumentReference reference = firestore.collection(collection).document(id);
+        return await(firestore.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(reference).get();
+            T current = snapshot.exists() ? snapshot.toObject(type) : null;
+            T next = change.apply(current);
+            if (next == null) {
+                return current;
+            }
+            transaction.set(reference, next);
+            return next;
+        }), "Failed to update " + collection + "/" + id);
+    }
+
+    @Override
+    public void delete(String collection, String id) {
+        await(firestore.collection(collection).document(id).delete(),
+            "Failed to delete " + collection + "/" + id);
+    }
+
+    @Override
+    public <T> List<T> findAll(String collection, Class<T> type) {
+        List<QueryDocumentSnapshot> documents = await(firestore.collection(collection).get(),
+            "Failed to fetch all of " + collection).getDocuments();
+        List<T> results = new ArrayList<>();
+        for (DocumentSnapshot document : documents) {
+            results.add(document.toObject(type));
+        }
+        return results;
+    }
+
+    @Override
+    public <T> CompletableFuture<Page<T>> findPage(String collection, Class<T> type, String afterId, int limit) {
+        Query query = firestore.collection(collection).orderBy(FieldPath.documentId()).limit(limit);
+        if (afterId != null) {
+            query = query.startAfter(afterId);
+        }
+        return toCompletable(query.get(), "Failed to fetch a page of " + collection)
+            .thenApply(snapshot -> {
+                List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+                List<T> items = new ArrayList<>(documents.size());
+                for (DocumentSnapshot document : documents) {
+                    items.add(document.toObject(type));
+                }
+                String lastId = documents.isEmpty() ? afterId : documents.get(documents.size() - 1).getId();
+                return new Page<>(items, lastId, documents.size() < limit);
+            });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String collection, String id, Class<T> type) {
+        return toCompletable(firestore.collection(collection).document(id).get(),
+                "Failed to fetch " + collection + "/" + id)
+            .thenApply(document -> document.exists() ? document.toObject(type) : null);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(String collection, String id, Object document) {
+        return toCompletable(firestore.collection(collection).document(id).set(document),
+                "Failed to save " + collection + "/" + id)
+            .thenApply(result -> null);
+    }
+
+    // Completes on the gRPC callback thread, so callers must not block in direct continuations
+    private static <V> CompletableFuture<V> toCompletable(ApiFuture<V> future, String errorMessage) {
+        CompletableFuture<V> completable = new CompletableFuture<>();
+        ApiFutures.addCallback(future, new ApiFutureCallback<V>() {
+            @Override
+            public void onSuccess(V result) {
+                completable.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                completable.completeExceptionally(new RuntimeException(errorMessage, t));
+            }
+        }, MoreExecutors.directExecutor());
+        return completable;
+    }
+
+    private static <V> V await(ApiFuture<V> future, String errorMessage) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(errorMessage, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.edustocks.storage;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded key-value engine for single-node deployments and offline load tests.
+ *
+ * <p>Each collection is an append-only log of JSON documents with an in-memory, id-ordered index
+ * of where the latest version of every id lives; the ordering also serves cursor-based page
+ * scans. Writes append one checksummed record (and fsync it when
+ * {@code storage.local.sync-writes} is on); point reads are an index lookup plus one positional
+ * read. When more than half of a log is superseded records it is compacted into a fresh file.
+ * A torn record at the end of a log, left by a crash mid-write, is truncated on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.engine", havingValue = "local")
+public class LocalDocumentStore implements DocumentStore {
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    // record = length(4) | op(1) | idLength(4) | id | value | crc(4); length covers op..value
+    private static final int LENGTH_BYTES = 4;
+    private static final int CRC_BYTES = 4;
+    private static final long MIN_COMPACTION_BYTES = 1 << 20;
+    private static final Pattern COLLECTION_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    @Value("${storage.local.dir:data}")
+    private String dataDir;
+
+    @Value("${storage.local.sync-writes:true}")
+    private boolean syncWrites;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Map<String, CollectionLog> collections = new ConcurrentHashMap<>();
+
+    private final ExecutorService writeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LocalDocumentStore() {
+    }
+
+    public LocalDocumentStore(Path dataDir, boolean syncWrites) {
+        this.dataDir = dataDir.toString();
+        this.syncWrites = syncWrites;
+    }
+
+    @Override
+    public <T> T get(String collection, String id, Class<T> type) {
+        byte[] value = collection(collection).read(id);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, type);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode " + collection + "/" + id, e);
+        }
+    }
+
+    @Override
+    public void put(String collection, String id, Object document) {
+        byte[] value;
+        try {
+            value = objectMapper.writeValueAsBytes(document);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode " + collection + "/" + id, e);
+        }
+        collection(collection).append(OP_PUT, id, value);
+    }
+
+    // Reads are served from the page cache and stay on the caller's thread (the default);
+    // writes may wait for an fsync, so they are handed off to a virtual thread
+    @Override
+    public CompletableFuture<Void> putAsync(String collection, String id, Object document) {
+        return CompletableFuture.runAsync(() -> put(collection, id, document), writeExecutor);
+    }
+
+    @Override
+    public void update(String collection, String id, Map<String, Object> fields, Map<String, Long> increments) {
+        collection(collection).update(id, current -> {
+            try {
+                ObjectNode document = current == null
+                    ? objectMapper.createObjectNode()
+                    : (ObjectNode) objectMapper.readTree(current);
+                fields.forEach((field, value) -> document.set(field, objectMapper.valueToTree(value)));
+                increments.forEach((field, delta) -> document.put(field, document.path(field).asLong() + delta));
+                return objectMapper.writeValueAsBytes(document);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to update " + collection + "/" + id, e);
+            }
+        });
+    }
+
+    @Override
+    public <T> T transact(String collection, String id, Class<T> type, UnaryOperator<T> change) {
+        List<T> stored = new ArrayList<>(1);
+        collection(collection).update(id, current -> {
+            try {
+                T document = current == null ? null : objectMapper.readValue(current, type);
+                T next = change.apply(document);
+                stored.add(next == null ? document : next);
+                return next == null ? null : objectMapper.writeValueAsBytes(next);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to update " + collection + "/" + id, e);
+            }
+        });
+        return stored.get(0);
+    }
+
+    @Override
+    public void delete(String collection, String id) {
+        collection(collection).append(OP_DELETE, id, new byte[0]);
+    }
+
+    @Override
+    public <T> List<T> findAll(String collection, Class<T> type) {
+        CollectionLog log = collection(collection);
+        List<T> results = new ArrayList<>();
+        for (String id : log.ids()) {
+            T document = get(collection, id, type);
+            if (document != null) {
+                results.add(document);
+            }
+        }
+        return results;
+    }
+
+    /** Number of documents in the collection; walks the index, so not for hot paths. */
+    public int count(String collection) {
+        return collection(collection).ids().size();
+    }
+
+    @Override
+    public <T> CompletableFuture<Page<T>> findPage(String collection, Class<T> type, String afterId, int limit) {
+        try {
+            List<String> ids = collection(collection).idsAfter(afterId, limit);
+            List<T> items = new ArrayList<>(ids.size());
+            String lastId = afterId;
+            for (String id : ids) {
+                T document = get(collection, id, type);
+                if (document != null) {
+                    items.add(document);
+                }
+                lastId = id;
+            }
+            return CompletableFuture.completedFuture(new Page<>(items, lastId, ids.size() < limit));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        writeExecutor.close();
+        for (CollectionLog log : collections.values()) {
+            log.close();
+        }
+        collections.clear();
+    }
+
+    private CollectionLog collection(String name) {
+        if (!COLLECTION_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid collection name: " + name);
+        }
+        return collections.computeIfAbsent(name, n -> new CollectionLog(Paths.get(dataDir, n + ".log")));
+    }
+
+    private record Location(long offset, int length, int recordSize) {
+    }
+
+    // The open log file and the index into it; replaced as a unit when the log is compacted
+    private record Segment(FileChannel channel, NavigableMap<String, Location> index) {
+    }
+
+    private final class CollectionLog {
+        private final Path path;
+        private volatile Segment segment;
+        private long end;       // guarded by this
+        private long liveBytes; // guarded by this
+        private boolean closed; // guarded by this
+
+        CollectionLog(Path path) {
+            this.path = path;
+            try {
+                Files.createDirectories(path.getParent());
+                boolean created = !Files.exists(path);
+                NavigableMap<String, Location> index = new ConcurrentSkipListMap<>();
+                end = replay(index);
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+                if (created) {
+                    syncDirectory();
+                }
+                if (channel.size() > end) {
+                    System.err.println("Truncating torn record at end of " + path);
+                    channel.truncate(end);
+                    channel.force(true);
+                }
+                segment = new Segment(channel, index);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to open storage file " + path, e);
+            }
+        }
+
+        // Rebuilds the index from the log and returns the offset just past the last intact record
+        private long replay(Map<String, Location> index) throws IOException {
+            if (!Files.exists(path)) {
+                return 0;
+            }
+            long fileSize = Files.size(path);
+            long position = 0;
+            try (InputStream file = Files.newInputStream(path);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+                while (true) {
+                    int length;
+                    try {
+                        length = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (length < 5 || position + LENGTH_BYTES + length + CRC_BYTES > fileSize) {
+                        break;
+                    }
+                    byte[] body = new byte[length];
+                    int crc;
+                    try {
+                        in.readFully(body);
+                        crc = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (crc != checksum(body)) {
+                        break;
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(body);
+                    byte op = buffer.get();
+                    int idLength = buffer.getInt();
+                    String id = new String(body, 5, idLength, StandardCharsets.UTF_8);
+                    int recordSize = LENGTH_BYTES + length + CRC_BYTES;
+                    Location previous;
+                    if (op == OP_PUT) {
+                        long valueOffset = position + LENGTH_BYTES + 5 + idLength;
+                        previous = index.put(id, new Location(valueOffset, length - 5 - idLength, recordSize));
+                        liveBytes += recordSize;
+                    } else {
+                        previous = index.remove(id);
+                    }
+                    if (previous != null) {
+                        liveBytes -= previous.recordSize();
+                    }
+                    position += recordSize;
+                }
+            }
+            return position;
+        }
+
+        synchronized void append(byte op, String id, byte[] value) {
+            Map<String, Location> index = segment.index();
+            if (op == OP_DELETE && !index.containsKey(id)) {
+                return;
+            }
+            byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+            int length = 5 + idBytes.length + value.length;
+            ByteBuffer record = ByteBuffer.allocate(LENGTH_BYTES + length + CRC_BYTES);
+            record.putInt(length).put(op).putInt(idBytes.length).put(idBytes).put(value);
+            record.putInt(checksum(record.array(), LENGTH_BYTES, length));
+            record.flip();
+
+            long recordStart = end;
+            while (true) {
+                Segment current = segment;
+                try {
+                    FileChannel channel = current.channel();
+                    long position = recordStart;
+                    while (record.hasRemaining()) {
+                        position += channel.write(record, position);
+                    }
+                    if (syncWrites) {
+                        channel.force(false);
+                    }
+                    break;
+                } catch (ClosedByInterruptException e) {
+                    reopen(current);
+                    throw new RuntimeException("Interrupted while writing " + id + " to " + path, e);
+                } catch (ClosedChannelException e) {
+                    // A reader's interrupt closed the channel; write the whole record again
+                    reopen(current);
+                    record.rewind();
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to write " + id + " to " + path, e);
+                }
+            }
+            int recordSize = LENGTH_BYTES + length + CRC_BYTES;
+            end += recordSize;
+
+            Location previous;
+            if (op == OP_PUT) {
+                long valueOffset = recordStart + LENGTH_BYTES + 5 + idBytes.length;
+                previous = index.put(id, new Location(valueOffset, value.length, recordSize));
+                liveBytes += recordSize;
+            } else {
+                previous = index.remove(id);
+            }
+            if (previous != null) {
+                liveBytes -= previous.recordSize();
+            }
+            if (end > MIN_COMPACTION_BYTES && end > 2 * liveBytes) {
+                compact();
+            }
+        }
+
+        // Read-modify-write under the append lock, so no other write to this log interleaves;
+        // a null result from change writes nothing
+        synchronized void update(String id, UnaryOperator<byte[]> change) {
+            byte[] value = change.apply(read(id));
+            if (value != null) {
+                append(OP_PUT, id, value);
+            }
+        }
+
+        byte[] read(String id) {
+            while (true) {
+                Segment current = segment;
+                Location location = current.index().get(id);
+                if (location == null) {
+                    return null;
+                }
+                try {
+                    ByteBuffer buffer = ByteBuffer.allocate(location.length());
+                    long position = location.offset();
+                    while (buffer.hasRemaining()) {
+                        int read = current.channel().read(buffer, position);
+                        if (read < 0) {
+                            throw new EOFException("Unexpected end of " + path);
+                        }
+                        position += read;
+                    }
+                    return buffer.array();
+                } catch (ClosedByInterruptException e) {
+                    reopen(current);
+                    throw new RuntimeException("Interrupted while reading " + id + " from " + path, e);
+                } catch (ClosedChannelException e) {
+                    // Compaction swapped the file underneath us, or another thread's interrupt
+                    // closed it; retry against the current segment
+                    reopen(current);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to read " + id + " from " + path, e);
+                }
+            }
+        }
+
+        // An interrupt during a channel read or write closes the channel for every thread, so
+        // open the file again under the same index; a no-op if compaction already replaced it
+        private synchronized void reopen(Segment broken) {
+            if (closed) {
+                throw new RuntimeException("Storage file closed: " + path);
+            }
+            if (segment != broken || broken.channel().isOpen()) {
+                return;
+            }
+            try {
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                segment = new Segment(channel, broken.index());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to reopen storage file " + path, e);
+            }
+        }
+
+        List<String> ids() {
+            return new ArrayList<>(segment.index().keySet());
+        }
+
+        List<String> idsAfter(String afterId, int limit) {
+            NavigableMap<String, Location> index = segment.index();
+            NavigableMap<String, Location> tail = afterId == null ? index : index.tailMap(afterId, false);
+            List<String> ids = new ArrayList<>(Math.min(limit, 1024));
+            for (String id : tail.keySet()) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(id);
+            }
+            return ids;
+        }
+
+        // Rewrites only the live records into a new file, then atomically replaces the old log
+        private void compact() {
+            Segment old = segment;
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            NavigableMap<String, Location> index = new ConcurrentSkipListMap<>();
+            long position = 0;
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Map.Entry<String, Location> entry : old.index().entrySet()) {
+                    Location location = entry.getValue();
+                    int recordSize = location.recordSize();
+                    ByteBuffer record = ByteBuffer.allocate(recordSize);
+                    long recordStart = location.offset() - (recordSize - CRC_BYTES - location.length());
+                    while (record.hasRemaining()) {
+                        if (old.channel().read(record, recordStart + record.position()) < 0) {
+                            throw new EOFException("Unexpected end of " + path);
+                        }
+                    }
+                    record.flip();
+                    while (record.hasRemaining()) {
+                        out.write(record);
+                    }
+                    long valueOffset = position + (location.offset() - recordStart);
+                    index.put(entry.getKey(), new Location(valueOffset, location.length(), recordSize));
+                    position += recordSize;
+                }
+                out.force(true);
+            } catch (IOException e) {
+                System.err.println("Compaction of " + path + " failed, keeping existing log: " + e.getMessage());
+                return;
+            }
+            try {
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                syncDirectory();
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                segment = new Segment(channel, index);
+                end = position;
+                liveBytes = position;
+                old.channel().close();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to install compacted log " + path, e);
+            }
+        }
+
+        // A rename or new file is only durable once its directory entry is flushed
+        private void syncDirectory() {
+            try (FileChannel directory = FileChannel.open(path.getParent(), StandardOpenOption.READ)) {
+                directory.force(true);
+            } catch (IOException e) {
+                // Some platforms, such as Windows, cannot open a directory as a channel
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            try {
+                segment.channel().close();
+            } catch (IOException e) {
+                System.err.println("Failed to close " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static int checksum(byte[] body) {
+        return checksum(body, 0, body.length);
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,14 @@
+package com.edustocks.storage;
+
+import java.util.List;
+
+/**
+ * One page of a collection scan in document-id order. {@code lastId} is the cursor for the next
+ * page; a page shorter than requested is the last one.
+ */
+public record Page<T>(List<T> items, String lastId, boolean last) {
+
+    public static <T> Page<T> end() {
+        return new Page<>(List.of(), null, true);
+    }
+}
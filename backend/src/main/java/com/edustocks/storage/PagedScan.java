@@ -0,0 +1,100 @@
+package com.edustocks.storage;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Turns a cursor-based page fetch into a lazy stream. Up to {@code prefetchPages} pages are
+ * requested ahead of the consumer, so the next round-trip overlaps with processing the current
+ * page, while memory stays bounded to a few pages whatever the collection size.
+ */
+final class PagedScan<T> implements Spliterator<T> {
+
+    @FunctionalInterface
+    interface PageFetcher<T> {
+        CompletableFuture<Page<T>> fetch(String afterId, int limit);
+    }
+
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+    private final int prefetchPages;
+    private final ArrayDeque<CompletableFuture<Page<T>>> ahead = new ArrayDeque<>();
+    private CompletableFuture<Page<T>> tail;
+    private Iterator<T> current = Collections.emptyIterator();
+    private boolean finished;
+
+    private PagedScan(PageFetcher<T> fetcher, int pageSize, int prefetchPages) {
+        if (pageSize < 1 || prefetchPages < 1) {
+            throw new IllegalArgumentException("Page size and prefetch depth must be positive");
+        }
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.prefetchPages = prefetchPages;
+    }
+
+    static <T> Stream<T> stream(PageFetcher<T> fetcher, int pageSize, int prefetchPages) {
+        PagedScan<T> scan = new PagedScan<>(fetcher, pageSize, prefetchPages);
+        return StreamSupport.stream(scan, false).onClose(scan::cancel);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (!current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            requestAhead();
+            Page<T> page = ahead.poll().join();
+            current = page.items().iterator();
+            if (page.last()) {
+                finished = true;
+                cancel();
+            } else {
+                requestAhead();
+            }
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    // Each page needs the previous page's cursor, so prefetched requests are chained on the tail
+    private void requestAhead() {
+        while (ahead.size() < prefetchPages) {
+            CompletableFuture<Page<T>> next = tail == null
+                ? fetcher.fetch(null, pageSize)
+                : tail.thenCompose(previous -> previous.last()
+                    ? CompletableFuture.completedFuture(Page.<T>end())
+                    : fetcher.fetch(previous.lastId(), pageSize));
+            ahead.add(next);
+            tail = next;
+        }
+    }
+
+    private void cancel() {
+        for (CompletableFuture<Page<T>> pending : ahead) {
+            pending.cancel(false);
+        }
+        ahead.clear();
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
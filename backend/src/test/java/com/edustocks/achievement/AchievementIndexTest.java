@@ -0,0 +1,132 @@
+package com.edustocks.achievement;
+
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.event.PortfolioValuedEvent;
+import com.edustocks.event.TradeExecutedEvent;
+import com.edustocks.model.AchievementState;
+import com.edustocks.model.AchievementStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementIndexTest {
+
+    private final AchievementIndex index = AchievementIndex.of(AchievementRules.defaults());
+
+    private static LessonCompletedEvent lesson(String lessonId, double score, String week) {
+        return new LessonCompletedEvent("user-1", lessonId, score, (int) (score / 10), 0, null, week, 0);
+    }
+
+    private static List<String> ids(AchievementIndex.Outcome outcome) {
+        return outcome.unlocked().stream().map(AchievementRule::id).toList();
+    }
+
+    @Test
+    void testCountersUnlockAtTheirTargets() {
+        AchievementState state = new AchievementState("user-1");
+
+        assertEquals(List.of("first-lesson"), ids(index.apply(state, lesson("l1", 80, "2026-W42"), 100)));
+        for (int i = 2; i <= 4; i++) {
+            assertTrue(index.apply(state, lesson("l" + i, 80, "2026-W42"), 100).unlocked().isEmpty());
+        }
+        assertEquals(List.of("knowledge-seeker", "busy-week"),
+            ids(index.apply(state, lesson("l5", 80, "2026-W42"), 200)));
+
+        assertEquals(5L, state.getCounters().get("lessons"));
+        assertEquals(100L, state.getUnlocked().get("first-lesson"));
+        assertEquals(200L, state.getUnlocked().get("busy-week"));
+    }
+
+    @Test
+    void testWeeklyCounterStartsOverInANewWeek() {
+        AchievementState state = new AchievementState("user-1");
+        for (int i = 0; i < 4; i++) {
+            index.apply(state, lesson("a" + i, 80, "2026-W41"), 100);
+        }
+        index.apply(state, lesson("b0", 80, "2026-W42"), 100);
+
+        assertEquals(1L, state.getCounters().get("lessonsThisWeek"));
+        assertEquals(5L, state.getCounters().get("lessons"));
+        assertFalse(state.getUnlocked().containsKey("busy-week"));
+    }
+
+    @Test
+    void testEventsOnlyTouchRulesForTheirType() {
+        AchievementState state = new AchievementState("user-1");
+
+        AchievementIndex.Outcome trade = index.apply(state, new TradeExecutedEvent("user-1", "AAPL", "buy", 1, 150), 100);
+        assertEquals(List.of("first-trade"), ids(trade));
+        assertFalse(state.getCounters().containsKey("lessons"));
+
+        AchievementIndex.Outcome flat = index.apply(state, new PortfolioValuedEvent("user-1", 10500, 5, 1), 100);
+        assertFalse(flat.changed(), "a value rule that isn't reached leaves the state alone");
+        AchievementIndex.Outcome up = index.apply(state, new PortfolioValuedEvent("user-1", 11000, 10, 1), 100);
+        assertEquals(List.of("portfolio-up-10"), ids(up));
+
+        assertFalse(index.apply(state, "not an event", 100).changed());
+    }
+
+    @Test
+    void testFilteredCounterAndStatus() {
+        AchievementState state = new AchievementState("user-1");
+        index.apply(state, lesson("l1", 90, "2026-W42"), 100);
+        index.apply(state, lesson("l2", 100, "2026-W42"), 100);
+
+        List<AchievementStatus> statuses = index.statusOf(state);
+        AchievementStatus perfect = statuses.stream().filter(s -> s.getId().equals("perfect-score")).findFirst().orElseThrow();
+        AchievementStatus seeker = statuses.stream().filter(s -> s.getId().equals("knowledge-seeker")).findFirst().orElseThrow();
+        assertTrue(perfect.isUnlocked());
+        assertFalse(seeker.isUnlocked());
+        assertEquals(2, seeker.getProgress());
+        assertEquals(5, seeker.getTarget());
+        assertEquals(AchievementRules.defaults().size(), statuses.size());
+    }
+
+    @Test
+    void testCounterStopsOnceItsRulesAreUnlocked() {
+        AtomicInteger checks = new AtomicInteger();
+        AchievementRule.Counter<TradeExecutedEvent> counter = AchievementRule.Counter.of("trades", TradeExecutedEvent.class)
+            .where(event -> checks.incrementAndGet() > 0);
+        AchievementIndex single = AchievementIndex.of(List.of(
+            AchievementRule.counting("first-trade", "First Trade", "", counter, 1)));
+        AchievementState state = new AchievementState("user-1");
+        TradeExecutedEvent trade = new TradeExecutedEvent("user-1", "AAPL", "buy", 1, 150);
+
+        assertTrue(single.apply(state, trade, 100).changed());
+        assertFalse(single.apply(state, trade, 100).changed());
+        assertEquals(1, checks.get());
+    }
+
+    @Test
+    void testAffectsPredictsApplyWithoutChangingTheState() {
+        AchievementState state = new AchievementState("user-1");
+        TradeExecutedEvent trade = new TradeExecutedEvent("user-1", "AAPL", "buy", 1, 150);
+        PortfolioValuedEvent flat = new PortfolioValuedEvent("user-1", 10500, 5, 1);
+
+        assertTrue(index.affects(state, trade));
+        assertTrue(state.getCounters().isEmpty());
+        assertFalse(index.affects(state, flat));
+        assertFalse(index.affects(state, "not an event"));
+
+        state.getUnlocked().put("first-trade", 100L);
+        state.getUnlocked().put("active-trader", 100L);
+        assertFalse(index.affects(state, trade), "every trade rule is already unlocked");
+        assertFalse(index.apply(state, trade, 100).changed());
+    }
+
+    @Test
+    void testInvalidRuleSetsAreRejected() {
+        AchievementRule.Counter<TradeExecutedEvent> trades = AchievementRule.Counter.of("trades", TradeExecutedEvent.class);
+        AchievementRule.Counter<TradeExecutedEvent> otherTrades = AchievementRule.Counter.of("trades", TradeExecutedEvent.class);
+
+        assertThrows(IllegalArgumentException.class, () -> AchievementIndex.of(List.of(
+            AchievementRule.counting("a", "A", "", trades, 1),
+            AchievementRule.counting("a", "A", "", trades, 2))));
+        assertThrows(IllegalArgumentException.class, () -> AchievementIndex.of(List.of(
+            AchievementRule.counting("a", "A", "", trades, 1),
+            AchievementRule.counting("b", "B", "", otherTrades, 2))));
+    }
+}
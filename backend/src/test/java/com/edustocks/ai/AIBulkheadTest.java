@@ -0,0 +1,123 @@
+package com.edustocks.ai;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIBulkheadTest {
+
+    private static AIBulkhead open(int maxConcurrent, int maxQueue, long maxWaitMs, int perUserMax) {
+        AIBulkhead bulkhead = new AIBulkhead();
+        ReflectionTestUtils.setField(bulkhead, "maxConcurrent", maxConcurrent);
+        ReflectionTestUtils.setField(bulkhead, "maxQueue", maxQueue);
+        ReflectionTestUtils.setField(bulkhead, "maxWaitMs", maxWaitMs);
+        ReflectionTestUtils.setField(bulkhead, "perUserMax", perUserMax);
+        bulkhead.start();
+        return bulkhead;
+    }
+
+    // Starts a call on a virtual thread that holds its slot until the latch opens
+    private static CompletableFuture<String> hold(AIBulkhead bulkhead, String userId, CountDownLatch release) {
+        return CompletableFuture.supplyAsync(() -> bulkhead.call(userId, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return userId;
+        }), Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testPerUserCapRejectsOnlyThatUser() throws Exception {
+        AIBulkhead bulkhead = open(8, 8, 1000, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = hold(bulkhead, "alice", release);
+        CompletableFuture<String> second = hold(bulkhead, "alice", release);
+        await(() -> bulkhead.stats().active() == 2);
+
+        AIBulkhead.SaturatedException rejected = assertThrows(AIBulkhead.SaturatedException.class,
+            () -> bulkhead.call("alice", () -> "third"));
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+        assertEquals("bob", bulkhead.call("bob", () -> "bob"));
+
+        release.countDown();
+        assertEquals("alice", first.get(5, TimeUnit.SECONDS));
+        assertEquals("alice", second.get(5, TimeUnit.SECONDS));
+        assertEquals("alice again", bulkhead.call("alice", () -> "alice again"));
+        assertEquals(1, bulkhead.stats().rejectedPerUser());
+        assertEquals(4, bulkhead.stats().admitted());
+    }
+
+    @Test
+    void testFullQueueRejectsAtOnceAndQueuedCallRunsWhenSlotFrees() throws Exception {
+        AIBulkhead bulkhead = open(1, 1, 5000, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = hold(bulkhead, "u1", release);
+        await(() -> bulkhead.stats().active() == 1);
+        CompletableFuture<String> queued = hold(bulkhead, "u2", new CountDownLatch(0));
+        await(() -> bulkhead.stats().queued() == 1);
+
+        assertThrows(AIBulkhead.SaturatedException.class, () -> bulkhead.call("u3", () -> "u3"));
+        assertEquals(1, bulkhead.stats().rejectedFull());
+        assertFalse(queued.isDone());
+
+        release.countDown();
+        assertEquals("u1", running.get(5, TimeUnit.SECONDS));
+        assertEquals("u2", queued.get(5, TimeUnit.SECONDS));
+        AIBulkhead.Stats stats = bulkhead.stats();
+        assertEquals(0, stats.active());
+        assertEquals(0, stats.queued());
+        assertTrue(stats.p95WaitMs() > 0);
+    }
+
+    @Test
+    void testQueuedCallGivesUpAfterMaxWait() throws Exception {
+        AIBulkhead bulkhead = open(1, 4, 50, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = hold(bulkhead, "u1", release);
+        await(() -> bulkhead.stats().active() == 1);
+
+        assertThrows(AIBulkhead.SaturatedException.class, () -> bulkhead.call("u2", () -> "u2"));
+        assertEquals(1, bulkhead.stats().timedOut());
+        assertEquals(0, bulkhead.stats().queued());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testStreamHoldsSlotUntilItCompletes() throws Exception {
+        AIBulkhead bulkhead = open(1, 0, 1000, 2);
+        Sinks.Many<String> tokens = Sinks.many().unicast().onBackpressureBuffer();
+        CompletableFuture<List<String>> streamed = bulkhead.stream("u1", tokens::asFlux).collectList().toFuture();
+        await(() -> bulkhead.stats().active() == 1);
+
+        assertThrows(AIBulkhead.SaturatedException.class, () -> bulkhead.call("u2", () -> "u2"));
+
+        tokens.tryEmitNext("P/E");
+        tokens.tryEmitComplete();
+        assertEquals(List.of("P/E"), streamed.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.stats().active());
+        assertEquals(List.of("x"), bulkhead.stream("u2", () -> Flux.just("x")).collectList().block(Duration.ofSeconds(5)));
+    }
+}
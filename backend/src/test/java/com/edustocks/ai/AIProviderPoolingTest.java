@@ -0,0 +1,160 @@
+package com.edustocks.ai;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIProviderPoolingTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            if (readBody(exchange).contains("\"stream\":true")) {
+                respond(exchange, "text/event-stream",
+                    chunk("{\"role\":\"assistant\"}") + chunk("{\"content\":\"P/E is\"}")
+                        + chunk("{\"content\":\" price over earnings\"}") + chunk("{}") + "data: [DONE]\n\n");
+            } else {
+                respond(exchange, "application/json",
+                    "{\"id\":\"c1\",\"object\":\"chat.completion\",\"created\":1,\"model\":\"m\",\"choices\":[{\"index\":0,"
+                        + "\"message\":{\"role\":\"assistant\",\"content\":\"P/E is price over earnings\"},\"finish_reason\":\"stop\"}]}");
+            }
+        });
+        server.createContext("/v1beta/models/", exchange -> {
+            readBody(exchange);
+            if (exchange.getRequestURI().getPath().endsWith(":streamGenerateContent")) {
+                respond(exchange, "text/event-stream", "data: " + candidate("P/E is") + "\n\n"
+                    + "data: " + candidate(" price over earnings") + "\n\n");
+            } else {
+                respond(exchange, "application/json", candidate("P/E is price over earnings"));
+            }
+        });
+        server.start();
+    }
+
+    private static String chunk(String delta) {
+        return "data: {\"id\":\"c1\",\"object\":\"chat.completion.chunk\",\"created\":1,\"model\":\"m\","
+            + "\"choices\":[{\"index\":0,\"delta\":" + delta + "}]}\n\n";
+    }
+
+    private static String candidate(String text) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}]}}]}";
+    }
+
+    private String readBody(com.sun.net.httpserver.HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private void respond(com.sun.net.httpserver.HttpExchange exchange, String contentType, String content) throws IOException {
+        requests.incrementAndGet();
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @Test
+    void testOpenAIReusesPooledConnections() {
+        OpenAIProvider provider = new OpenAIProvider();
+        ReflectionTestUtils.setField(provider, "apiKey", "test-key");
+        ReflectionTestUtils.setField(provider, "baseUrl", baseUrl());
+        provider.start();
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("P/E is price over earnings", provider.complete("What is a P/E ratio?"));
+            }
+
+            AIClientMetrics.Snapshot metrics = provider.metrics();
+            assertEquals(3, requests.get());
+            assertEquals(3, metrics.requests());
+            assertEquals(1, metrics.connectionsOpened());
+            assertEquals(2, metrics.connectionsReused());
+            assertEquals(1, metrics.openConnections());
+        } finally {
+            provider.stop();
+        }
+    }
+
+    @Test
+    void testGeminiReusesPooledConnections() {
+        GeminiProvider provider = new GeminiProvider();
+        ReflectionTestUtils.setField(provider, "apiKey", "test-key");
+        ReflectionTestUtils.setField(provider, "baseUrl", baseUrl());
+        provider.start();
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("P/E is price over earnings", provider.complete("What is a P/E ratio?"));
+            }
+
+            AIClientMetrics.Snapshot metrics = provider.metrics();
+            assertEquals(3, metrics.requests());
+            assertEquals(0, metrics.failures());
+            // Netty returns a connection to the pool just after the response completes, so a
+            // back-to-back request may still open a second one
+            assertEquals(3, metrics.connectionsOpened() + metrics.connectionsReused());
+            assertTrue(metrics.connectionsReused() >= 1);
+        } finally {
+            provider.stop();
+        }
+    }
+
+    @Test
+    void testOpenAIStreamsTokens() {
+        OpenAIProvider provider = new OpenAIProvider();
+        ReflectionTestUtils.setField(provider, "apiKey", "test-key");
+        ReflectionTestUtils.setField(provider, "baseUrl", baseUrl());
+        provider.start();
+        try {
+            List<String> tokens = provider.stream("What is a P/E ratio?").collectList().block(Duration.ofSeconds(10));
+
+            assertEquals(List.of("P/E is", " price over earnings"), tokens);
+            assertEquals(1, provider.metrics().requests());
+            assertEquals(0, provider.metrics().failures());
+        } finally {
+            provider.stop();
+        }
+    }
+
+    @Test
+    void testGeminiStreamsTokens() {
+        GeminiProvider provider = new GeminiProvider();
+        ReflectionTestUtils.setField(provider, "apiKey", "test-key");
+        ReflectionTestUtils.setField(provider, "baseUrl", baseUrl());
+        provider.start();
+        try {
+            List<String> tokens = provider.stream("What is a P/E ratio?").collectList().block(Duration.ofSeconds(10));
+
+            assertEquals(List.of("P/E is", " price over earnings"), tokens);
+            assertEquals(1, provider.metrics().requests());
+            assertEquals(0, provider.metrics().failures());
+        } finally {
+            provider.stop();
+        }
+    }
+}
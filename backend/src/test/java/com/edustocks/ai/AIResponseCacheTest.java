@@ -0,0 +1,176 @@
+package com.edustocks.ai;
+
+import com.edustocks.storage.LocalDocumentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIResponseCacheTest {
+
+    @TempDir
+    Path diskDir;
+
+    private AIResponseCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.stop();
+        }
+    }
+
+    private AIResponseCache open(String dir) {
+        if (cache != null) {
+            cache.stop();
+        }
+        cache = new AIResponseCache();
+        ReflectionTestUtils.setField(cache, "diskDir", dir);
+        cache.start();
+        return cache;
+    }
+
+    @Test
+    void testEquivalentPromptsHitTheCache() {
+        AtomicInteger calls = new AtomicInteger();
+        open("");
+
+        String first = cache.get("openai", "beginner", "What is a P/E ratio?", () -> "answer " + calls.incrementAndGet());
+        String second = cache.get("openai", "Beginner", "  what is a   p/e ratio ", () -> "answer " + calls.incrementAndGet());
+        String otherLevel = cache.get("openai", "advanced", "What is a P/E ratio?", () -> "answer " + calls.incrementAndGet());
+        String otherProvider = cache.get("gemini", "beginner", "What is a P/E ratio?", () -> "answer " + calls.incrementAndGet());
+
+        assertEquals("answer 1", first);
+        assertEquals("answer 1", second);
+        assertEquals("answer 2", otherLevel);
+        assertEquals("answer 3", otherProvider);
+        AIResponseCache.Stats stats = cache.stats();
+        assertEquals(1, stats.memoryHits());
+        assertEquals(3, stats.misses());
+        assertEquals(0.25, stats.hitRate());
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        open("");
+        assertThrows(IllegalStateException.class, () -> cache.get("openai", "beginner", "q", () -> {
+            throw new IllegalStateException("provider down");
+        }));
+        assertEquals("ok", cache.get("openai", "beginner", "q", () -> "ok"));
+    }
+
+    @Test
+    void testConcurrentMissesShareOneCall() throws InterruptedException {
+        open("");
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Thread[] students = new Thread[8];
+        String[] answers = new String[students.length];
+        for (int i = 0; i < students.length; i++) {
+            int index = i;
+            students[i] = new Thread(() -> answers[index] = cache.get("openai", "beginner", "What is a dividend?", () -> {
+                calls.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "a share of profits";
+            }));
+            students[i].start();
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Thread student : students) {
+            student.join();
+        }
+
+        assertEquals(1, calls.get());
+        for (String answer : answers) {
+            assertEquals("a share of profits", answer);
+        }
+    }
+
+    @Test
+    void testDiskTierSurvivesRestart() {
+        open(diskDir.toString());
+        cache.get("openai", "beginner", "What is a stock?", () -> "a share of a company");
+
+        // Reopening closes the old store, which waits for its pending writes
+        open(diskDir.toString());
+        String answer = cache.get("openai", "beginner", "what is a stock", () -> fail("should be served from disk"));
+
+        assertEquals("a share of a company", answer);
+        assertEquals(1, cache.stats().diskHits());
+    }
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000;
+
+    // Writes answers straight to the disk tier, as an earlier run would have left them
+    private void storeOnDisk(long storedAt, String... questions) {
+        LocalDocumentStore disk = new LocalDocumentStore(diskDir, false);
+        for (String question : questions) {
+            String key = "openai|beginner|" + question;
+            disk.put("aiResponses", AIResponseCache.diskId(key),
+                new AIResponseCache.StoredResponse(key, "answer to " + question, storedAt));
+        }
+        disk.close();
+    }
+
+    private int entriesOnDisk() {
+        cache.stop();
+        LocalDocumentStore disk = new LocalDocumentStore(diskDir, false);
+        int count = disk.count("aiResponses");
+        disk.close();
+        cache = null;
+        return count;
+    }
+
+    @Test
+    void testExpiredDiskEntriesAreDeletedOnLookup() {
+        storeOnDisk(System.currentTimeMillis() - 2 * DAY_MILLIS, "what is a bond");
+        open(diskDir.toString());
+
+        assertNull(cache.peek("openai", "beginner", "What is a bond?"));
+        assertEquals(0, entriesOnDisk());
+    }
+
+    @Test
+    void testDiskHitKeepsItsRemainingLifetimeInMemory() throws InterruptedException {
+        // One second of its day-long lifetime left
+        storeOnDisk(System.currentTimeMillis() - DAY_MILLIS + 1000, "what is a bond");
+        open(diskDir.toString());
+
+        assertEquals("answer to what is a bond",
+            cache.get("openai", "beginner", "What is a bond?", () -> fail("should be served from disk")));
+        Thread.sleep(1100);
+        assertNull(cache.peek("openai", "beginner", "What is a bond?"));
+    }
+
+    @Test
+    void testDiskTierIsTrimmedToItsBound() {
+        long now = System.currentTimeMillis();
+        storeOnDisk(now - 2 * DAY_MILLIS, "old 1", "old 2", "old 3");
+        for (int i = 1; i <= 6; i++) {
+            storeOnDisk(now - 60_000 + i, "live " + i);
+        }
+        cache = new AIResponseCache();
+        ReflectionTestUtils.setField(cache, "diskDir", diskDir.toString());
+        ReflectionTestUtils.setField(cache, "diskMaxEntries", 4);
+        cache.start();
+
+        // Expired entries go first, then the oldest live ones down to 90% of the bound
+        for (int i = 4; i <= 6; i++) {
+            assertEquals("answer to live " + i,
+                cache.get("openai", "beginner", "live " + i, () -> fail("should be served from disk")));
+        }
+        assertNull(cache.peek("openai", "beginner", "live 3"));
+        assertEquals(3, entriesOnDisk());
+    }
+}
@@ -0,0 +1,63 @@
+package com.edustocks.ai;
+
+import com.edustocks.model.Question;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalProviderTest {
+
+    private static LocalProvider open(long latencyMs, double tokensPerSecond) {
+        LocalProvider provider = new LocalProvider();
+        ReflectionTestUtils.setField(provider, "latencyMs", latencyMs);
+        ReflectionTestUtils.setField(provider, "tokensPerSecond", tokensPerSecond);
+        return provider;
+    }
+
+    @Test
+    void testQuestionRepliesAreDeterministicAndParseable() {
+        LocalProvider provider = open(0, 0);
+        String prompt = QuestionPool.prompt("intermediate", "dividends");
+
+        String reply = provider.complete(prompt);
+        assertEquals(reply, provider.complete(prompt));
+        assertNotEquals(reply, provider.complete(QuestionPool.prompt("intermediate", "valuation")));
+
+        Question question = QuestionParser.parse(reply);
+        assertTrue(question.getQuestion().contains("dividends"));
+        assertEquals(4, question.getOptions().size());
+        assertTrue(question.getOptions().get(question.getCorrectAnswer()).startsWith("Understanding dividends"));
+        assertFalse(question.getExplanation().isEmpty());
+    }
+
+    @Test
+    void testStreamedTokensJoinToTheCompletedReply() {
+        LocalProvider provider = open(0, 0);
+        String prompt = "As a beginner-level tutor, answer the following query:\nWhat is a P/E ratio?";
+
+        List<String> tokens = provider.stream(prompt).collectList().block(Duration.ofSeconds(5));
+
+        assertTrue(tokens.size() > 10);
+        assertEquals(provider.complete(prompt), String.join("", tokens));
+        assertTrue(tokens.get(0).contains("Good"));
+        assertEquals(2, provider.metrics().requests());
+    }
+
+    @Test
+    void testLatencyAndTokenRateAreApplied() {
+        LocalProvider provider = open(50, 1000);
+        String prompt = "As a beginner-level tutor, answer the following query:\nWhat is a bond?";
+        int tokenCount = provider.stream(prompt).collectList().block(Duration.ofSeconds(5)).size();
+
+        long start = System.nanoTime();
+        provider.complete(prompt);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs >= 50 + tokenCount, "took " + elapsedMs + " ms for " + tokenCount + " tokens");
+        assertTrue(provider.metrics().meanLatencyMs() >= 50);
+    }
+}
@@ -0,0 +1,64 @@
+package com.edustocks.ai;
+
+import com.edustocks.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionParserTest {
+
+    @Test
+    void testParsesSingleLineFormat() {
+        Question question = QuestionParser.parse(
+            "QUESTION: What does a P/E ratio compare? OPTIONS: [A) Price to earnings B) Profit to equity "
+                + "C) Price to equity D) Payout to earnings] ANSWER: [A] EXPLANATION: P/E divides the share price by earnings per share.");
+
+        assertNull(question.getId());
+        assertEquals("What does a P/E ratio compare?", question.getQuestion());
+        assertEquals(List.of("Price to earnings", "Profit to equity", "Price to equity", "Payout to earnings"),
+            question.getOptions());
+        assertEquals(0, question.getCorrectAnswer());
+        assertEquals("P/E divides the share price by earnings per share.", question.getExplanation());
+    }
+
+    @Test
+    void testParsesMarkdownMultiLineFormat() {
+        Question question = QuestionParser.parse("""
+            Here is your question:
+
+            **QUESTION:** Which order executes immediately at the best available price?
+            **OPTIONS:**
+            A. Limit order
+            B. Stop order
+            C. Market order
+            D. Good-till-cancelled order
+            **ANSWER:** C) Market order
+            """);
+
+        assertEquals("Which order executes immediately at the best available price?", question.getQuestion());
+        assertEquals("Good-till-cancelled order", question.getOptions().get(3));
+        assertEquals(2, question.getCorrectAnswer());
+        assertEquals("", question.getExplanation());
+    }
+
+    @Test
+    void testOptionTextMayContainLetterLabels() {
+        Question question = QuestionParser.parse(
+            "QUESTION: Pick one OPTIONS: A) Plan A) or plan B B) Class A shares C) Neither D) Both ANSWER: d");
+
+        assertEquals(List.of("Plan A) or plan B", "Class A shares", "Neither", "Both"), question.getOptions());
+        assertEquals(3, question.getCorrectAnswer());
+    }
+
+    @Test
+    void testRejectsTextOutsideTheFormat() {
+        assertThrows(IllegalArgumentException.class,
+            () -> QuestionParser.parse("Error communicating with OpenAI: timeout"));
+        assertThrows(IllegalArgumentException.class,
+            () -> QuestionParser.parse("QUESTION: Why? OPTIONS: A) yes B) no ANSWER: A"));
+        assertThrows(IllegalArgumentException.class,
+            () -> QuestionParser.parse("QUESTION: Why? OPTIONS: A) w B) x C) y D) z ANSWER: none"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.edustocks.ai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionPoolTest {
+
+    private QuestionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.stop();
+        }
+    }
+
+    private QuestionPool open(AIProvider provider, int size, int maxConcurrent) {
+        pool = new QuestionPool();
+        ReflectionTestUtils.setField(pool, "aiProvider", provider);
+        ReflectionTestUtils.setField(pool, "size", size);
+        ReflectionTestUtils.setField(pool, "maxConcurrent", maxConcurrent);
+        ReflectionTestUtils.setField(pool, "generationsPerMinute", 60_000.0);
+        ReflectionTestUtils.setField(pool, "topics", "dividends,options,bonds,etfs");
+        pool.start();
+        return pool;
+    }
+
+    private static String question(int n) {
+        return "QUESTION: Question " + n + "? OPTIONS: A) one B) two C) three D) four ANSWER: B EXPLANATION: Because.";
+    }
+
+    private static void awaitReady(QuestionPool pool, int ready) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.stats().ready() < ready || pool.stats().refilling() > 0) {
+            assertTrue(System.nanoTime() < deadline, "pool never reached " + ready + " ready questions");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testFirstTakeMissesThenPoolServesRefilledQuestions() throws InterruptedException {
+        AIProvider provider = mock(AIProvider.class);
+        AtomicInteger calls = new AtomicInteger();
+        when(provider.complete(anyString())).thenAnswer(inv -> question(calls.incrementAndGet()));
+        open(provider, 3, 2);
+
+        assertNull(pool.take("beginner", "dividends"));
+        awaitReady(pool, 3);
+
+        assertTrue(pool.take("Beginner", "Dividends").getQuestion().startsWith("Question "));
+        awaitReady(pool, 3);
+
+        QuestionPool.Stats stats = pool.stats();
+        assertEquals(1, stats.pairs());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(4, stats.generated());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void testRefillsStayWithinConcurrencyLimit() throws InterruptedException {
+        AIProvider provider = mock(AIProvider.class);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        when(provider.complete(anyString())).thenAnswer(inv -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await();
+            running.decrementAndGet();
+            return question(1);
+        });
+        open(provider, 8, 2);
+
+        pool.take("advanced", "options");
+        Thread.sleep(100);
+        assertEquals(8, pool.stats().refilling());
+        assertEquals(2, running.get());
+
+        release.countDown();
+        awaitReady(pool, 8);
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void testMalformedQuestionsAreRejectedWithoutBackingOff() throws InterruptedException {
+        AIProvider provider = mock(AIProvider.class);
+        when(provider.complete(anyString())).thenReturn("Sorry, I can only talk about stocks.", question(1));
+        open(provider, 1, 1);
+
+        assertNull(pool.take("beginner", "bonds"));
+        awaitReady(pool, 0);
+        assertNull(pool.take("beginner", "bonds"));
+        awaitReady(pool, 1);
+
+        assertEquals("Question 1?", pool.take("beginner", "bonds").getQuestion());
+        assertEquals(1, pool.stats().rejected());
+        assertEquals(0, pool.stats().failures());
+    }
+
+    @Test
+    void testFailedRefillBacksOffInsteadOfRetryingOnEveryTake() throws InterruptedException {
+        AIProvider provider = mock(AIProvider.class);
+        when(provider.complete(anyString())).thenThrow(new IllegalStateException("OPENAI_API_KEY is not set"));
+        open(provider, 2, 1);
+
+        assertNull(pool.take("beginner", "etfs"));
+        awaitReady(pool, 0);
+        assertNull(pool.take("beginner", "etfs"));
+        assertNull(pool.take("beginner", "etfs"));
+
+        assertEquals(0, pool.stats().refilling());
+        assertEquals(2, pool.stats().failures());
+    }
+
+    @Test
+    void testUnlistedTopicsAreNotPooled() throws InterruptedException {
+        AIProvider provider = mock(AIProvider.class);
+        open(provider, 3, 2);
+
+        for (int i = 0; i < 20; i++) {
+            assertNull(pool.take("beginner", "random topic " + i));
+        }
+        assertNull(pool.take("expert", "dividends"));
+        Thread.sleep(50);
+
+        verify(provider, never()).complete(anyString());
+        assertEquals(0, pool.stats().pairs());
+        assertEquals(21, pool.stats().unpooled());
+    }
+
+    @Test
+    void testTokenBucketAllowsBurstThenPacesPermits() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(60, 2, now::get); // one permit per second
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.reserve());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), bucket.reserve());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(0, bucket.reserve());
+    }
+}
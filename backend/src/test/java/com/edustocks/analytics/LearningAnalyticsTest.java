@@ -0,0 +1,100 @@
+package com.edustocks.analytics;
+
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.event.LevelReachedEvent;
+import com.edustocks.event.QuizGradedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LearningAnalyticsTest {
+
+    private static final long DAY = 24 * 60 * 60;
+    private static final long NOW = Instant.parse("2026-10-19T12:00:00Z").getEpochSecond();
+
+    private final LearningAnalytics analytics = new LearningAnalytics(30);
+
+    private void grade(String lessonId, String level, double score, long at) {
+        analytics.apply(new QuizGradedEvent("u", lessonId, level, score, 0, 0), at);
+    }
+
+    @Test
+    void testLessonsAreRankedByMeanScoreWithQuantiles() {
+        for (int score : new int[]{40, 50, 60, 70}) {
+            grade("hard", "advanced", score, NOW);
+        }
+        for (int score : new int[]{90, 100}) {
+            grade("easy", "beginner", score, NOW);
+        }
+        analytics.apply(new LessonCompletedEvent("u", "easy", 100, 10, 10, null, "2026-W43", 10), NOW);
+
+        List<LearningAnalytics.LessonReport> reports = analytics.lessonReports();
+        assertEquals(List.of("hard", "easy"), reports.stream().map(LearningAnalytics.LessonReport::lessonId).toList());
+        LearningAnalytics.LessonReport hard = reports.get(0);
+        assertEquals(4, hard.attempts());
+        assertEquals(55.0, hard.meanScore());
+        assertEquals(50, hard.medianScore());
+        assertEquals(70, hard.p90Score());
+        assertEquals(1, reports.get(1).completions());
+    }
+
+    @Test
+    void testLevelReportsMergeLessonHistograms() {
+        grade("a", "beginner", 20, NOW);
+        grade("a", "beginner", 40, NOW);
+        grade("b", "beginner", 60, NOW);
+        grade("b", "beginner", 80, NOW);
+        grade("c", "advanced", 100, NOW);
+
+        List<LearningAnalytics.LevelReport> levels = analytics.levelReports();
+        assertEquals(List.of("advanced", "beginner"), levels.stream().map(LearningAnalytics.LevelReport::level).toList());
+        LearningAnalytics.LevelReport beginner = levels.get(1);
+        assertEquals(4, beginner.attempts());
+        assertEquals(20, beginner.p25Score());
+        assertEquals(40, beginner.medianScore());
+        assertEquals(60, beginner.p75Score());
+        assertEquals(50.0, beginner.meanScore());
+    }
+
+    @Test
+    void testCohortTimeToLevel() {
+        long september = Instant.parse("2026-09-01T00:00:00Z").getEpochSecond();
+        long october = Instant.parse("2026-10-01T00:00:00Z").getEpochSecond();
+        analytics.apply(new LevelReachedEvent("u1", "intermediate", september, september + 10 * DAY), NOW);
+        analytics.apply(new LevelReachedEvent("u2", "intermediate", september, september + 20 * DAY), NOW);
+        analytics.apply(new LevelReachedEvent("u3", "intermediate", october, october + 4 * DAY), NOW);
+        analytics.apply(new LevelReachedEvent("u4", "intermediate", 0, NOW), NOW);
+
+        List<LearningAnalytics.CohortReport> cohorts = analytics.cohortReports("intermediate");
+        assertEquals(List.of("2026-09", "2026-10"), cohorts.stream().map(LearningAnalytics.CohortReport::cohort).toList());
+        assertEquals(2, cohorts.get(0).users());
+        assertEquals(10, cohorts.get(0).medianDays(), 0.1);
+        assertEquals(20, cohorts.get(0).p90Days(), 0.2);
+        assertEquals(4, cohorts.get(1).medianDays(), 0.04);
+        assertEquals(1, analytics.unknownCohortEvents());
+        assertTrue(analytics.cohortReports("advanced").isEmpty());
+    }
+
+    @Test
+    void testActivityRollsOverOldDays() {
+        long today = Math.floorDiv(NOW, DAY);
+        grade("a", "beginner", 50, NOW - 30 * DAY); // shares a slot with today in a 30 day window
+        grade("a", "beginner", 50, NOW - DAY);
+        grade("a", "beginner", 50, NOW);
+        grade("a", "beginner", 50, NOW);
+        grade("a", "beginner", 50, NOW - 30 * DAY); // now older than the window: ignored
+
+        LearningAnalytics.ActivityReport activity = analytics.activity(today, 3);
+        assertEquals(today - 2, activity.firstEpochDay());
+        assertArrayEquals(new long[]{0, 1, 2}, activity.attempts());
+        assertArrayEquals(new long[]{0, 0, 0}, activity.completions());
+
+        long[] month = analytics.activity(today, 30).attempts();
+        assertEquals(30, month.length);
+        assertEquals(3, Arrays.stream(month).sum());
+    }
+}
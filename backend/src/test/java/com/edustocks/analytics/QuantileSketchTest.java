@@ -0,0 +1,59 @@
+package com.edustocks.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    @Test
+    void testQuantilesStayWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        Random random = new Random(42);
+        double[] values = new double[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 2 + 3); // spans several orders of magnitude
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            double exact = values[(int) Math.ceil(q * values.length) - 1];
+            assertEquals(exact, sketch.quantile(q), exact * 0.01, "q=" + q);
+        }
+        assertEquals(10_000, sketch.count());
+    }
+
+    @Test
+    void testMergeMatchesASingleSketch() {
+        QuantileSketch all = new QuantileSketch(0.02);
+        QuantileSketch left = new QuantileSketch(0.02);
+        QuantileSketch right = new QuantileSketch(0.02);
+        for (int i = 1; i <= 1000; i++) {
+            all.add(i);
+            (i % 3 == 0 ? left : right).add(i);
+        }
+        left.merge(right);
+
+        assertEquals(all.count(), left.count());
+        for (double q : new double[]{0.25, 0.5, 0.75}) {
+            assertEquals(all.quantile(q), left.quantile(q));
+        }
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new QuantileSketch(0.05)));
+    }
+
+    @Test
+    void testZeroAndEmpty() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        assertEquals(0, sketch.quantile(0.5));
+
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(5);
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(5, sketch.quantile(1.0), 0.05);
+    }
+}
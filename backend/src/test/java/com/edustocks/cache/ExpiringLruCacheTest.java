@@ -0,0 +1,43 @@
+package com.edustocks.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringLruCacheTest {
+
+    @Test
+    void testLruEvictsLeastRecentlyUsedAndExpiresByAge() {
+        AtomicLong now = new AtomicLong(0);
+        ExpiringLruCache<String, String> lru = new ExpiringLruCache<>(2, 1000, now::get);
+        lru.put("a", "1");
+        lru.put("b", "2");
+        lru.get("a");
+        lru.put("c", "3");
+
+        assertEquals("1", lru.get("a"));
+        assertNull(lru.get("b"), "least recently used entry is evicted");
+        now.set(1000);
+        assertNull(lru.get("a"), "entries expire after the ttl");
+        assertEquals(2, lru.evictions());
+
+        lru.put("d", "4");
+        assertEquals("4", lru.remove("d"));
+        assertNull(lru.get("d"));
+        assertNull(lru.remove("d"));
+    }
+
+    @Test
+    void testEntryCanExpireBeforeTheTtl() {
+        AtomicLong now = new AtomicLong(0);
+        ExpiringLruCache<String, String> lru = new ExpiringLruCache<>(2, 1000, now::get);
+        lru.put("a", "1", 300);
+
+        now.set(299);
+        assertEquals("1", lru.get("a"));
+        now.set(300);
+        assertNull(lru.get("a"));
+    }
+}
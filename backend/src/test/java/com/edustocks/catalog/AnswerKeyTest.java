@@ -0,0 +1,47 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.Lesson;
+import com.edustocks.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerKeyTest {
+
+    private final AnswerKey answerKey = AnswerKey.build(List.of(
+        new Lesson("lesson-1", "Stocks", "", "beginner", "", List.of(
+            new Question("q1", "One?", List.of("a", "b"), 1, "Because b"),
+            new Question("q2", "Two?", List.of("a", "b", "c"), 2, "Because c"),
+            new Question("q3", "Three?", List.of("a", "b"), 0, "Because a")), 1)));
+
+    @Test
+    void testGradesAgainstCorrectAnswers() {
+        AnswerKey.Result result = answerKey.grade("lesson-1", new int[]{1, 0, -1});
+
+        assertEquals(1, result.correctCount());
+        assertEquals(3, result.totalQuestions());
+        assertEquals(100.0 / 3, result.score(), 1e-9);
+        assertTrue(result.feedback().get(0).correct());
+        assertFalse(result.feedback().get(1).correct());
+        assertEquals(2, result.feedback().get(1).correctAnswer());
+        assertEquals("Because a", result.feedback().get(2).explanation());
+    }
+
+    @Test
+    void testFeedbackIsSharedBetweenSubmissions() {
+        AnswerKey.Result first = answerKey.grade("lesson-1", new int[]{1, 2, 0});
+        AnswerKey.Result second = answerKey.grade("lesson-1", new int[]{1, 2, 0});
+
+        assertEquals(100.0, first.score());
+        assertSame(first.feedback().get(0), second.feedback().get(0));
+    }
+
+    @Test
+    void testRejectsUnknownLessonsAndWrongAnswerCounts() {
+        assertNull(answerKey.grade("missing", new int[]{0}));
+        assertThrows(IllegalArgumentException.class, () -> answerKey.grade("lesson-1", new int[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> answerKey.grade("lesson-1", null));
+    }
+}
@@ -0,0 +1,61 @@
+package com.edustocks.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LessonCatalogLoaderTest {
+
+    @TempDir
+    Path contentDir;
+
+    private LessonCatalogLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new LessonCatalogLoader();
+        ReflectionTestUtils.setField(loader, "contentDir", contentDir.toString());
+    }
+
+    private Path write(String id, String title) throws IOException {
+        return Files.writeString(contentDir.resolve(id + ".json"),
+            "{\"id\":\"" + id + "\",\"title\":\"" + title + "\",\"level\":\"beginner\",\"order\":1,\"questions\":[]}");
+    }
+
+    @Test
+    void testReloadReparsesOnlyChangedFiles() throws IOException {
+        write("lesson-1", "Stocks");
+        Path second = write("lesson-2", "Bonds");
+        LessonCatalog initial = loader.load();
+        assertEquals(2, initial.size());
+
+        write("lesson-1", "Stocks, revised");
+        Files.writeString(second, "{ not json");
+        LessonCatalog updated = loader.reload(Set.of(contentDir.resolve("lesson-1.json").toAbsolutePath(), second.toAbsolutePath()));
+
+        assertEquals("Stocks, revised", updated.byId("lesson-1").getTitle());
+        assertEquals("Bonds", updated.byId("lesson-2").getTitle(), "a broken file keeps its previous version");
+        assertEquals("Stocks", initial.byId("lesson-1").getTitle(), "the old catalog is left untouched");
+    }
+
+    @Test
+    void testDeletedFilesDropTheirLesson() throws IOException {
+        write("lesson-1", "Stocks");
+        Path removed = write("lesson-2", "Bonds");
+        loader.load();
+
+        Files.delete(removed);
+        LessonCatalog updated = loader.reload(Set.of(removed.toAbsolutePath()));
+
+        assertEquals(1, updated.size());
+        assertNull(updated.byId("lesson-2"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.Lesson;
+import com.edustocks.model.Question;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LessonCatalogTest {
+
+    private Lesson lesson(String id, String level, int order) {
+        return new Lesson(id, "Title " + id, "", level, "", List.of(), order);
+    }
+
+    @Test
+    void testIndexesAreSortedByOrder() {
+        LessonCatalog catalog = LessonCatalog.of(List.of(
+            lesson("c", "advanced", 1),
+            lesson("a", "beginner", 1),
+            lesson("b", "Beginner", 2)));
+
+        assertEquals(List.of("a", "b", "c"), catalog.all().stream().map(Lesson::getId).toList());
+        assertEquals(List.of("a", "b"), catalog.byLevel("BEGINNER").stream().map(Lesson::getId).toList());
+        assertTrue(catalog.byLevel("intermediate").isEmpty());
+        assertEquals("c", catalog.byId("c").getId());
+        assertNull(catalog.byId("missing"));
+        assertThrows(UnsupportedOperationException.class, () -> catalog.all().clear());
+    }
+
+    @Test
+    void testDuplicateIdsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> LessonCatalog.of(List.of(
+            lesson("a", "beginner", 1),
+            lesson("a", "beginner", 2))));
+    }
+
+    @Test
+    void testBundledLessonsLoad() {
+        LessonCatalogLoader loader = new LessonCatalogLoader();
+        ReflectionTestUtils.setField(loader, "location", "classpath:lessons/*.json");
+
+        LessonCatalog catalog = loader.load();
+
+        assertEquals(15, catalog.size());
+        assertEquals(5, catalog.byLevel("beginner").size());
+        assertEquals(5, catalog.byLevel("intermediate").size());
+        assertEquals(5, catalog.byLevel("advanced").size());
+        for (Lesson lesson : catalog.all()) {
+            assertFalse(lesson.getQuestions().isEmpty(), lesson.getId());
+        }
+    }
+
+    @Test
+    void testEncodedResponsesCarryStrongEtags() {
+        LessonCatalog catalog = LessonCatalog.of(List.of(lesson("a", "beginner", 1)));
+        EncodedJson json = catalog.byIdJson("a");
+
+        assertTrue(json.etag().startsWith("\"") && json.etag().endsWith("\""));
+        assertTrue(json.matches(json.etag()));
+        assertTrue(json.matches("\"other\", W/" + json.etag()));
+        assertFalse(json.matches("\"other\""));
+        assertFalse(json.hasGzip(), "small bodies are not worth compressing");
+        assertEquals(json.etag(), LessonCatalog.of(List.of(lesson("a", "beginner", 1))).byIdJson("a").etag());
+        assertEquals("[]", new String(catalog.byLevelJson("advanced").body()));
+    }
+
+    @Test
+    void testListsUseSummaryProjection() throws Exception {
+        Lesson lesson = new Lesson("a", "Stocks", "Basics", "beginner", "<p>Long content</p>",
+            List.of(new Question("q1", "What?", List.of("x", "y"), 0, "Because")), 1);
+        LessonCatalog catalog = LessonCatalog.of(List.of(lesson));
+        ObjectMapper mapper = new ObjectMapper();
+
+        JsonNode summary = mapper.readTree(catalog.allJson().body()).get(0);
+        assertEquals(1, summary.get("questionCount").asInt());
+        assertFalse(summary.has("content"));
+        assertFalse(summary.has("questions"));
+
+        JsonNode detail = mapper.readTree(catalog.byIdJson("a").body());
+        assertEquals("<p>Long content</p>", detail.get("content").asText());
+        assertEquals(1, detail.get("questions").size());
+    }
+
+    @Test
+    void testDetailLeavesOutTheAnswerKey() throws Exception {
+        Lesson lesson = new Lesson("a", "Stocks", "Basics", "beginner", "<p>Long content</p>",
+            List.of(new Question("q1", "What?", List.of("x", "y"), 1, "Because")), 1);
+        LessonCatalog catalog = LessonCatalog.of(List.of(lesson));
+
+        JsonNode question = new ObjectMapper().readTree(catalog.byIdJson("a").body()).get("questions").get(0);
+        assertEquals("What?", question.get("question").asText());
+        assertFalse(question.has("correctAnswer"));
+        assertFalse(question.has("explanation"));
+        assertFalse(new String(catalog.byIdJson("a").body()).contains("correctAnswer"));
+        assertEquals(1, catalog.answerKey().grade("a", new int[]{1}).correctCount());
+    }
+
+    @Test
+    void testLevelMasksAnswerProgressQueries() {
+        Map<String, Integer> ordinals = Map.of("a", 0, "b", 65, "c", 2);
+        LessonCatalog catalog = LessonCatalog.of(List.of(
+            lesson("a", "beginner", 1),
+            lesson("b", "beginner", 2),
+            lesson("c", "advanced", 1))).withOrdinals(ordinals::get);
+
+        LevelMask beginner = catalog.levelMask("beginner");
+        long[] completedA = {1L};
+        assertEquals(2, beginner.total());
+        assertEquals(1, beginner.completed(completedA));
+        assertEquals(50.0, beginner.percentComplete(completedA));
+        assertEquals("b", beginner.nextLesson(completedA));
+        assertEquals(List.of("a"), beginner.completedIds(completedA));
+        assertNull(beginner.nextLesson(new long[]{1L, 2L}));
+        assertEquals(List.of("beginner", "advanced"), catalog.levels());
+    }
+}
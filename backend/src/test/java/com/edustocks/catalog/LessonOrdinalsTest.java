@@ -0,0 +1,67 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.LessonOrdinalRegistry;
+import com.edustocks.repository.LessonOrdinalRepository;
+import com.edustocks.storage.LocalDocumentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LessonOrdinalsTest {
+
+    @TempDir
+    Path dataDir;
+
+    private LocalDocumentStore documentStore;
+    private LessonOrdinalRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        documentStore = new LocalDocumentStore(dataDir, false);
+        repository = new LessonOrdinalRepository();
+        ReflectionTestUtils.setField(repository, "documentStore", documentStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        documentStore.close();
+    }
+
+    private LessonOrdinals instance() {
+        LessonOrdinals ordinals = new LessonOrdinals();
+        ReflectionTestUtils.setField(ordinals, "ordinalRepository", repository);
+        return ordinals;
+    }
+
+    @Test
+    void testInstancesAppendWithoutReordering() {
+        LessonOrdinals first = instance();
+        LessonOrdinals second = instance();
+        first.registerAll(List.of("a", "b"));
+        second.registerAll(List.of("c", "a"));
+        first.registerAll(List.of("d"));
+
+        assertEquals(List.of("a", "b", "c", "d"), repository.find().getLessonIds());
+        assertEquals(2, first.ordinalOf("c"));
+        assertEquals(3, second.register("d"));
+        assertEquals(1, second.ordinalOf("b"));
+    }
+
+    @Test
+    void testDisagreeingStoredRegistryFailsLoudly() {
+        LessonOrdinals ordinals = instance();
+        ordinals.registerAll(List.of("a", "b"));
+        repository.save(new LessonOrdinalRegistry(List.of("b", "a")));
+
+        assertThrows(IllegalStateException.class, () -> ordinals.registerAll(List.of("c")));
+        assertEquals(List.of("b", "a"), repository.find().getLessonIds());
+        assertEquals(0, ordinals.ordinalOf("a"));
+    }
+}
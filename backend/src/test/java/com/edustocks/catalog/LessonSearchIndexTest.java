@@ -0,0 +1,56 @@
+package com.edustocks.catalog;
+
+import com.edustocks.model.Lesson;
+import com.edustocks.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LessonSearchIndexTest {
+
+    private final LessonSearchIndex index = LessonSearchIndex.build(List.of(
+        new Lesson("valuation", "Valuation and P/E Ratios", "How to value a company", "advanced",
+            "<p>The <strong>P/E ratio</strong> divides price by earnings.</p>", List.of(), 1),
+        new Lesson("options", "Options Trading", "Calls and puts", "advanced",
+            "<p>Writing covered calls against shares you own earns premium.</p>", List.of(), 2),
+        new Lesson("basics", "What is a Stock?", "Ownership basics", "beginner",
+            "<p>A stock is a share of a company.</p>",
+            List.of(new Question("q1", "What does a call option give you?", List.of("A right", "A duty"), 0,
+                "A call gives the right to buy.")), 3)));
+
+    private List<String> ids(String query) {
+        return index.search(query, 10).stream().map(hit -> hit.lesson().getId()).toList();
+    }
+
+    @Test
+    void testStemmingAndAbbreviations() {
+        assertEquals(List.of("valuation"), ids("p/e ratio"));
+        assertEquals("options", ids("Covered Call").get(0));
+        assertEquals(List.of("options"), ids("covering"));
+        assertEquals("cover", TextAnalyzer.stem("covered"));
+        assertEquals("call", TextAnalyzer.stem("calls"));
+        assertEquals("company", TextAnalyzer.stem("companies"));
+    }
+
+    @Test
+    void testTitleMatchesOutrankBodyMatches() {
+        // "call" is in the options description and content, but only in the quiz of basics
+        List<String> results = ids("call");
+        assertEquals(List.of("options", "basics"), results);
+    }
+
+    @Test
+    void testStopwordsAndUnknownTermsFindNothing() {
+        assertTrue(ids("what is the").isEmpty());
+        assertTrue(ids("cryptocurrency").isEmpty());
+        assertEquals(1, index.search("stock share company", 1).size());
+    }
+
+    @Test
+    void testQuizOptionsAndExplanationsAreNotIndexed() {
+        assertTrue(ids("duty").isEmpty());
+        assertTrue(ids("right to buy").isEmpty());
+    }
+}
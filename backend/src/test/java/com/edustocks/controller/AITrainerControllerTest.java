@@ -0,0 +1,101 @@
+package com.edustocks.controller;
+
+import com.edustocks.ai.AIBulkhead;
+import com.edustocks.config.AsyncConfig;
+import com.edustocks.config.SecurityConfig;
+import com.edustocks.service.AITrainerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AITrainerController.class)
+@Import({SecurityConfig.class, AsyncConfig.class})
+class AITrainerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AITrainerService aiTrainerService;
+
+    @Test
+    void testStreamsTokensThenDone() throws Exception {
+        when(aiTrainerService.streamAnswer(anyString(), eq("What is a stock?"), eq("beginner")))
+            .thenReturn(Flux.just("A stock", " is a share"));
+
+        MvcResult started = mockMvc.perform(post("/api/ai-trainer/ask/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"query\":\"What is a stock?\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(content().string(
+                "event:token\ndata:A stock\n\nevent:token\ndata: is a share\n\nevent:done\ndata:\n\n"));
+    }
+
+    @Test
+    void testProviderFailureEndsStreamWithErrorEvent() throws Exception {
+        when(aiTrainerService.streamAnswer(anyString(), anyString(), anyString()))
+            .thenReturn(Flux.concat(Flux.just("Partial"), Flux.error(new IllegalStateException("timeout"))));
+
+        MvcResult started = mockMvc.perform(post("/api/ai-trainer/ask/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"query\":\"Why?\",\"level\":\"advanced\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(content().string(
+                "event:token\ndata:Partial\n\nevent:error\ndata:Failed to answer query: timeout\n\n"));
+    }
+
+    @Test
+    void testBlankQueryIsRejectedBeforeStreaming() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/ai-trainer/ask/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"query\":\"  \"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string("event:error\ndata:Query cannot be empty\n\n"));
+
+        verify(aiTrainerService, never()).streamAnswer(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testSaturatedBulkheadAnswersTooManyRequestsWithRetryAfter() throws Exception {
+        when(aiTrainerService.answerQuery("ip:127.0.0.1", "What is a bond?", "beginner"))
+            .thenThrow(new AIBulkhead.SaturatedException("The AI trainer is busy, please retry shortly", 7));
+
+        MvcResult started = mockMvc.perform(post("/api/ai-trainer/ask")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"query\":\"What is a bond?\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "7"))
+            .andExpect(jsonPath("$.retryAfterSeconds").value(7));
+    }
+}
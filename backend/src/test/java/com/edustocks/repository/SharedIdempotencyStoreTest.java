@@ -0,0 +1,63 @@
+package com.edustocks.repository;
+
+import com.edustocks.model.IdempotentResponse;
+import com.edustocks.storage.LocalDocumentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedIdempotencyStoreTest {
+
+    @TempDir
+    Path dataDir;
+
+    private LocalDocumentStore documentStore;
+    private SharedIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        documentStore = new LocalDocumentStore(dataDir, false);
+        store = new SharedIdempotencyStore();
+        ReflectionTestUtils.setField(store, "documentStore", documentStore);
+        ReflectionTestUtils.setField(store, "ttlSeconds", 60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        documentStore.close();
+    }
+
+    @Test
+    void testKeysWithPathCharactersRoundTrip() {
+        IdempotentResponse response = new IdempotentResponse(200, Map.of("success", true));
+        response.setFingerprint("buy:AAPL:1");
+        store.save("user-1:orders/2026/10", response);
+
+        IdempotentResponse found = store.find("user-1:orders/2026/10");
+        assertEquals(200, found.getStatus());
+        assertEquals("buy:AAPL:1", found.getFingerprint());
+        assertNull(store.find("user-1:orders/2026/11"));
+    }
+
+    @Test
+    void testExpiredKeysAreDeleted() {
+        IdempotentResponse stale = new IdempotentResponse(200, Map.of("success", true));
+        stale.setCreatedAt(System.currentTimeMillis() - 120_000);
+        store.save("user-1:old", stale);
+        store.save("user-1:old-too", stale);
+        store.save("user-1:fresh", new IdempotentResponse(200, Map.of("success", true)));
+
+        assertNull(store.find("user-1:old"));
+        store.deleteExpired();
+
+        assertEquals(1, documentStore.findAll("idempotencyKeys", SharedIdempotencyStore.StoredKey.class).size());
+        assertNotNull(store.find("user-1:fresh"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.edustocks.repository;
+
+import com.edustocks.model.UserProgress;
+import com.edustocks.storage.DocumentStore;
+import com.edustocks.storage.LocalDocumentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProgressRepositoryTest {
+
+    @Mock
+    private DocumentStore documentStore;
+
+    @InjectMocks
+    private UserProgressRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "cacheTtlSeconds", 300L);
+        ReflectionTestUtils.setField(repository, "cacheMaxEntries", 2);
+        repository.init();
+    }
+
+    @Test
+    void testFreshEntryIsServedFromCache() {
+        when(documentStore.get("userProgress", "alice", UserProgress.class)).thenReturn(new UserProgress("alice"));
+
+        repository.findByUserId("alice");
+        repository.findByUserId("alice");
+
+        verify(documentStore, times(1)).get("userProgress", "alice", UserProgress.class);
+    }
+
+    @Test
+    void testExpiredEntryIsReRead() {
+        ReflectionTestUtils.setField(repository, "cacheTtlSeconds", 0L);
+        repository.init();
+        when(documentStore.get("userProgress", "alice", UserProgress.class)).thenReturn(new UserProgress("alice"));
+
+        repository.findByUserId("alice");
+        repository.findByUserId("alice");
+
+        verify(documentStore, times(2)).get("userProgress", "alice", UserProgress.class);
+    }
+
+    @Test
+    void testSaveWritesThroughAndRefreshesCache() {
+        UserProgress progress = new UserProgress("alice");
+
+        repository.save(progress);
+
+        verify(documentStore).put("userProgress", "alice", progress);
+        assertEquals("alice", repository.findByUserId("alice").getUserId());
+        verify(documentStore, never()).get("userProgress", "alice", UserProgress.class);
+    }
+
+    @Test
+    void testAsyncReadsShareTheCache() {
+        UserProgress stored = new UserProgress("alice");
+        when(documentStore.getAsync("userProgress", "alice", UserProgress.class))
+            .thenReturn(CompletableFuture.completedFuture(stored));
+
+        assertSame(stored, repository.findByUserIdAsync("alice").join());
+        assertEquals("alice", repository.findByUserId("alice").getUserId());
+        verify(documentStore, never()).get("userProgress", "alice", UserProgress.class);
+    }
+
+    @Test
+    void testFailedUpdateDropsTheCachedEntry() {
+        UserProgress progress = new UserProgress("alice");
+        repository.save(progress);
+        doThrow(new RuntimeException("unavailable")).when(documentStore)
+            .update(eq("userProgress"), eq("alice"), anyMap(), anyMap());
+
+        assertThrows(RuntimeException.class, () -> repository.saveClassId(progress));
+
+        repository.findByUserId("alice");
+        verify(documentStore).get("userProgress", "alice", UserProgress.class);
+    }
+
+    @Test
+    void testCallersGetPrivateCopies() {
+        UserProgress stored = new UserProgress("alice");
+        stored.setXp(100);
+        when(documentStore.get("userProgress", "alice", UserProgress.class)).thenReturn(stored);
+
+        UserProgress first = repository.findByUserId("alice");
+        first.setXp(999);
+        first.markLessonCompleted(3);
+
+        UserProgress second = repository.findByUserId("alice");
+        assertNotSame(first, second);
+        assertEquals(100, second.getXp());
+        assertFalse(second.hasCompletedLesson(3));
+        verify(documentStore, times(1)).get("userProgress", "alice", UserProgress.class);
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        for (String user : new String[] {"alice", "bob", "carol"}) {
+            when(documentStore.get("userProgress", user, UserProgress.class)).thenReturn(new UserProgress(user));
+            repository.findByUserId(user);
+        }
+
+        repository.findByUserId("carol");
+        repository.findByUserId("alice");
+        verify(documentStore, times(1)).get("userProgress", "carol", UserProgress.class);
+        verify(documentStore, times(2)).get("userProgress", "alice", UserProgress.class);
+    }
+
+    @Test
+    void testInstancesCompletingDifferentLessonsKeepEachOthersBits(@TempDir Path dataDir) {
+        LocalDocumentStore shared = new LocalDocumentStore(dataDir, false);
+        try {
+            UserProgressRepository first = instance(shared);
+            UserProgressRepository second = instance(shared);
+            first.save(new UserProgress("alice"));
+            // Both instances now cache a copy without either completion
+            first.findByUserId("alice");
+            second.findByUserId("alice");
+
+            assertNotNull(first.recordCompletion("alice", 1, 10, "2026-W42"));
+            UserProgress stored = second.recordCompletion("alice", 70, 5, "2026-W42");
+            assertNull(first.recordCompletion("alice", 70, 5, "2026-W42"), "already completed elsewhere");
+
+            assertTrue(stored.hasCompletedLesson(1));
+            assertTrue(stored.hasCompletedLesson(70));
+            assertEquals(2, stored.getCompletedCount());
+            assertEquals(15, stored.getXp());
+            assertEquals(15, stored.getWeeklyXp());
+
+            UserProgress nextWeek = first.recordCompletion("alice", 2, 7, "2026-W43");
+            assertEquals(22, nextWeek.getXp());
+            assertEquals(7, nextWeek.getWeeklyXp());
+            assertEquals(3, shared.get("userProgress", "alice", UserProgress.class).getCompletedCount());
+        } finally {
+            shared.close();
+        }
+    }
+
+    private static UserProgressRepository instance(LocalDocumentStore store) {
+        UserProgressRepository repository = new UserProgressRepository();
+        ReflectionTestUtils.setField(repository, "documentStore", store);
+        repository.init();
+        return repository;
+    }
+}
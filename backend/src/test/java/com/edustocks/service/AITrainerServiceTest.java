@@ -0,0 +1,129 @@
+package com.edustocks.service;
+
+import com.edustocks.ai.AIBulkhead;
+import com.edustocks.ai.AIProvider;
+import com.edustocks.ai.AIResponseCache;
+import com.edustocks.ai.QuestionPool;
+import com.edustocks.model.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AITrainerServiceTest {
+
+    @Mock
+    private AIProvider aiProvider;
+
+    @Mock
+    private AIResponseCache responseCache;
+
+    @Mock
+    private QuestionPool questionPool;
+
+    @Mock
+    private AIBulkhead bulkhead;
+
+    @InjectMocks
+    private AITrainerService aiTrainerService;
+
+    private final String userId = "test-user-123";
+
+    @BeforeEach
+    void setUp() {
+        aiTrainerService.init();
+    }
+
+    private void passThroughBulkhead() {
+        when(bulkhead.call(eq(userId), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    void testPooledQuestionIsIssuedWithoutItsAnswer() {
+        when(questionPool.take("beginner", "dividends")).thenReturn(new Question(null, "What is a dividend?",
+            List.of("A fee", "A share of profits", "A loan", "A tax"), 1, "Companies pay dividends from profits."));
+
+        Map<String, Object> issued = aiTrainerService.generateQuestion(userId, "beginner", "dividends");
+
+        assertNotNull(issued.get("questionId"));
+        assertEquals("What is a dividend?", issued.get("question"));
+        assertEquals(4, ((List<?>) issued.get("options")).size());
+        assertFalse(issued.containsKey("correctAnswer"));
+        assertFalse(issued.containsKey("explanation"));
+        verifyNoInteractions(aiProvider);
+    }
+
+    @Test
+    void testAnswersAreGradedLocally() {
+        when(questionPool.take("beginner", "etfs")).thenReturn(null);
+        passThroughBulkhead();
+        when(aiProvider.complete(anyString())).thenReturn(
+            "QUESTION: What does an ETF track? OPTIONS: A) An index B) One stock C) Interest rates D) Nothing "
+                + "ANSWER: A EXPLANATION: Most ETFs track an index.");
+        String questionId = (String) aiTrainerService.generateQuestion(userId, "beginner", "etfs").get("questionId");
+
+        String secondId = (String) aiTrainerService.generateQuestion(userId, "beginner", "etfs").get("questionId");
+
+        Map<String, Object> wrong = aiTrainerService.checkAnswer(questionId, 1);
+        Map<String, Object> right = aiTrainerService.checkAnswer(secondId, 0);
+
+        assertEquals(false, wrong.get("correct"));
+        assertEquals(0, wrong.get("correctAnswer"));
+        assertEquals("Most ETFs track an index.", wrong.get("explanation"));
+        assertEquals(true, right.get("correct"));
+        verify(aiProvider, times(2)).complete(anyString());
+    }
+
+    @Test
+    void testQuestionCanOnlyBeAnsweredOnce() {
+        when(questionPool.take("advanced", "options")).thenReturn(new Question(null, "Q?",
+            List.of("w", "x", "y", "z"), 2, ""));
+        String questionId = (String) aiTrainerService.generateQuestion(userId, "advanced", "options").get("questionId");
+
+        assertThrows(IllegalArgumentException.class, () -> aiTrainerService.checkAnswer(questionId, 4));
+        assertEquals(true, aiTrainerService.checkAnswer(questionId, 2).get("correct"));
+        assertThrows(IllegalArgumentException.class, () -> aiTrainerService.checkAnswer(questionId, 2));
+    }
+
+    @Test
+    void testUnknownQuestionAndOutOfRangeAnswerAreRejected() {
+        when(questionPool.take("advanced", "options")).thenReturn(new Question(null, "Q?",
+            List.of("w", "x", "y", "z"), 2, ""));
+        String questionId = (String) aiTrainerService.generateQuestion(userId, "advanced", "options").get("questionId");
+
+        assertThrows(IllegalArgumentException.class, () -> aiTrainerService.checkAnswer("no-such-question", 0));
+        assertThrows(IllegalArgumentException.class, () -> aiTrainerService.checkAnswer(questionId, 4));
+        verifyNoInteractions(aiProvider);
+    }
+
+    @Test
+    void testMalformedLiveQuestionFails() {
+        when(questionPool.take("beginner", "bonds")).thenReturn(null);
+        passThroughBulkhead();
+        when(aiProvider.complete(anyString())).thenReturn("I'm not sure what you mean.");
+
+        assertThrows(RuntimeException.class, () -> aiTrainerService.generateQuestion(userId, "beginner", "bonds"));
+    }
+
+    @Test
+    void testSaturatedBulkheadIsNotTurnedIntoAnAnswer() {
+        when(responseCache.get(anyString(), anyString(), anyString(), any()))
+            .thenAnswer(inv -> inv.<Supplier<?>>getArgument(3).get());
+        when(aiProvider.name()).thenReturn("openai");
+        when(bulkhead.call(eq(userId), any())).thenThrow(new AIBulkhead.SaturatedException("busy", 3));
+
+        assertThrows(AIBulkhead.SaturatedException.class,
+            () -> aiTrainerService.answerQuery(userId, "What is a bond?", "beginner"));
+        verify(aiProvider, never()).complete(anyString());
+    }
+}
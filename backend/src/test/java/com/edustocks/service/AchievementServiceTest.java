@@ -0,0 +1,78 @@
+package com.edustocks.service;
+
+import com.edustocks.achievement.AchievementRule;
+import com.edustocks.event.TradeExecutedEvent;
+import com.edustocks.model.AchievementState;
+import com.edustocks.model.AchievementStatus;
+import com.edustocks.repository.AchievementStateRepository;
+import com.edustocks.storage.LocalDocumentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementServiceTest {
+
+    @TempDir
+    Path dataDir;
+
+    private LocalDocumentStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private AchievementService instance() {
+        AchievementStateRepository repository = new AchievementStateRepository();
+        ReflectionTestUtils.setField(repository, "documentStore", store);
+        AchievementService service = new AchievementService();
+        ReflectionTestUtils.setField(service, "achievementStateRepository", repository);
+        return service;
+    }
+
+    private static TradeExecutedEvent trade() {
+        return new TradeExecutedEvent("alice", "AAPL", "buy", 1, 150);
+    }
+
+    private static List<String> ids(List<AchievementRule<?>> rules) {
+        return rules.stream().map(AchievementRule::id).toList();
+    }
+
+    @Test
+    void testInstancesWithCachedStateKeepEachOthersProgress() {
+        store = new LocalDocumentStore(dataDir, false);
+        AchievementService first = instance();
+        AchievementService second = instance();
+        // Both instances now cache the empty state
+        first.getAchievements("alice");
+        second.getAchievements("alice");
+
+        assertEquals(List.of("first-trade"), ids(first.record("alice", trade(), 100)));
+        assertTrue(second.record("alice", trade(), 200).isEmpty(), "already unlocked by the first instance");
+
+        AchievementState stored = store.get("achievements", "alice", AchievementState.class);
+        assertEquals(2L, stored.getCounters().get("trades"));
+        assertEquals(100L, stored.getUnlocked().get("first-trade"));
+
+        AchievementStatus activeTrader = second.getAchievements("alice").stream()
+            .filter(status -> status.getId().equals("active-trader")).findFirst().orElseThrow();
+        assertEquals(2, activeTrader.getProgress());
+    }
+
+    @Test
+    void testEventsThatChangeNothingAreNotWritten() {
+        store = new LocalDocumentStore(dataDir, false);
+        AchievementService service = instance();
+
+        assertTrue(service.record("alice", "not an event", 100).isEmpty());
+        assertNull(store.get("achievements", "alice", AchievementState.class));
+    }
+}
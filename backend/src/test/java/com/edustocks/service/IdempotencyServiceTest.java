@@ -0,0 +1,114 @@
+package com.edustocks.service;
+
+import com.edustocks.model.IdempotentResponse;
+import com.edustocks.repository.InMemoryIdempotencyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    private IdempotencyService idempotencyService;
+    private InMemoryIdempotencyStore store;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryIdempotencyStore();
+        ReflectionTestUtils.setField(store, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(store, "maxEntries", 2);
+        idempotencyService = new IdempotencyService();
+        ReflectionTestUtils.setField(idempotencyService, "idempotencyStore", store);
+    }
+
+    private CompletableFuture<IdempotentResponse> trade() {
+        executions.incrementAndGet();
+        return CompletableFuture.completedFuture(new IdempotentResponse(200, Map.of("success", true)));
+    }
+
+    private IdempotentResponse execute(String userId, String key, Supplier<CompletableFuture<IdempotentResponse>> action) {
+        return idempotencyService.executeAsync(userId, key, "buy:AAPL:1", action).join();
+    }
+
+    @Test
+    void testDuplicateKey_ReplaysRecordedResponse() {
+        IdempotentResponse first = execute("user-1", "key-1", this::trade);
+        IdempotentResponse second = execute("user-1", "key-1", this::trade);
+
+        assertEquals(1, executions.get());
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals(first.getBody(), second.getBody());
+    }
+
+    @Test
+    void testConcurrentDuplicate_WaitsForInFlightRequest() {
+        CompletableFuture<IdempotentResponse> slowTrade = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> first = idempotencyService.executeAsync("user-1", "key-1", "buy:AAPL:1", () -> {
+            executions.incrementAndGet();
+            return slowTrade;
+        });
+        CompletableFuture<IdempotentResponse> second = idempotencyService.executeAsync("user-1", "key-1", "buy:AAPL:1", this::trade);
+
+        assertFalse(second.isDone());
+        slowTrade.complete(new IdempotentResponse(200, Map.of("success", true)));
+
+        assertEquals(1, executions.get());
+        assertFalse(first.join().isReplayed());
+        assertTrue(second.join().isReplayed());
+    }
+
+    @Test
+    void testReusedKeyWithDifferentRequest_IsRejected() {
+        execute("user-1", "key-1", this::trade);
+        IdempotentResponse reused = idempotencyService.executeAsync("user-1", "key-1", "buy:AAPL:5", this::trade).join();
+
+        assertEquals(1, executions.get());
+        assertEquals(422, reused.getStatus());
+        assertFalse(reused.isReplayed());
+    }
+
+    @Test
+    void testKeysAreScopedPerUser() {
+        execute("user-1", "key-1", this::trade);
+        execute("user-2", "key-1", this::trade);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void testNoKey_AlwaysExecutes() {
+        execute("user-1", null, this::trade);
+        execute("user-1", null, this::trade);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void testServerErrors_AreNotRecorded() {
+        execute("user-1", "key-1", () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(new IdempotentResponse(500, Map.of("success", false)));
+        });
+        execute("user-1", "key-1", this::trade);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void testStoreEvictsLeastRecentlyUsedKeys() {
+        execute("user-1", "key-1", this::trade);
+        execute("user-1", "key-2", this::trade);
+        execute("user-1", "key-3", this::trade);
+
+        assertNull(store.find("user-1:key-1"));
+        assertNotNull(store.find("user-1:key-3"));
+    }
+}
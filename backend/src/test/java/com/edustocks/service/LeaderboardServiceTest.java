@@ -0,0 +1,104 @@
+package com.edustocks.service;
+
+import com.edustocks.event.ClassChangedEvent;
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.model.LeaderboardEntry;
+import com.edustocks.model.LeaderboardStanding;
+import com.edustocks.model.UserProgress;
+import com.edustocks.repository.UserProgressRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+
+    @Mock
+    private UserProgressRepository userProgressRepository;
+
+    @InjectMocks
+    private LeaderboardService leaderboardService;
+
+    private void complete(String userId, int totalXp, String classId, int weeklyXp) {
+        leaderboardService.onLessonCompleted(new LessonCompletedEvent(userId, "lesson-1", 100, 10, totalXp,
+            classId, LeaderboardService.currentWeekKey(), weeklyXp));
+    }
+
+    @Test
+    void testTopKAndTiedRanks() {
+        complete("alice", 120, null, 10);
+        complete("bob", 300, null, 10);
+        complete("carol", 120, null, 10);
+        complete("dave", 50, null, 10);
+
+        List<LeaderboardEntry> top = leaderboardService.getTop(LeaderboardService.GLOBAL, null, 3);
+        assertEquals(List.of("bob", "alice", "carol"), top.stream().map(LeaderboardEntry::getUserId).toList());
+        assertEquals(List.of(1, 2, 2), top.stream().map(LeaderboardEntry::getRank).toList());
+
+        LeaderboardStanding dave = leaderboardService.getStanding(LeaderboardService.GLOBAL, null, "dave");
+        assertEquals(4, dave.getRank());
+        assertEquals(0.0, dave.getPercentile());
+        LeaderboardStanding alice = leaderboardService.getStanding(LeaderboardService.GLOBAL, null, "alice");
+        assertEquals(2, alice.getRank());
+        assertEquals(200.0 / 3, alice.getPercentile(), 1e-9);
+    }
+
+    @Test
+    void testScoresOnlyGrowAndBoardsGrowPastInitialCapacity() {
+        complete("alice", 5000, null, 10);
+        complete("alice", 4000, null, 10);
+        complete("bob", 10, null, 10);
+
+        assertEquals(5000, leaderboardService.getStanding(LeaderboardService.GLOBAL, null, "alice").getXp());
+        assertEquals(2, leaderboardService.getStanding(LeaderboardService.GLOBAL, null, "bob").getRank());
+    }
+
+    @Test
+    void testClassAndWeeklyWindows() {
+        complete("alice", 500, "class-a", 40);
+        complete("bob", 100, "class-a", 90);
+        complete("carol", 900, "class-b", 0);
+
+        assertEquals(List.of("alice", "bob"), leaderboardService.getTop(LeaderboardService.CLASS, "class-a", 10)
+            .stream().map(LeaderboardEntry::getUserId).toList());
+        assertEquals(List.of("bob", "alice"), leaderboardService.getTop(LeaderboardService.WEEKLY, null, 10)
+            .stream().map(LeaderboardEntry::getUserId).toList());
+
+        leaderboardService.onClassChanged(new ClassChangedEvent("bob", "class-a", "class-b", 100));
+        assertEquals(List.of("alice"), leaderboardService.getTop(LeaderboardService.CLASS, "class-a", 10)
+            .stream().map(LeaderboardEntry::getUserId).toList());
+        assertEquals(2, leaderboardService.getStanding(LeaderboardService.CLASS, "class-b", "bob").getRank());
+    }
+
+    @Test
+    void testRebuildFromStorage() {
+        UserProgress alice = new UserProgress("alice");
+        alice.setXp(200);
+        alice.setClassId("class-a");
+        UserProgress bob = new UserProgress("bob");
+        bob.setXp(700);
+        bob.setWeekKey("2001-W01");
+        bob.setWeeklyXp(70);
+        when(userProgressRepository.streamAll()).thenReturn(Stream.of(alice, bob));
+
+        assertEquals(2, leaderboardService.rebuild());
+
+        assertEquals(List.of("bob", "alice"), leaderboardService.getTop(LeaderboardService.GLOBAL, null, 10)
+            .stream().map(LeaderboardEntry::getUserId).toList());
+        assertEquals(1, leaderboardService.getTop(LeaderboardService.CLASS, "class-a", 10).size());
+        assertTrue(leaderboardService.getTop(LeaderboardService.WEEKLY, null, 10).isEmpty(), "old weeks don't count");
+    }
+
+    @Test
+    void testUnknownWindowIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> leaderboardService.getTop("monthly", null, 10));
+    }
+}
@@ -1,5 +1,6 @@
 package com.edustocks.service;
 
+import com.edustocks.event.TradeExecutedEvent;
 import com.edustocks.model.Portfolio;
 import com.edustocks.model.Holding;
 import com.edustocks.model.Stock;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +26,9 @@ class PortfolioServiceTest {
     @Mock
     private StockService stockService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PortfolioService portfolioService;
 
@@ -72,6 +77,7 @@ class PortfolioServiceTest {
         portfolioService.buyStock(testUserId, "AAPL", 10);
 
         verify(portfolioRepository, atLeastOnce()).save(any(Portfolio.class));
+        verify(eventPublisher).publishEvent(new TradeExecutedEvent(testUserId, "AAPL", "buy", 10, 150.0));
     }
 
     @Test
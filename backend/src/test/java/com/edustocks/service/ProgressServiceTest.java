@@ -1,5 +1,8 @@
 package com.edustocks.service;
 
+import com.edustocks.catalog.LessonOrdinals;
+import com.edustocks.event.LessonCompletedEvent;
+import com.edustocks.event.LevelReachedEvent;
 import com.edustocks.model.UserProgress;
 import com.edustocks.repository.UserProgressRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,9 +11,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,6 +30,12 @@ class ProgressServiceTest {
     @Mock
     private UserProgressRepository progressRepository;
 
+    @Mock
+    private LessonOrdinals lessonOrdinals;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProgressService progressService;
 
@@ -30,6 +47,17 @@ class ProgressServiceTest {
         testProgress = new UserProgress(testUserId);
     }
 
+    // Stands in for the storage transaction, applying completions to testProgress
+    private void recordCompletionsInTestProgress() {
+        when(progressRepository.recordCompletion(eq(testUserId), anyInt(), anyInt(), anyString())).thenAnswer(call -> {
+            synchronized (testProgress) {
+                boolean completed = testProgress.completeLesson(call.getArgument(1), call.getArgument(2),
+                    call.getArgument(3));
+                return completed ? testProgress.copy() : null;
+            }
+        });
+    }
+
     @Test
     void testGetProgress_WhenExists() {
         when(progressRepository.findByUserId(testUserId))
@@ -59,11 +87,124 @@ class ProgressServiceTest {
         when(progressRepository.findByUserId(testUserId))
             .thenReturn(testProgress);
 
+        when(lessonOrdinals.register("lesson-1")).thenReturn(70);
+        recordCompletionsInTestProgress();
+
         progressService.completeLesson(testUserId, "lesson-1", 85.0);
 
-        verify(progressRepository, times(1)).save(any(UserProgress.class));
+        verify(progressRepository, times(1)).recordCompletion(testUserId, 70, 8, LeaderboardService.currentWeekKey());
+        assertTrue(testProgress.hasCompletedLesson(70));
+        assertEquals(1, testProgress.getCompletedCount());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof LessonCompletedEvent completed
+            && completed.totalXp() == 8 && completed.weeklyXp() == 8));
     }
 
-}
+    @Test
+    void testCompleteLesson_TwiceAwardsXpOnce() {
+        when(progressRepository.findByUserId(testUserId))
+            .thenReturn(testProgress);
+        when(lessonOrdinals.register("lesson-1")).thenReturn(3);
+        recordCompletionsInTestProgress();
+
+        progressService.completeLesson(testUserId, "lesson-1", 85.0);
+        progressService.completeLesson(testUserId, "lesson-1", 100.0);
+
+        assertEquals(8, testProgress.getXp());
+        assertEquals(8, testProgress.getWeeklyXp());
+        verify(progressRepository, times(1)).recordCompletion(eq(testUserId), eq(3), eq(8), anyString());
+        verify(eventPublisher, times(1)).publishEvent(any(LessonCompletedEvent.class));
+    }
+
+    @Test
+    void testCompletionAlreadyRecordedElsewhere_PublishesNothing() {
+        UserProgress stale = new UserProgress(testUserId);
+        when(progressRepository.findByUserId(testUserId)).thenReturn(stale);
+        when(lessonOrdinals.register("lesson-1")).thenReturn(3);
+        testProgress.completeLesson(3, 10, LeaderboardService.currentWeekKey());
+        recordCompletionsInTestProgress();
+
+        progressService.completeLesson(testUserId, "lesson-1", 100.0);
+
+        assertEquals(10, testProgress.getXp());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testLegacyCompletedLessonsAreMigrated() {
+        testProgress.setCompletedLessons(new ArrayList<>(List.of("lesson-1", "lesson-9")));
+        when(progressRepository.findByUserId(testUserId))
+            .thenReturn(testProgress);
+        when(lessonOrdinals.register("lesson-1")).thenReturn(0);
+        when(lessonOrdinals.register("lesson-9")).thenReturn(8);
+
+        UserProgress result = progressService.getUserProgress(testUserId);
+
+        assertNull(result.getCompletedLessons());
+        assertTrue(result.hasCompletedLesson(0));
+        assertTrue(result.hasCompletedLesson(8));
+        assertFalse(result.hasCompletedLesson(1));
+        assertEquals(2, result.getCompletedCount());
+        verify(progressRepository, times(1)).save(result);
+    }
+
+    @Test
+    void testCompletionBitsSurviveEncoding() {
+        testProgress.markLessonCompleted(5);
+        testProgress.markLessonCompleted(130);
 
+        UserProgress reloaded = new UserProgress(testUserId);
+        reloaded.setCompletedLessonBits(testProgress.getCompletedLessonBits());
 
+        assertTrue(reloaded.hasCompletedLesson(5));
+        assertTrue(reloaded.hasCompletedLesson(130));
+        assertFalse(reloaded.hasCompletedLesson(64));
+        assertEquals(3, reloaded.completedLessonWords().length);
+    }
+
+    @Test
+    void testParallelCompletionsKeepEveryXpAward() throws InterruptedException {
+        when(progressRepository.findByUserId(testUserId))
+            .thenReturn(testProgress);
+        for (int i = 0; i < 32; i++) {
+            when(lessonOrdinals.register("lesson-" + i)).thenReturn(i);
+        }
+        recordCompletionsInTestProgress();
+
+        Thread[] tabs = new Thread[32];
+        for (int i = 0; i < tabs.length; i++) {
+            String lessonId = "lesson-" + i;
+            tabs[i] = new Thread(() -> progressService.completeLesson(testUserId, lessonId, 100.0));
+            tabs[i].start();
+        }
+        for (Thread tab : tabs) {
+            tab.join();
+        }
+
+        assertEquals(320, testProgress.getXp());
+        assertEquals(32, testProgress.getCompletedCount());
+        assertEquals("Beginner", testProgress.getRank());
+        verify(progressRepository, times(32)).recordCompletion(eq(testUserId), anyInt(), eq(10), anyString());
+    }
+
+    @Test
+    void testLevelAndRankFollowXp() {
+        testProgress.setXp(2600);
+
+        assertEquals("intermediate", testProgress.getLevel());
+        assertEquals("Expert", testProgress.getRank());
+    }
+
+    @Test
+    void testCrossingALevelPublishesLevelReached() {
+        testProgress.setXp(1995);
+        when(progressRepository.findByUserId(testUserId))
+            .thenReturn(testProgress);
+        when(lessonOrdinals.register("lesson-1")).thenReturn(0);
+        recordCompletionsInTestProgress();
+
+        progressService.completeLesson(testUserId, "lesson-1", 90.0);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof LevelReachedEvent reached
+            && reached.level().equals("intermediate") && reached.createdAt() == testProgress.getCreatedAt()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.edustocks.service;
+
+import com.edustocks.model.Holding;
+import com.edustocks.model.Portfolio;
+import com.edustocks.model.RebalanceOrder;
+import com.edustocks.model.RebalancePlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RebalanceServiceTest {
+
+    private final RebalanceService rebalanceService = new RebalanceService();
+    private Portfolio portfolio;
+    private Map<String, Double> prices;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio("test-user-123");
+        portfolio.setBalance(1000.0);
+        portfolio.getHoldings().add(new Holding("AAPL", 20, 100.0, 100.0, 2000.0, 0, 0));
+        prices = new HashMap<>();
+        prices.put("AAPL", 100.0);
+        prices.put("MSFT", 300.0);
+    }
+
+    @Test
+    void testComputePlan_SellsBeforeBuys() {
+        RebalancePlan plan = rebalanceService.computePlan(portfolio, Map.of("AAPL", 0.5, "MSFT", 0.5), prices);
+
+        List<RebalanceOrder> orders = plan.getOrders();
+        assertEquals(2, orders.size());
+        assertEquals(new RebalanceOrder("AAPL", "SELL", 5, 100.0, 500.0), orders.get(0));
+        assertEquals(new RebalanceOrder("MSFT", "BUY", 5, 300.0, 1500.0), orders.get(1));
+        assertEquals(3000.0, plan.getTotalValue(), 1e-9);
+        assertEquals(0.0, plan.getCashAfter(), 1e-9);
+    }
+
+    @Test
+    void testComputePlan_UnlistedHoldingsAreSold() {
+        RebalancePlan plan = rebalanceService.computePlan(portfolio, Map.of("MSFT", 0.3), prices);
+
+        assertEquals(new RebalanceOrder("AAPL", "SELL", 20, 100.0, 2000.0), plan.getOrders().get(0));
+        assertEquals(new RebalanceOrder("MSFT", "BUY", 3, 300.0, 900.0), plan.getOrders().get(1));
+        assertEquals(2100.0, plan.getCashAfter(), 1e-9);
+    }
+
+    @Test
+    void testComputePlan_NeverSpendsMoreThanAvailable() {
+        prices.put("MSFT", 333.0);
+        RebalancePlan plan = rebalanceService.computePlan(portfolio, Map.of("AAPL", 0.25, "MSFT", 0.75), prices);
+
+        // 0.75 * 3000 / 333 = 6.76 shares, but the 302 left over cannot fund a seventh
+        assertEquals(302.0, plan.getCashAfter(), 1e-9);
+        assertEquals(6, plan.getOrders().stream()
+            .filter(o -> o.getSymbol().equals("MSFT")).findFirst().orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testComputePlan_LeftoverCashRoundsUpClosestShortfall() {
+        prices.put("MSFT", 270.0);
+        RebalancePlan plan = rebalanceService.computePlan(portfolio, Map.of("AAPL", 0.1, "MSFT", 0.8), prices);
+
+        // 2400 / 270 = 8.89 shares: a ninth share overshoots by less than eight undershoot,
+        // and the unallocated 10% leaves enough cash to pay for it
+        assertEquals(9, plan.getOrders().stream()
+            .filter(o -> o.getSymbol().equals("MSFT")).findFirst().orElseThrow().getQuantity());
+        assertEquals(270.0, plan.getCashAfter(), 1e-9);
+    }
+
+    @Test
+    void testComputePlan_AlreadyOnTarget_NoOrders() {
+        RebalancePlan plan = rebalanceService.computePlan(portfolio, Map.of("AAPL", 2.0 / 3.0), prices);
+
+        assertTrue(plan.getOrders().isEmpty());
+    }
+
+    @Test
+    void testComputePlan_RejectsWeightsAboveOne() {
+        assertThrows(IllegalArgumentException.class,
+            () -> rebalanceService.computePlan(portfolio, Map.of("AAPL", 0.7, "MSFT", 0.7), prices));
+    }
+}
@@ -0,0 +1,158 @@
+package com.edustocks.service;
+
+import com.edustocks.catalog.AnswerKey;
+import com.edustocks.catalog.LessonCatalog;
+import com.edustocks.model.Lesson;
+import com.edustocks.model.Question;
+import com.edustocks.model.ReviewDeck;
+import com.edustocks.repository.ReviewDeckRepository;
+import com.edustocks.storage.LocalDocumentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewServiceTest {
+
+    private static final long DAY = 24 * 60 * 60;
+    private static final Predicate<ReviewService.Card> ANY = card -> true;
+
+    @TempDir
+    Path dataDir;
+
+    private LocalDocumentStore store;
+    private ReviewService reviewService;
+
+    private final String userId = "test-user-123";
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalDocumentStore(dataDir, false);
+        reviewService = instance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private ReviewService instance() {
+        ReviewDeckRepository repository = new ReviewDeckRepository();
+        ReflectionTestUtils.setField(repository, "documentStore", store);
+        ReviewService service = new ReviewService();
+        ReflectionTestUtils.setField(service, "reviewDeckRepository", repository);
+        return service;
+    }
+
+    private List<String> storedCards() {
+        return store.get("reviews", userId, ReviewDeck.class).getCards();
+    }
+
+    @Test
+    void testSm2IntervalsGrowWithCorrectAnswers() {
+        ReviewService.Card card = ReviewService.schedule(null, "lesson-1", "q1", 4, 0);
+        assertEquals(1, card.intervalDays());
+        assertEquals(250, card.ease());
+
+        card = ReviewService.schedule(card, "lesson-1", "q1", 4, 0);
+        assertEquals(6, card.intervalDays());
+
+        card = ReviewService.schedule(card, "lesson-1", "q1", 5, 0);
+        assertEquals(15, card.intervalDays());
+        assertEquals(260, card.ease());
+        assertEquals(15 * DAY, card.dueAt());
+
+        ReviewService.Card lapsed = ReviewService.schedule(card, "lesson-1", "q1", 1, 0);
+        assertEquals(1, lapsed.intervalDays());
+        assertEquals(0, lapsed.repetitions());
+        assertEquals(206, lapsed.ease());
+    }
+
+    @Test
+    void testEaseNeverDropsBelowMinimum() {
+        ReviewService.Card card = null;
+        for (int i = 0; i < 10; i++) {
+            card = ReviewService.schedule(card, "lesson-1", "q1", 0, 0);
+        }
+        assertEquals(130, card.ease());
+    }
+
+    @Test
+    void testDueCardsComeBackEarliestFirstAndStayDueUntilReviewed() {
+        reviewService.recordReviews(userId, "lesson-1", List.of("q1", "q2"), new int[]{5, 1}, 0);
+        reviewService.recordReviews(userId, "lesson-2", List.of("q1"), new int[]{1}, 100);
+
+        assertTrue(reviewService.getDueCards(userId, 10, ANY, DAY - 1).isEmpty());
+
+        List<ReviewService.Card> due = reviewService.getDueCards(userId, 10, ANY, DAY + 100);
+        assertEquals(List.of("lesson-1|q1", "lesson-1|q2", "lesson-2|q1"),
+            due.stream().map(ReviewService.Card::key).toList());
+        assertEquals(3, reviewService.getDueCards(userId, 10, ANY, DAY + 100).size());
+        assertEquals(1, reviewService.getDueCards(userId, 1, ANY, DAY + 100).size());
+
+        // Reviewing q1 again pushes it six days out; its old heap entry is ignored
+        reviewService.recordReviews(userId, "lesson-1", List.of("q1"), new int[]{5}, DAY + 100);
+        assertEquals(List.of("lesson-1|q2", "lesson-2|q1"),
+            reviewService.getDueCards(userId, 10, ANY, DAY + 100).stream().map(ReviewService.Card::key).toList());
+    }
+
+    @Test
+    void testDeckIsPersistedCompactlyAndReloaded() {
+        reviewService.recordReviews(userId, "lesson-1", List.of("q1"), new int[]{4}, 0);
+
+        assertEquals(List.of("lesson-1|q1|250|1|1|86400"), storedCards());
+
+        List<ReviewService.Card> due = instance().getDueCards(userId, 10, ANY, DAY);
+        assertEquals(1, due.size());
+        assertEquals(1, due.get(0).repetitions());
+    }
+
+    @Test
+    void testCardsRemovedByCatalogReloadAreDroppedWithoutUsingTheLimit() {
+        // The stale cards fall due first, so without dropping them they would fill the limit
+        reviewService.recordReviews(userId, "lesson-2", List.of("q1"), new int[]{1}, 0);
+        reviewService.recordReviews(userId, "lesson-1", List.of("q1"), new int[]{1}, 1);
+        reviewService.recordReviews(userId, "lesson-1", List.of("q2"), new int[]{1}, 2);
+        reviewService.recordReviews(userId, "lesson-1", List.of("q3"), new int[]{1}, 3);
+
+        // The reload renames q1 and removes lesson-2 entirely
+        Lesson reloaded = new Lesson("lesson-1", "Stocks", "", "beginner", "", List.of(
+            new Question("q1-renamed", "One?", List.of("a", "b"), 0, ""),
+            new Question("q2", "Two?", List.of("a", "b"), 0, ""),
+            new Question("q3", "Three?", List.of("a", "b"), 0, "")), 1);
+        Predicate<ReviewService.Card> exists = exists(LessonCatalog.of(List.of(reloaded)));
+
+        List<ReviewService.Card> due = reviewService.getDueCards(userId, 2, exists, DAY + 3);
+        assertEquals(List.of("lesson-1|q2", "lesson-1|q3"), due.stream().map(ReviewService.Card::key).toList());
+
+        assertEquals(2, storedCards().size());
+        assertEquals(2, reviewService.getDueCards(userId, 10, ANY, DAY + 3).size());
+    }
+
+    @Test
+    void testInstancesWithCachedDecksKeepEachOthersReviews() {
+        ReviewService other = instance();
+        // Both instances now cache the empty deck
+        assertTrue(reviewService.getDueCards(userId, 10, ANY, DAY).isEmpty());
+        assertTrue(other.getDueCards(userId, 10, ANY, DAY).isEmpty());
+
+        reviewService.recordReviews(userId, "lesson-1", List.of("q1"), new int[]{4}, 0);
+        other.recordReviews(userId, "lesson-2", List.of("q1"), new int[]{4}, 0);
+
+        assertEquals(2, storedCards().size());
+        assertEquals(List.of("lesson-1|q1", "lesson-2|q1"),
+            other.getDueCards(userId, 10, ANY, DAY).stream().map(ReviewService.Card::key).sorted().toList());
+    }
+
+    private static Predicate<ReviewService.Card> exists(LessonCatalog catalog) {
+        AnswerKey answerKey = catalog.answerKey();
+        return card -> answerKey.hasQuestion(card.lessonId(), card.questionId());
+    }
+}
@@ -0,0 +1,110 @@
+package com.edustocks.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStateCacheTest {
+
+    // The "persisted" counters; each state is an AtomicInteger loaded from here
+    private final Map<String, Integer> stored = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+
+    private UserStateCache<AtomicInteger> cache(int maxUsers) {
+        return new UserStateCache<>(() -> maxUsers, () -> 1000, userId -> {
+            loads.incrementAndGet();
+            return new AtomicInteger(stored.getOrDefault(userId, 0));
+        }, now::get);
+    }
+
+    private int increment(UserStateCache<AtomicInteger> cache, String userId) {
+        return cache.withState(userId, state -> {
+            int next = state.incrementAndGet();
+            stored.put(userId, next);
+            return next;
+        });
+    }
+
+    @Test
+    void testEvictionDuringAnUpdateDoesNotLoseIt() throws Exception {
+        UserStateCache<AtomicInteger> cache = cache(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread slow = new Thread(() -> cache.withState("alice", state -> {
+            loaded.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stored.put("alice", state.incrementAndGet());
+            return null;
+        }));
+        slow.start();
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+
+        // Evicts alice while her update is still in progress
+        increment(cache, "bob");
+        Thread second = new Thread(() -> increment(cache, "alice"));
+        second.start();
+        Thread.sleep(50);
+        assertTrue(second.isAlive(), "waits for the first update instead of loading a stale copy");
+
+        release.countDown();
+        slow.join();
+        second.join();
+        assertEquals(2, stored.get("alice"));
+    }
+
+    @Test
+    void testFailedActionDropsTheCachedState() {
+        UserStateCache<AtomicInteger> cache = cache(10);
+        increment(cache, "alice");
+
+        assertThrows(IllegalStateException.class, () -> cache.withState("alice", state -> {
+            state.addAndGet(100);
+            throw new IllegalStateException("save failed");
+        }));
+
+        assertEquals(2, increment(cache, "alice"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testStateIsReloadedAfterTheTtl() {
+        UserStateCache<AtomicInteger> cache = cache(10);
+        increment(cache, "alice");
+        // Another instance records two more
+        stored.put("alice", 3);
+
+        now.set(999);
+        assertEquals(2, increment(cache, "alice"), "still the cached copy");
+        stored.put("alice", 3);
+        now.set(1000);
+        assertEquals(4, increment(cache, "alice"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testReplacedStateIsServedAndRestartsTheTtl() {
+        UserStateCache<AtomicInteger> cache = cache(10);
+        now.set(500);
+        cache.withState("alice", state -> {
+            cache.replace("alice", new AtomicInteger(7));
+            return null;
+        });
+
+        now.set(1400);
+        assertEquals(8, increment(cache, "alice"));
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,211 @@
+package com.edustocks.storage;
+
+import com.edustocks.model.Holding;
+import com.edustocks.model.Portfolio;
+import com.edustocks.model.UserProgress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalDocumentStoreTest {
+
+    @TempDir
+    Path dataDir;
+
+    private LocalDocumentStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private LocalDocumentStore open() {
+        if (store != null) {
+            store.close();
+        }
+        store = new LocalDocumentStore(dataDir, false);
+        return store;
+    }
+
+    @Test
+    void testPutAndGet() {
+        Portfolio portfolio = new Portfolio("user-1");
+        portfolio.getHoldings().add(new Holding("AAPL", 10, 150.0, 160.0, 1600.0, 100.0, 6.67));
+        open().put("portfolios", "user-1", portfolio);
+
+        assertEquals(portfolio, store.get("portfolios", "user-1", Portfolio.class));
+        assertNull(store.get("portfolios", "missing", Portfolio.class));
+    }
+
+    @Test
+    void testDataSurvivesReopen() {
+        open().put("portfolios", "user-1", new Portfolio("user-1"));
+        store.put("portfolios", "user-2", new Portfolio("user-2"));
+        store.delete("portfolios", "user-1");
+
+        open();
+        assertNull(store.get("portfolios", "user-1", Portfolio.class));
+        assertEquals("user-2", store.get("portfolios", "user-2", Portfolio.class).getUserId());
+        assertEquals(1, store.findAll("portfolios", Portfolio.class).size());
+    }
+
+    @Test
+    void testTornTailIsDiscardedOnReopen() throws IOException {
+        open().put("portfolios", "user-1", new Portfolio("user-1"));
+        store.close();
+        store = null;
+        try (FileChannel channel = FileChannel.open(dataDir.resolve("portfolios.log"), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 42, 1, 0}));
+        }
+
+        open();
+        assertNotNull(store.get("portfolios", "user-1", Portfolio.class));
+        store.put("portfolios", "user-2", new Portfolio("user-2"));
+        open();
+        assertNotNull(store.get("portfolios", "user-2", Portfolio.class));
+    }
+
+    @Test
+    void testOverwritesAreCompacted() throws IOException {
+        open();
+        Portfolio portfolio = new Portfolio("user-1");
+        for (int i = 0; i < 20000; i++) {
+            portfolio.setBalance(i);
+            store.put("portfolios", "user-1", portfolio);
+        }
+
+        assertTrue(Files.size(dataDir.resolve("portfolios.log")) < 2 << 20);
+        assertEquals(19999.0, store.get("portfolios", "user-1", Portfolio.class).getBalance());
+        open();
+        assertEquals(19999.0, store.get("portfolios", "user-1", Portfolio.class).getBalance());
+    }
+
+    @Test
+    void testInterruptedCallerDoesNotCloseTheLogForOthers() {
+        open().put("portfolios", "user-1", new Portfolio("user-1"));
+
+        // An interrupted channel read or write closes the shared channel
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(RuntimeException.class, () -> store.get("portfolios", "user-1", Portfolio.class));
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals("user-1", store.get("portfolios", "user-1", Portfolio.class).getUserId());
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(RuntimeException.class, () -> store.put("portfolios", "user-2", new Portfolio("user-2")));
+        } finally {
+            Thread.interrupted();
+        }
+        store.put("portfolios", "user-2", new Portfolio("user-2"));
+        open();
+        assertEquals(2, store.findAll("portfolios", Portfolio.class).size());
+    }
+
+    @Test
+    void testScanVisitsEveryDocumentInIdOrder() {
+        open();
+        for (int i = 9; i >= 0; i--) {
+            store.put("portfolios", "user-" + i, new Portfolio("user-" + i));
+        }
+        store.delete("portfolios", "user-4");
+
+        try (Stream<Portfolio> all = store.scan("portfolios", Portfolio.class, 3, 2)) {
+            List<String> ids = all.map(Portfolio::getUserId).collect(Collectors.toList());
+            assertEquals(List.of("user-0", "user-1", "user-2", "user-3", "user-5",
+                "user-6", "user-7", "user-8", "user-9"), ids);
+        }
+    }
+
+    @Test
+    void testScanStopsEarlyAndHandlesExactPageMultiples() {
+        open();
+        for (int i = 0; i < 6; i++) {
+            store.put("portfolios", "user-" + i, new Portfolio("user-" + i));
+        }
+
+        try (Stream<Portfolio> all = store.scan("portfolios", Portfolio.class, 3, 2)) {
+            assertEquals(6, all.count());
+        }
+        try (Stream<Portfolio> firstTwo = store.scan("portfolios", Portfolio.class, 3, 2)) {
+            assertEquals(2, firstTwo.limit(2).count());
+        }
+        try (Stream<Portfolio> empty = store.scan("missing", Portfolio.class, 3, 2)) {
+            assertEquals(0, empty.count());
+        }
+    }
+
+    @Test
+    void testConcurrentIncrementsAreNotLost() throws InterruptedException {
+        UserProgress progress = new UserProgress("user-1");
+        progress.setClassId("class-a");
+        open().put("userProgress", "user-1", progress);
+
+        Thread[] writers = new Thread[8];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    store.update("userProgress", "user-1", Map.of("weekKey", "2026-W42"), Map.of("xp", 3L));
+                }
+            });
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        UserProgress stored = open().get("userProgress", "user-1", UserProgress.class);
+        assertEquals(2400, stored.getXp());
+        assertEquals("2026-W42", stored.getWeekKey());
+        assertEquals("class-a", stored.getClassId(), "fields not in the update are kept");
+    }
+
+    @Test
+    void testTransactSeesEveryPriorWrite() throws InterruptedException {
+        open();
+        Thread[] writers = new Thread[8];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    store.transact("userProgress", "user-1", UserProgress.class, current -> {
+                        UserProgress next = current == null ? new UserProgress("user-1") : current;
+                        next.setXp(next.getXp() + 1);
+                        return next;
+                    });
+                }
+            });
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(400, store.get("userProgress", "user-1", UserProgress.class).getXp());
+        UserProgress unchanged = store.transact("userProgress", "user-1", UserProgress.class, current -> null);
+        assertEquals(400, unchanged.getXp());
+        assertNull(store.transact("userProgress", "user-2", UserProgress.class, current -> null));
+        assertNull(store.get("userProgress", "user-2", UserProgress.class));
+        assertThrows(IllegalStateException.class, () -> store.transact("userProgress", "user-1", UserProgress.class,
+            current -> {
+                throw new IllegalStateException("abort");
+            }));
+        assertEquals(400, open().get("userProgress", "user-1", UserProgress.class).getXp());
+    }
+}
@@ -1,13 +1,16 @@
 import React, { useState } from 'react';
 import { aiTrainerApi, progressApi } from '../services/api';
-import { AITrainerQuestion } from '../services/api';
+import { AITrainerQuestion, AITrainerFeedback } from '../services/api';
 import { AcademicCapIcon, LightBulbIcon, ChatBubbleLeftRightIcon } from '@heroicons/react/24/outline';
 import toast from 'react-hot-toast';
 
+const TOPICS = ['stock basics', 'valuation', 'dividends', 'risk management', 'order types', 'diversification'];
+
 const AITrainer: React.FC = () => {
   const [question, setQuestion] = useState<AITrainerQuestion | null>(null);
   const [selectedAnswer, setSelectedAnswer] = useState<number | null>(null);
   const [showExplanation, setShowExplanation] = useState(false);
+  const [feedback, setFeedback] = useState<AITrainerFeedback | null>(null);
   const [userQuery, setUserQuery] = useState('');
   const [aiResponse, setAiResponse] = useState('');
   const [loading, setLoading] = useState(false);
@@ -34,7 +37,9 @@ const AITrainer: React.FC = () => {
       setLoading(true);
       setShowExplanation(false);
       setSelectedAnswer(null);
-      const data = await aiTrainerApi.getQuestion(level);
+      setFeedback(null);
+      const topic = TOPICS[Math.floor(Math.random() * TOPICS.length)];
+      const data = await aiTrainerApi.getQuestion(level, topic);
       setQuestion(data);
       setAiResponse('');
     } catch (error) {
@@ -52,8 +57,10 @@ const AITrainer: React.FC = () => {
 
     try {
       setQueryLoading(true);
-      const response = await aiTrainerApi.askQuestion(userQuery, level);
-      setAiResponse(response);
+      setAiResponse('');
+      await aiTrainerApi.askQuestionStream(userQuery, level, (token) =>
+        setAiResponse((previous) => previous + token)
+      );
       setUserQuery('');
     } catch (error) {
       toast.error('Failed to get AI response');
@@ -72,7 +79,8 @@ const AITrainer: React.FC = () => {
     if (selectedAnswer === null || !question) return;
 
     try {
-      const response = await aiTrainerApi.submitAnswer(question.question, selectedAnswer);
+      const response = await aiTrainerApi.submitAnswer(question.questionId, selectedAnswer);
+      setFeedback(response);
       setShowExplanation(true);
       if (response.correct) {
         toast.success('Correct! Great job!');
@@ -164,7 +172,10 @@ const AITrainer: React.FC = () => {
                 {showExplanation && (
                   <div className="mb-6 p-4 bg-emerald-500/20 rounded-lg border-l-4 border-emerald-500">
                     <p className="font-medium text-emerald-300 mb-2">Explanation:</p>
-                    <p className="text-emerald-200">{question.explanation}</p>
+                    <p className="text-emerald-200">
+                      {feedback && !feedback.correct && `The answer is ${String.fromCharCode(65 + feedback.correctAnswer)}. `}
+                      {feedback?.explanation}
+                    </p>
                   </div>
                 )}
 
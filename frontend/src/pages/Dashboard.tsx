@@ -286,7 +286,7 @@ const Dashboard: React.FC = () => {
                 </div>
               </div>
               <div className="flex justify-between text-sm text-navy-300">
-                <span>Completed Lessons: <span className="text-emerald-400 font-semibold">{progress.completedLessons.length}</span></span>
+                <span>Completed Lessons: <span className="text-emerald-400 font-semibold">{progress.completedCount}</span></span>
                 <span>Rank: <span className="text-emerald-400 font-semibold">{progress.rank || 'Novice'}</span></span>
               </div>
             </div>
@@ -1,7 +1,7 @@
 import React, { useEffect, useState, useCallback } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import { lessonApi } from '../services/api';
-import { Lesson } from '../services/api';
+import { Lesson, QuizResult } from '../services/api';
 import { CheckCircleIcon, XCircleIcon } from '@heroicons/react/24/outline';
 import toast from 'react-hot-toast';
 
@@ -11,9 +11,9 @@ const LessonDetail: React.FC = () => {
   const [lesson, setLesson] = useState<Lesson | null>(null);
   const [currentQuestionIndex, setCurrentQuestionIndex] = useState(0);
   const [selectedAnswer, setSelectedAnswer] = useState<number | null>(null);
-  const [showExplanation, setShowExplanation] = useState(false);
-  const [score, setScore] = useState(0);
-  const [completed, setCompleted] = useState(false);
+  const [answers, setAnswers] = useState<number[]>([]);
+  const [result, setResult] = useState<QuizResult | null>(null);
+  const [submitting, setSubmitting] = useState(false);
   const [loading, setLoading] = useState(true);
 
   const loadLesson = useCallback(async () => {
@@ -35,47 +35,39 @@ const LessonDetail: React.FC = () => {
   }, [id, loadLesson]);
 
   const handleAnswerSelect = (answerIndex: number) => {
-    if (showExplanation) return;
     setSelectedAnswer(answerIndex);
   };
 
-  const handleSubmitAnswer = () => {
-    if (selectedAnswer === null) return;
-
-    const currentQuestion = lesson?.questions[currentQuestionIndex];
-    if (!currentQuestion) return;
-
-    const isCorrect = selectedAnswer === currentQuestion.correctAnswer;
-    if (isCorrect) {
-      setScore(score + 1);
-      toast.success('Correct!');
-    } else {
-      toast.error('Incorrect. Check the explanation.');
-    }
+  const handleNextQuestion = () => {
+    if (selectedAnswer === null || !lesson) return;
 
-    setShowExplanation(true);
-  };
+    const updatedAnswers = [...answers];
+    updatedAnswers[currentQuestionIndex] = selectedAnswer;
+    setAnswers(updatedAnswers);
 
-  const handleNextQuestion = () => {
-    if (currentQuestionIndex < (lesson?.questions.length || 0) - 1) {
+    if (currentQuestionIndex < lesson.questions.length - 1) {
       setCurrentQuestionIndex(currentQuestionIndex + 1);
-      setSelectedAnswer(null);
-      setShowExplanation(false);
+      setSelectedAnswer(updatedAnswers[currentQuestionIndex + 1] ?? null);
     } else {
-      handleCompleteLesson();
+      handleCompleteLesson(updatedAnswers);
     }
   };
 
-  const handleCompleteLesson = async () => {
+  const handleCompleteLesson = async (finalAnswers: number[]) => {
     if (!lesson || !id) return;
 
     try {
-      const finalScore = (score / lesson.questions.length) * 100;
-      await lessonApi.completeLesson(id, finalScore);
-      setCompleted(true);
-      toast.success(`Lesson completed! Score: ${finalScore.toFixed(0)}%`);
+      setSubmitting(true);
+      // The server holds the answer key: it grades the answers, records the score and
+      // returns per-question feedback
+      const submitted = lesson.questions.map((_, index) => finalAnswers[index] ?? -1);
+      const graded = await lessonApi.submitQuiz(id, submitted);
+      setResult(graded);
+      toast.success(`Lesson completed! Score: ${graded.score.toFixed(0)}%`);
     } catch (error) {
       toast.error('Failed to complete lesson');
+    } finally {
+      setSubmitting(false);
     }
   };
 
@@ -96,6 +88,7 @@ const LessonDetail: React.FC = () => {
   }
 
   const currentQuestion = lesson.questions[currentQuestionIndex];
+  const completed = result !== null;
 
   return (
     <div className="min-h-screen bg-gradient-to-br from-navy-950 via-navy-900 to-navy-800">
@@ -127,9 +120,6 @@ const LessonDetail: React.FC = () => {
                 <span className="text-sm font-medium text-gray-600">
                   Question {currentQuestionIndex + 1} of {lesson.questions.length}
                 </span>
-                <span className="text-sm font-medium text-gray-600">
-                  Score: {score}/{lesson.questions.length}
-                </span>
               </div>
               <h2 className="text-2xl font-bold text-gray-900">{currentQuestion.question}</h2>
             </div>
@@ -137,79 +127,69 @@ const LessonDetail: React.FC = () => {
             <div className="space-y-3 mb-6">
               {currentQuestion.options.map((option, index) => {
                 const isSelected = selectedAnswer === index;
-                const isCorrect = index === currentQuestion.correctAnswer;
-                const showResult = showExplanation;
-
-                let bgColor = 'bg-gray-50 hover:bg-gray-100';
-                if (showResult) {
-                  if (isCorrect) {
-                    bgColor = 'bg-success-50 border-2 border-success-600';
-                  } else if (isSelected && !isCorrect) {
-                    bgColor = 'bg-red-50 border-2 border-red-600';
-                  }
-                } else if (isSelected) {
-                  bgColor = 'bg-primary-50 border-2 border-primary-600';
-                }
+                const bgColor = isSelected
+                  ? 'bg-primary-50 border-2 border-primary-600'
+                  : 'bg-gray-50 hover:bg-gray-100';
 
                 return (
                   <button
                     key={index}
                     onClick={() => handleAnswerSelect(index)}
-                    disabled={showExplanation}
-                    className={`w-full text-left p-4 rounded-lg border-2 border-transparent transition-colors ${bgColor} ${
-                      !showExplanation ? 'cursor-pointer' : 'cursor-default'
-                    }`}
+                    disabled={submitting}
+                    className={`w-full text-left p-4 rounded-lg border-2 border-transparent transition-colors cursor-pointer ${bgColor}`}
                   >
-                    <div className="flex items-center justify-between">
-                      <span>{option}</span>
-                      {showResult && isCorrect && (
-                        <CheckCircleIcon className="h-6 w-6 text-success-600" />
-                      )}
-                      {showResult && isSelected && !isCorrect && (
-                        <XCircleIcon className="h-6 w-6 text-red-600" />
-                      )}
-                    </div>
+                    <span>{option}</span>
                   </button>
                 );
               })}
             </div>
 
-            {showExplanation && (
-              <div className="mb-6 p-4 bg-blue-50 rounded-lg border-l-4 border-primary-600">
-                <p className="font-medium text-gray-900 mb-2">Explanation:</p>
-                <p className="text-gray-700">{currentQuestion.explanation}</p>
-              </div>
-            )}
-
             <div className="flex justify-end">
-              {!showExplanation ? (
-                <button
-                  onClick={handleSubmitAnswer}
-                  disabled={selectedAnswer === null}
-                  className="px-6 py-2 bg-gradient-to-r from-primary-600 to-success-600 text-white rounded-lg hover:shadow-lg disabled:opacity-50 disabled:cursor-not-allowed"
-                >
-                  Submit Answer
-                </button>
-              ) : (
-                <button
-                  onClick={handleNextQuestion}
-                  className="px-6 py-2 bg-gradient-to-r from-primary-600 to-success-600 text-white rounded-lg hover:shadow-lg"
-                >
-                  {currentQuestionIndex < lesson.questions.length - 1 ? 'Next Question' : 'Complete Lesson'}
-                </button>
-              )}
+              <button
+                onClick={handleNextQuestion}
+                disabled={selectedAnswer === null || submitting}
+                className="px-6 py-2 bg-gradient-to-r from-primary-600 to-success-600 text-white rounded-lg hover:shadow-lg disabled:opacity-50 disabled:cursor-not-allowed"
+              >
+                {currentQuestionIndex < lesson.questions.length - 1 ? 'Next Question' : 'Complete Lesson'}
+              </button>
             </div>
           </div>
         )}
 
         {/* Completion Screen */}
-        {completed && (
+        {result && (
           <div className="bg-white rounded-xl shadow-lg p-8 text-center">
             <CheckCircleIcon className="h-16 w-16 text-success-600 mx-auto mb-4" />
             <h2 className="text-3xl font-bold text-gray-900 mb-2">Lesson Completed!</h2>
             <p className="text-xl text-gray-600 mb-6">
-              Your score: {((score / lesson.questions.length) * 100).toFixed(0)}%
+              Your score: {result.score.toFixed(0)}% ({result.correctCount}/{result.totalQuestions})
             </p>
+            <div className="space-y-4 mb-6 text-left">
+              {result.feedback.map((item, index) => {
+                const question = lesson.questions[index];
+                return (
+                  <div
+                    key={item.questionId ?? index}
+                    className={`p-4 rounded-lg border-l-4 ${item.correct ? 'bg-success-50 border-success-600' : 'bg-red-50 border-red-600'}`}
+                  >
+                    <div className="flex items-start justify-between mb-2">
+                      <p className="font-medium text-gray-900">{question?.question}</p>
+                      {item.correct ? (
+                        <CheckCircleIcon className="h-6 w-6 text-success-600 flex-shrink-0" />
+                      ) : (
+                        <XCircleIcon className="h-6 w-6 text-red-600 flex-shrink-0" />
+                      )}
+                    </div>
+                    {!item.correct && question && (
+                      <p className="text-gray-700 mb-1">
+                        Correct answer: {question.options[item.correctAnswer]}
+                      </p>
+                    )}
+                    <p className="text-gray-700">{item.explanation}</p>
+                  </div>
+                );
+              })}
+            </div>
             <div className="flex space-x-4 justify-center">
               <button
                 onClick={() => navigate('/lessons')}
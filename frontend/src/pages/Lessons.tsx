@@ -1,13 +1,14 @@
 import React, { useEffect, useState, useCallback } from 'react';
 import { Link } from 'react-router-dom';
 import { lessonApi, progressApi } from '../services/api';
-import { Lesson, UserProgress } from '../services/api';
+import { LessonSummary, LevelProgress, UserProgress } from '../services/api';
 import { BookOpenIcon, CheckCircleIcon, LockClosedIcon } from '@heroicons/react/24/outline';
 import toast from 'react-hot-toast';
 
 const Lessons: React.FC = () => {
-  const [lessons, setLessons] = useState<Lesson[]>([]);
+  const [lessons, setLessons] = useState<LessonSummary[]>([]);
   const [progress, setProgress] = useState<UserProgress | null>(null);
+  const [levelProgress, setLevelProgress] = useState<LevelProgress[]>([]);
   const [selectedLevel, setSelectedLevel] = useState<'beginner' | 'intermediate' | 'advanced'>('beginner');
   const [loading, setLoading] = useState(true);
 
@@ -25,8 +26,9 @@ const Lessons: React.FC = () => {
 
   const loadProgress = async () => {
     try {
-      const data = await progressApi.getProgress();
+      const [data, levels] = await Promise.all([progressApi.getProgress(), progressApi.getLevelProgress()]);
       setProgress(data);
+      setLevelProgress(levels);
     } catch (error) {
       // Progress might not exist for new users
     }
@@ -38,10 +40,10 @@ const Lessons: React.FC = () => {
   }, [selectedLevel, loadLessons]);
 
   const isLessonCompleted = (lessonId: string) => {
-    return progress?.completedLessons.includes(lessonId) || false;
+    return levelProgress.some(level => level.completedLessonIds.includes(lessonId));
   };
 
-  const isLessonLocked = (lesson: Lesson) => {
+  const isLessonLocked = (lesson: LessonSummary) => {
     if (lesson.level === 'beginner') return false;
     if (lesson.level === 'intermediate') {
       return progress?.level === 'beginner';
@@ -119,7 +121,7 @@ const Lessons: React.FC = () => {
 
                   <div className="flex items-center justify-between">
                     <span className="text-sm text-gray-500">
-                      {lesson.questions.length} questions
+                      {lesson.questionCount} questions
                     </span>
                     {locked ? (
                       <span className="text-sm text-gray-500">Locked</span>
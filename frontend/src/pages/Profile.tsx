@@ -1,7 +1,7 @@
 import React, { useEffect, useState } from 'react';
 import { useAuth } from '../contexts/AuthContext';
 import { progressApi, portfolioApi } from '../services/api';
-import { UserProgress, Portfolio } from '../services/api';
+import { UserProgress, Portfolio, Achievement } from '../services/api';
 import { AcademicCapIcon, ChartBarIcon, TrophyIcon } from '@heroicons/react/24/outline';
 import toast from 'react-hot-toast';
 
@@ -9,6 +9,7 @@ const Profile: React.FC = () => {
   const { currentUser } = useAuth();
   const [progress, setProgress] = useState<UserProgress | null>(null);
   const [portfolio, setPortfolio] = useState<Portfolio | null>(null);
+  const [achievements, setAchievements] = useState<Achievement[]>([]);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
@@ -17,12 +18,14 @@ const Profile: React.FC = () => {
 
   const loadProfileData = async () => {
     try {
-      const [progressData, portfolioData] = await Promise.all([
+      const [progressData, portfolioData, achievementData] = await Promise.all([
         progressApi.getProgress().catch(() => null),
         portfolioApi.getPortfolio().catch(() => null),
+        progressApi.getAchievements().catch(() => []),
       ]);
       setProgress(progressData);
       setPortfolio(portfolioData);
+      setAchievements(achievementData);
     } catch (error) {
       toast.error('Failed to load profile data');
     } finally {
@@ -126,7 +129,7 @@ const Profile: React.FC = () => {
               </div>
             </div>
             <div className="flex justify-between text-sm text-gray-600">
-              <span>Completed Lessons: {progress?.completedLessons.length || 0}</span>
+              <span>Completed Lessons: {progress?.completedCount || 0}</span>
               <span>Next Level: {1000 - ((progress?.xp || 0) % 1000)} XP</span>
             </div>
           </div>
@@ -167,29 +170,27 @@ const Profile: React.FC = () => {
         <div className="bg-white rounded-xl shadow-lg p-6">
           <h3 className="text-xl font-bold text-gray-900 mb-4">Achievements</h3>
           <div className="space-y-2">
-            <div className="flex items-center space-x-3 p-3 bg-gray-50 rounded-lg">
-              <TrophyIcon className="h-6 w-6 text-yellow-500" />
-              <div>
-                <p className="font-medium text-gray-900">First Trade</p>
-                <p className="text-sm text-gray-600">Complete your first stock trade</p>
-              </div>
-            </div>
-            <div className="flex items-center space-x-3 p-3 bg-gray-50 rounded-lg">
-              <AcademicCapIcon className="h-6 w-6 text-blue-500" />
-              <div>
-                <p className="font-medium text-gray-900">First Lesson</p>
-                <p className="text-sm text-gray-600">Complete your first lesson</p>
-              </div>
-            </div>
-            {(progress?.completedLessons.length || 0) >= 5 && (
-              <div className="flex items-center space-x-3 p-3 bg-green-50 rounded-lg border-2 border-success-600">
-                <TrophyIcon className="h-6 w-6 text-success-600" />
-                <div>
-                  <p className="font-medium text-gray-900">Knowledge Seeker</p>
-                  <p className="text-sm text-gray-600">Complete 5 lessons</p>
+            {achievements.map((achievement) => (
+              <div
+                key={achievement.id}
+                className={`flex items-center space-x-3 p-3 rounded-lg ${
+                  achievement.unlocked ? 'bg-green-50 border-2 border-success-600' : 'bg-gray-50'
+                }`}
+              >
+                <TrophyIcon
+                  className={`h-6 w-6 ${achievement.unlocked ? 'text-success-600' : 'text-gray-400'}`}
+                />
+                <div className="flex-1">
+                  <p className="font-medium text-gray-900">{achievement.title}</p>
+                  <p className="text-sm text-gray-600">{achievement.description}</p>
                 </div>
+                {!achievement.unlocked && achievement.target > 1 && achievement.progress > 0 && (
+                  <span className="text-sm text-gray-500">
+                    {achievement.progress}/{achievement.target}
+                  </span>
+                )}
               </div>
-            )}
+            ))}
           </div>
         </div>
       </div>
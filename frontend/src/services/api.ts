@@ -1,8 +1,10 @@
 import axios from 'axios';
 import { auth } from '../firebase/config';
 
+const API_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
+
 const api = axios.create({
-  baseURL: process.env.REACT_APP_API_URL || 'http://localhost:8080/api',
+  baseURL: API_URL,
 });
 
 // Add token to requests
@@ -46,38 +48,122 @@ export interface Holding {
   profitPercent: number;
 }
 
-export interface Lesson {
+export interface RebalanceOrder {
+  symbol: string;
+  side: 'BUY' | 'SELL';
+  quantity: number;
+  price: number;
+  value: number;
+}
+
+export interface RebalancePlan {
+  orders: RebalanceOrder[];
+  totalValue: number;
+  cashBefore: number;
+  cashAfter: number;
+  resultingWeights: Record<string, number>;
+}
+
+export interface LessonSummary {
   id: string;
   title: string;
   description: string;
   level: 'beginner' | 'intermediate' | 'advanced';
+  order: number;
+  questionCount: number;
+}
+
+export interface LessonSearchHit {
+  lesson: LessonSummary;
+  score: number;
+}
+
+export interface Lesson extends LessonSummary {
   content: string;
   questions: Question[];
-  order: number;
 }
 
-export interface Question {
-  id: string;
+export interface QuestionFeedback {
+  questionId: string;
+  correct: boolean;
+  correctAnswer: number;
+  explanation: string;
+}
+
+export interface QuizResult {
+  lessonId: string;
+  score: number;
+  correctCount: number;
+  totalQuestions: number;
+  feedback: QuestionFeedback[];
+}
+
+export interface ReviewItem {
+  lessonId: string;
+  lessonTitle: string;
+  questionId: string;
   question: string;
   options: string[];
+  dueAt: number;
+  repetitions: number;
+}
+
+export interface ReviewResult {
+  lessonId: string;
+  questionId: string;
+  correct: boolean;
   correctAnswer: number;
   explanation: string;
+  nextReviewAt: number;
+  intervalDays: number;
+}
+
+// Answers and explanations are not sent with the lesson; they come back in the QuizResult
+export interface Question {
+  id: string;
+  question: string;
+  options: string[];
 }
 
 export interface UserProgress {
   userId: string;
   level: 'beginner' | 'intermediate' | 'advanced';
-  completedLessons: string[];
+  completedCount: number;
   xp: number;
   rank: string;
 }
 
+export interface Achievement {
+  id: string;
+  title: string;
+  description: string;
+  unlocked: boolean;
+  unlockedAt: number | null;
+  progress: number;
+  target: number;
+}
+
+export interface LevelProgress {
+  level: string;
+  completedLessons: number;
+  totalLessons: number;
+  percentComplete: number;
+  nextLessonId: string | null;
+  completedLessonIds: string[];
+}
+
 export interface AITrainerQuestion {
+  questionId: string;
   question: string;
   options: string[];
+  level: string;
+  topic: string;
+}
+
+export interface AITrainerFeedback {
+  correct: boolean;
   correctAnswer: number;
   explanation: string;
-  topic: string;
 }
 
 export const stockApi = {
@@ -96,26 +182,36 @@ export const portfolioApi = {
     const response = await api.get('/portfolio');
     return response.data;
   },
-  buyStock: async (symbol: string, quantity: number): Promise<void> => {
-    await api.post('/portfolio/buy', { symbol, quantity });
+  // The idempotency key lets the backend dedupe retried submissions of the same order
+  buyStock: async (symbol: string, quantity: number, idempotencyKey: string = crypto.randomUUID()): Promise<void> => {
+    await api.post('/portfolio/buy', { symbol, quantity }, { headers: { 'Idempotency-Key': idempotencyKey } });
   },
-  sellStock: async (symbol: string, quantity: number): Promise<void> => {
-    await api.post('/portfolio/sell', { symbol, quantity });
+  sellStock: async (symbol: string, quantity: number, idempotencyKey: string = crypto.randomUUID()): Promise<void> => {
+    await api.post('/portfolio/sell', { symbol, quantity }, { headers: { 'Idempotency-Key': idempotencyKey } });
+  },
+  previewRebalance: async (targets: Record<string, number>): Promise<RebalancePlan> => {
+    const response = await api.post('/portfolio/rebalance', { targets });
+    return response.data;
   },
 };
 
 export const lessonApi = {
-  getLessons: async (level?: string): Promise<Lesson[]> => {
+  getLessons: async (level?: string): Promise<LessonSummary[]> => {
     const params = level ? { level } : {};
     const response = await api.get('/lessons', { params });
     return response.data;
   },
+  searchLessons: async (q: string, limit = 10): Promise<LessonSearchHit[]> => {
+    const response = await api.get('/lessons/search', { params: { q, limit } });
+    return response.data;
+  },
   getLesson: async (id: string): Promise<Lesson> => {
     const response = await api.get(`/lessons/${id}`);
     return response.data;
   },
-  completeLesson: async (id: string, score: number): Promise<void> => {
-    await api.post(`/lessons/${id}/complete`, { score });
+  submitQuiz: async (id: string, answers: number[]): Promise<QuizResult> => {
+    const response = await api.post(`/lessons/${id}/submit`, { answers });
+    return response.data;
   },
 };
 
@@ -124,6 +220,22 @@ export const progressApi = {
     const response = await api.get('/progress');
     return response.data;
   },
+  getLevelProgress: async (): Promise<LevelProgress[]> => {
+    const response = await api.get('/progress/levels');
+    return response.data;
+  },
+  getAchievements: async (): Promise<Achievement[]> => {
+    const response = await api.get('/progress/achievements');
+    return response.data;
+  },
+  getReviews: async (limit = 20): Promise<ReviewItem[]> => {
+    const response = await api.get('/progress/reviews', { params: { limit } });
+    return response.data;
+  },
+  submitReview: async (lessonId: string, questionId: string, answer: number): Promise<ReviewResult> => {
+    const response = await api.post('/progress/reviews', { lessonId, questionId, answer });
+    return response.data.result;
+  },
 };
 
 export const aiTrainerApi = {
@@ -132,7 +244,7 @@ export const aiTrainerApi = {
     const response = await api.post('/ai-trainer/question', params);
     return response.data;
   },
-  submitAnswer: async (questionId: string, answer: number): Promise<{ correct: boolean; explanation: string }> => {
+  submitAnswer: async (questionId: string, answer: number): Promise<AITrainerFeedback> => {
     const response = await api.post('/ai-trainer/answer', { questionId, answer });
     return response.data;
   },
@@ -140,6 +252,47 @@ export const aiTrainerApi = {
     const response = await api.post('/ai-trainer/ask', { query, level });
     return response.data.response;
   },
+  // Streams the answer over server-sent events, calling onToken as each fragment arrives.
+  // axios cannot read a response body incrementally in the browser, so this uses fetch.
+  // The server writes "data:" with no separating space, so a token's leading space is kept.
+  askQuestionStream: async (query: string, level: string, onToken: (token: string) => void): Promise<void> => {
+    const headers: Record<string, string> = { 'Content-Type': 'application/json', Accept: 'text/event-stream' };
+    const user = auth.currentUser;
+    if (user) {
+      headers.Authorization = `Bearer ${await user.getIdToken()}`;
+    }
+    const response = await fetch(`${API_URL}/ai-trainer/ask/stream`, {
+      method: 'POST',
+      headers,
+      body: JSON.stringify({ query, level }),
+    });
+    if (!response.ok || !response.body) {
+      throw new Error(`Streaming request failed with status ${response.status}`);
+    }
+
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    for (;;) {
+      const { done, value } = await reader.read();
+      if (done) return;
+      buffer += decoder.decode(value, { stream: true });
+      let boundary;
+      while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+        const raw = buffer.slice(0, boundary);
+        buffer = buffer.slice(boundary + 2);
+        let event = 'message';
+        const data: string[] = [];
+        for (const line of raw.split('\n')) {
+          if (line.startsWith('event:')) event = line.slice(6).trim();
+          else if (line.startsWith('data:')) data.push(line.slice(5));
+        }
+        if (event === 'token') onToken(data.join('\n'));
+        else if (event === 'error') throw new Error(data.join('\n'));
+        else if (event === 'done') return;
+      }
+    }
+  },
 };
 
 export default api;